@@ -0,0 +1,138 @@
+package export.benchmark;
+
+import export.entity.TableHeader;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * @author deng-zj
+ * @date 2026-10-17
+ * @description 基准测试数据：按参数生成表头和表格数据
+ * 表格数据只生成<field>POOL_SIZE</field>行不同的数据，按需要的行数循环拉取，100万行时也不需要全部放在内存中
+ * @since JDK1.8
+ */
+final class BenchmarkData {
+
+    /**
+     * 不同数据的行数
+     */
+    private static final int POOL_SIZE = 1000;
+
+    /**
+     * 实体类的字段数，表头更宽时循环取值
+     */
+    private static final int BEAN_FIELD_NUM = 10;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * 生成表头
+     *
+     * @param rowType     数据类型：map | list | bean
+     * @param headerWidth 表格总列数
+     * @param headerDepth 表头层级，大于1时每两个表头组成上一级表头
+     * @return
+     */
+    static List<TableHeader> tableHeaderList(String rowType, int headerWidth, int headerDepth) {
+        List<TableHeader> tableHeaderList = new ArrayList<>(headerWidth);
+        for (int j = 0; j < headerWidth; j++) {
+            TableHeader tableHeader = new TableHeader();
+            tableHeader.setHeaderText("第" + j + "列");
+            if ("map".equals(rowType)) {
+                tableHeader.setField("field" + j);
+            } else if ("bean".equals(rowType)) {
+                tableHeader.setField("field" + (j % BEAN_FIELD_NUM));
+            }
+            tableHeaderList.add(tableHeader);
+        }
+
+        for (int level = 1; level < headerDepth; level++) {
+            List<TableHeader> groupList = new ArrayList<>();
+            for (int j = 0; j < tableHeaderList.size(); j += 2) {
+                TableHeader group = new TableHeader();
+                group.setHeaderText("第" + level + "级第" + j + "组");
+                group.setChildren(new ArrayList<>(tableHeaderList.subList(j, Math.min(j + 2, tableHeaderList.size()))));
+                groupList.add(group);
+            }
+            tableHeaderList = groupList;
+        }
+        return tableHeaderList;
+    }
+
+    /**
+     * 生成表格数据
+     *
+     * @param rowType     数据类型：map | list | bean
+     * @param headerWidth 表格总列数
+     * @param background  是否带 $bg 自定义背景色
+     * @return
+     */
+    static List<Object> rowPool(String rowType, int headerWidth, boolean background) {
+        List<Object> rowPool = new ArrayList<>(POOL_SIZE);
+        for (int i = 0; i < POOL_SIZE; i++) {
+            if ("map".equals(rowType)) {
+                Map<String, Object> rowData = new HashMap<>();
+                for (int j = 0; j < headerWidth; j++) {
+                    rowData.put("field" + j, cellValue(i, j, background));
+                }
+                rowPool.add(rowData);
+            } else if ("list".equals(rowType)) {
+                List<Object> rowData = new ArrayList<>(headerWidth);
+                for (int j = 0; j < headerWidth; j++) {
+                    rowData.add(cellValue(i, j, background));
+                }
+                rowPool.add(rowData);
+            } else {
+                String[] fields = new String[BEAN_FIELD_NUM];
+                for (int j = 0; j < BEAN_FIELD_NUM; j++) {
+                    fields[j] = cellValue(i, j, background);
+                }
+                rowPool.add(new BenchmarkRow(fields));
+            }
+        }
+        return rowPool;
+    }
+
+    /**
+     * 循环拉取表格数据
+     *
+     * @param rowPool 表格数据
+     * @param rowNum  总行数
+     * @return
+     */
+    static Iterator<Object> rows(List<Object> rowPool, int rowNum) {
+        return new Iterator<Object>() {
+            private int i = 0;
+
+            @Override
+            public boolean hasNext() {
+                return this.i < rowNum;
+            }
+
+            @Override
+            public Object next() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return rowPool.get(this.i++ % rowPool.size());
+            }
+        };
+    }
+
+    /**
+     * 单元格数据，带背景色时每隔一行设置一次
+     */
+    private static String cellValue(int i, int j, boolean background) {
+        String value = "单元格" + i + "," + j;
+        if (background && i % 2 == 0) {
+            value += "$bg[255,235,156]";
+        }
+        return value;
+    }
+}
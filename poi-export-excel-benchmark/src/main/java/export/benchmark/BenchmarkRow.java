@@ -0,0 +1,56 @@
+package export.benchmark;
+
+/**
+ * @author deng-zj
+ * @date 2026-10-17
+ * @description 基准测试使用的实体类，通过get方法取值
+ * @since JDK1.8
+ */
+public class BenchmarkRow {
+
+    private final String[] fields;
+
+    BenchmarkRow(String[] fields) {
+        this.fields = fields;
+    }
+
+    public String getField0() {
+        return fields[0];
+    }
+
+    public String getField1() {
+        return fields[1];
+    }
+
+    public String getField2() {
+        return fields[2];
+    }
+
+    public String getField3() {
+        return fields[3];
+    }
+
+    public String getField4() {
+        return fields[4];
+    }
+
+    public String getField5() {
+        return fields[5];
+    }
+
+    public String getField6() {
+        return fields[6];
+    }
+
+    public String getField7() {
+        return fields[7];
+    }
+
+    public String getField8() {
+        return fields[8];
+    }
+
+    public String getField9() {
+        return fields[9];
+    }
+}
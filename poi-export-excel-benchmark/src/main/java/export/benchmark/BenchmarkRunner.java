@@ -0,0 +1,28 @@
+package export.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * @author deng-zj
+ * @date 2026-10-17
+ * @description 基准测试入口，默认开启GC分析器（-prof gc），同时输出每次操作的内存分配量和分配速率
+ * 支持JMH的所有命令行参数，例如：
+ * java -jar target/benchmarks.jar DrawTableBenchmark -p rowNum=10000 -p rowType=map
+ * @since JDK1.8
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
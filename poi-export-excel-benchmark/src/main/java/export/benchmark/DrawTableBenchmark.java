@@ -0,0 +1,80 @@
+package export.benchmark;
+
+import export.entity.TableHeader;
+import export.excel.ExportExcel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author deng-zj
+ * @date 2026-10-17
+ * @description <method>ExportExcel.drawTable</method>的基准测试：创建Excel、绘制一个表格并写出至空输出流
+ * 默认使用流式导出，100万行时不会占满内存；rowAccessWindowSize=0 时测试普通导出
+ * @since JDK1.8
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class DrawTableBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int rowNum;
+
+    @Param({"map", "list", "bean"})
+    private String rowType;
+
+    @Param({"10", "50"})
+    private int headerWidth;
+
+    @Param({"1", "3"})
+    private int headerDepth;
+
+    @Param({"true", "false"})
+    private boolean addBorder;
+
+    @Param({"false", "true"})
+    private boolean background;
+
+    @Param({"500"})
+    private int rowAccessWindowSize;
+
+    private List<TableHeader> tableHeaderList;
+    private List<Object> rowPool;
+
+    @Setup
+    public void setup() {
+        this.tableHeaderList = BenchmarkData.tableHeaderList(this.rowType, this.headerWidth, this.headerDepth);
+        this.rowPool = BenchmarkData.rowPool(this.rowType, this.headerWidth, this.background);
+    }
+
+    /**
+     * @return 写出的字节数，防止被JIT优化掉
+     */
+    @Benchmark
+    public long drawTable() throws IOException {
+        ExportExcel<Object> exportExcel = new ExportExcel<>(this.rowAccessWindowSize);
+        exportExcel.createExcel("benchmark");
+        exportExcel.setAddBorder(this.addBorder);
+        exportExcel.drawTable(this.tableHeaderList, BenchmarkData.rows(this.rowPool, this.rowNum), this.rowNum);
+
+        NullOutputStream outputStream = new NullOutputStream();
+        exportExcel.write(outputStream);
+        return outputStream.getByteNum();
+    }
+}
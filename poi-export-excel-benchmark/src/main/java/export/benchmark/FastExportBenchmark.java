@@ -0,0 +1,67 @@
+package export.benchmark;
+
+import export.entity.TableHeader;
+import export.excel.FastExportExcel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author deng-zj
+ * @date 2026-10-17
+ * @description <class>FastExportExcel</class>的基准测试：直接写出xlsx，与DrawTableBenchmark的流式导出对比
+ * @since JDK1.8
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class FastExportBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int rowNum;
+
+    @Param({"map", "list", "bean"})
+    private String rowType;
+
+    @Param({"10", "50"})
+    private int headerWidth;
+
+    @Param({"1", "3"})
+    private int headerDepth;
+
+    private List<TableHeader> tableHeaderList;
+    private List<Object> rowPool;
+
+    @Setup
+    public void setup() {
+        this.tableHeaderList = BenchmarkData.tableHeaderList(this.rowType, this.headerWidth, this.headerDepth);
+        this.rowPool = BenchmarkData.rowPool(this.rowType, this.headerWidth, false);
+    }
+
+    /**
+     * @return 写出的字节数，防止被JIT优化掉
+     */
+    @Benchmark
+    public long export() throws IOException {
+        NullOutputStream outputStream = new NullOutputStream();
+        try (FastExportExcel<Object> fastExportExcel = new FastExportExcel<>(outputStream)) {
+            fastExportExcel.drawTable("benchmark", this.tableHeaderList, BenchmarkData.rows(this.rowPool, this.rowNum));
+        }
+        return outputStream.getByteNum();
+    }
+}
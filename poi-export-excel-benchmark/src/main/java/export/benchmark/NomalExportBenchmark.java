@@ -0,0 +1,89 @@
+package export.benchmark;
+
+import export.entity.TableHeader;
+import export.excel.NomalExportExcel;
+import export.excel.PartitionPolicy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author deng-zj
+ * @date 2026-10-17
+ * @description <method>NomalExportExcel.export</method>的基准测试：分Sheet、分Excel并压缩，写出至空输出流
+ * @since JDK1.8
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class NomalExportBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int rowNum;
+
+    @Param({"map", "list", "bean"})
+    private String rowType;
+
+    @Param({"10"})
+    private int headerWidth;
+
+    @Param({"1"})
+    private int headerDepth;
+
+    @Param({"false", "true"})
+    private boolean background;
+
+    /**
+     * 每个Sheet的数据行数、每个Excel的Sheet数
+     */
+    @Param({"10000"})
+    private int sheetMaxRows;
+
+    @Param({"10"})
+    private int excelMaxSheets;
+
+    @Param({"1", "4"})
+    private int parallelism;
+
+    @Param({"500"})
+    private int rowAccessWindowSize;
+
+    private List<TableHeader> tableHeaderList;
+    private List<Object> rowPool;
+
+    @Setup
+    public void setup() {
+        this.tableHeaderList = BenchmarkData.tableHeaderList(this.rowType, this.headerWidth, this.headerDepth);
+        this.rowPool = BenchmarkData.rowPool(this.rowType, this.headerWidth, this.background);
+    }
+
+    /**
+     * @return 写出的字节数，防止被JIT优化掉
+     */
+    @Benchmark
+    public long export() throws IOException {
+        NomalExportExcel<Object> nomalExportExcel = new NomalExportExcel<>(this.tableHeaderList, BenchmarkData.rows(this.rowPool, this.rowNum));
+        nomalExportExcel.setPartitionPolicy(PartitionPolicy.byRowCount(this.sheetMaxRows, this.excelMaxSheets));
+        nomalExportExcel.setParallelism(this.parallelism);
+        nomalExportExcel.setRowAccessWindowSize(this.rowAccessWindowSize);
+
+        NullOutputStream outputStream = new NullOutputStream();
+        nomalExportExcel.export(outputStream, "benchmark");
+        return outputStream.getByteNum();
+    }
+}
@@ -0,0 +1,28 @@
+package export.benchmark;
+
+import java.io.OutputStream;
+
+/**
+ * @author deng-zj
+ * @date 2026-10-17
+ * @description 丢弃所有数据的输出流，只统计字节数，避免磁盘写出影响测量结果
+ * @since JDK1.8
+ */
+final class NullOutputStream extends OutputStream {
+
+    private long byteNum = 0;
+
+    @Override
+    public void write(int b) {
+        this.byteNum++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        this.byteNum += len;
+    }
+
+    long getByteNum() {
+        return byteNum;
+    }
+}
@@ -0,0 +1,102 @@
+package export.entity;
+
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+
+/**
+ * @author deng-zj
+ * @date 2026-10-17
+ * @description 条件样式规则，满足条件的单元格使用规则的背景色
+ * 规则挂在表头上<field>TableHeader.styleRules</field>，按添加顺序判断，第一个满足条件的规则生效。
+ * 每条规则的样式在绘制表格之前创建好，绘制单元格时只需要判断条件
+ *
+ * 例如：
+ * tableHeader.addStyleRule(CellStyleRule.ofRange(null, 0, "#FF0000"));             // 负数标红
+ * tableHeader.addStyleRule(CellStyleRule.ofValue("已取消"::equals, "200,200,200"));  // 按值判断
+ * tableHeader.addStyleRule(CellStyleRule.<Order>ofRow(Order::isOverdue, "#FFFF00")); // 按整行数据判断
+ * @since JDK1.8
+ */
+public class CellStyleRule {
+
+    /**
+     * 条件：(单元格数据, 一行数据) -> 是否满足
+     */
+    private final BiPredicate<Object, Object> predicate;
+
+    /**
+     * 背景色，支持RGB和十六进制，例如：255,0,0 | #FF0000
+     */
+    private final String background;
+
+    private CellStyleRule(BiPredicate<Object, Object> predicate, String background) {
+        this.predicate = predicate;
+        this.background = background;
+    }
+
+    /**
+     * 按单元格数据判断，条件收到的是取值得到的原始数据（例如Integer、Date），不会转换为字符串，也不会去掉 内容$bg颜色 中的颜色
+     *
+     * @param predicate  条件
+     * @param background 背景色
+     * @return
+     */
+    public static CellStyleRule ofValue(Predicate<Object> predicate, String background) {
+        return new CellStyleRule((value, rowData) -> predicate.test(value), background);
+    }
+
+    /**
+     * 按一行数据判断
+     *
+     * @param predicate  条件
+     * @param background 背景色
+     * @param <T>        表格一行数据的类型
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> CellStyleRule ofRow(Predicate<T> predicate, String background) {
+        return new CellStyleRule((value, rowData) -> predicate.test((T) rowData), background);
+    }
+
+    /**
+     * 按数值区间判断：min <= 数据 < max，数据可以是数字或者数字字符串
+     *
+     * @param min        下限（包含），为null时不限制
+     * @param max        上限（不包含），为null时不限制
+     * @param background 背景色
+     * @return
+     */
+    public static CellStyleRule ofRange(Number min, Number max, String background) {
+        double minValue = min == null ? Double.NEGATIVE_INFINITY : min.doubleValue();
+        double maxValue = max == null ? Double.POSITIVE_INFINITY : max.doubleValue();
+        return new CellStyleRule((value, rowData) -> {
+            double number;
+            if (value instanceof Number) {
+                number = ((Number) value).doubleValue();
+            } else if (value instanceof CharSequence) {
+                try {
+                    number = Double.parseDouble(value.toString().trim());
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            } else {
+                return false;
+            }
+            return number >= minValue && number < maxValue;
+        }, background);
+    }
+
+    /**
+     * 判断单元格是否满足条件
+     *
+     * @param value   单元格的原始数据
+     * @param rowData 一行数据
+     * @return
+     */
+    public boolean test(Object value, Object rowData) {
+        return this.predicate.test(value, rowData);
+    }
+
+    public String getBackground() {
+        return background;
+    }
+}
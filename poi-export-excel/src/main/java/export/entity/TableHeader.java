@@ -1,6 +1,8 @@
 package export.entity;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 
 public class TableHeader {
 
@@ -28,10 +30,30 @@ public class TableHeader {
      * 单元格内容是否换行
      */
     private Boolean wrapText = false;
+    /**
+     * 单元格数据类型：string、number、date、boolean、auto [defult = string]
+     * number、date、boolean写入Excel原生的数字、日期、布尔单元格，字符串数据会先转换；
+     * auto按数据的运行时类型选择；无法转换时按字符串写入
+     */
+    private String valueType = "string";
+    /**
+     * 数字、日期格式，例如：#,##0.00 | yyyy-MM-dd [defult = 数字使用常规格式，日期使用yyyy-MM-dd]
+     */
+    private String format = "";
+    /**
+     * 条件样式规则，按添加顺序判断，第一个满足条件的规则生效 [只对最后一级表头有效]
+     * @see CellStyleRule
+     */
+    private List<CellStyleRule> styleRules = new ArrayList<>();
     /**
      * 多级表头
      */
     private List<TableHeader> children;
+    /**
+     * 取值函数，设置后直接调用函数取值，不再解析field [只对最后一级表头有效]
+     * @see TableHeaderBuilder
+     */
+    private Function<Object, ?> extractor;
 
     public String getHeaderText() {
         return headerText;
@@ -81,6 +103,41 @@ public class TableHeader {
         this.wrapText = wrapText;
     }
 
+    public String getValueType() {
+        return valueType;
+    }
+
+    public void setValueType(String valueType) {
+        this.valueType = valueType;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    public List<CellStyleRule> getStyleRules() {
+        return styleRules;
+    }
+
+    public void setStyleRules(List<CellStyleRule> styleRules) {
+        this.styleRules = styleRules;
+    }
+
+    /**
+     * 添加条件样式规则
+     *
+     * @param styleRule
+     * @return
+     */
+    public TableHeader addStyleRule(CellStyleRule styleRule) {
+        this.styleRules.add(styleRule);
+        return this;
+    }
+
     public List<TableHeader> getChildren() {
         return children;
     }
@@ -89,6 +146,15 @@ public class TableHeader {
         this.children = children;
     }
 
+    public Function<Object, ?> getExtractor() {
+        return extractor;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> void setExtractor(Function<T, ?> extractor) {
+        this.extractor = (Function<Object, ?>) extractor;
+    }
+
     @Override
     public String toString() {
         return "TableHeader{" +
@@ -96,6 +162,8 @@ public class TableHeader {
                 ", field='" + field + '\'' +
                 ", width=" + width +
                 ", background='" + background + '\'' +
+                ", valueType='" + valueType + '\'' +
+                ", format='" + format + '\'' +
                 ", children=" + children +
                 '}';
     }
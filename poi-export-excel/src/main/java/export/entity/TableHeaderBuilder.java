@@ -0,0 +1,107 @@
+package export.entity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * @param <T> 表格一行数据的类型
+ * @author deng-zj
+ * @date 2026-10-17
+ * @description 用取值函数组装表头结构，取值时直接调用函数，不需要解析field，也不需要判断Map、List、实体类
+ *
+ * 例如：
+ * List<TableHeader> tableHeaderList = new TableHeaderBuilder<Order>()
+ *         .column("订单号", Order::getOrderNo, 20)
+ *         .group("金额", new TableHeaderBuilder<Order>()
+ *                 .column("单价", Order::getPrice)
+ *                 .column("数量", Order::getCount, "number", "#,##0"))
+ *         .build();
+ * @since JDK1.8
+ */
+public class TableHeaderBuilder<T> {
+
+    private final List<TableHeader> tableHeaderList = new ArrayList<>();
+
+    /**
+     * 添加一列
+     *
+     * @param headerText 表头文字
+     * @param extractor  取值函数
+     * @return
+     */
+    public TableHeaderBuilder<T> column(String headerText, Function<T, ?> extractor) {
+        TableHeader tableHeader = new TableHeader();
+        tableHeader.setHeaderText(headerText);
+        return this.column(tableHeader, extractor);
+    }
+
+    /**
+     * 添加一列
+     *
+     * @param headerText 表头文字
+     * @param extractor  取值函数
+     * @param width      列宽
+     * @return
+     */
+    public TableHeaderBuilder<T> column(String headerText, Function<T, ?> extractor, Integer width) {
+        TableHeader tableHeader = new TableHeader();
+        tableHeader.setHeaderText(headerText);
+        tableHeader.setWidth(width);
+        return this.column(tableHeader, extractor);
+    }
+
+    /**
+     * 添加一列，写入数字、日期、布尔单元格
+     *
+     * @param headerText 表头文字
+     * @param extractor  取值函数
+     * @param valueType  单元格数据类型：string、number、date、boolean、auto
+     * @param format     数字、日期格式，例如：#,##0.00 | yyyy-MM-dd
+     * @return
+     */
+    public TableHeaderBuilder<T> column(String headerText, Function<T, ?> extractor, String valueType, String format) {
+        TableHeader tableHeader = new TableHeader();
+        tableHeader.setHeaderText(headerText);
+        tableHeader.setValueType(valueType);
+        tableHeader.setFormat(format);
+        return this.column(tableHeader, extractor);
+    }
+
+    /**
+     * 添加一列，对齐方式、背景色等在传入的表头对象中设置
+     *
+     * @param tableHeader 表头对象
+     * @param extractor   取值函数
+     * @return
+     */
+    public TableHeaderBuilder<T> column(TableHeader tableHeader, Function<T, ?> extractor) {
+        tableHeader.setExtractor(extractor);
+        this.tableHeaderList.add(tableHeader);
+        return this;
+    }
+
+    /**
+     * 添加多级表头
+     *
+     * @param headerText 表头文字
+     * @param children   下一级表头
+     * @return
+     */
+    public TableHeaderBuilder<T> group(String headerText, TableHeaderBuilder<T> children) {
+        TableHeader tableHeader = new TableHeader();
+        tableHeader.setHeaderText(headerText);
+        tableHeader.setChildren(children.build());
+        this.tableHeaderList.add(tableHeader);
+        return this;
+    }
+
+    /**
+     * 生成表头集合
+     *
+     * @return
+     */
+    public List<TableHeader> build() {
+        return new ArrayList<>(this.tableHeaderList);
+    }
+}
@@ -0,0 +1,171 @@
+package export.excel;
+
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.VerticalAlignment;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFColor;
+
+/**
+ * @author deng-zj
+ * @date 2026-10-17
+ * @description 单元格样式的组合键：字体、对齐方式、换行、背景色、边框、数据格式
+ * 组合相同的单元格共用同一个样式，见<class>CellStyleRegistry</class>
+ * 对象不可变，修改某一项时返回新的对象
+ * @since JDK1.8
+ */
+final class CellStyleKey {
+
+    /**
+     * 工作簿默认样式
+     */
+    static final CellStyleKey DEFAULT = new CellStyleKey(-1, HorizontalAlignment.GENERAL, VerticalAlignment.BOTTOM, false, -1, false, (short) 0);
+
+    /**
+     * 字体下标，-1 表示使用默认字体
+     */
+    private final int fontIndex;
+    private final HorizontalAlignment alignment;
+    private final VerticalAlignment verticalAlignment;
+    private final boolean wrapText;
+    /**
+     * 背景色RGB，-1 表示没有背景色
+     */
+    private final int fillColor;
+    /**
+     * 是否有细边框
+     */
+    private final boolean border;
+    /**
+     * 数据格式下标，0 表示常规格式
+     */
+    private final short dataFormat;
+
+    private CellStyleKey(int fontIndex, HorizontalAlignment alignment, VerticalAlignment verticalAlignment, boolean wrapText, int fillColor, boolean border, short dataFormat) {
+        this.fontIndex = fontIndex;
+        this.alignment = alignment;
+        this.verticalAlignment = verticalAlignment;
+        this.wrapText = wrapText;
+        this.fillColor = fillColor;
+        this.border = border;
+        this.dataFormat = dataFormat;
+    }
+
+    /**
+     * 从已有的样式中读取组合键，用于不是由<class>CellStyleRegistry</class>创建的样式
+     *
+     * @param cellStyle
+     * @return
+     */
+    static CellStyleKey valueOf(XSSFCellStyle cellStyle) {
+        int fillColor = -1;
+        XSSFColor color = cellStyle.getFillForegroundXSSFColor();
+        if (cellStyle.getFillPattern() == FillPatternType.SOLID_FOREGROUND && color != null && color.getRGB() != null) {
+            byte[] rgb = color.getRGB();
+            fillColor = ((rgb[0] & 0xFF) << 16) | ((rgb[1] & 0xFF) << 8) | (rgb[2] & 0xFF);
+        }
+        return new CellStyleKey(cellStyle.getFontIndexAsInt() == 0 ? -1 : cellStyle.getFontIndexAsInt(), cellStyle.getAlignment(),
+                cellStyle.getVerticalAlignment(), cellStyle.getWrapText(), fillColor, cellStyle.getBorderTop() == BorderStyle.THIN, cellStyle.getDataFormat());
+    }
+
+    CellStyleKey withFont(Font font) {
+        return new CellStyleKey(font == null ? -1 : font.getIndexAsInt(), alignment, verticalAlignment, wrapText, fillColor, border, dataFormat);
+    }
+
+    CellStyleKey withAlignment(HorizontalAlignment alignment) {
+        return new CellStyleKey(fontIndex, alignment, verticalAlignment, wrapText, fillColor, border, dataFormat);
+    }
+
+    CellStyleKey withVerticalAlignment(VerticalAlignment verticalAlignment) {
+        return new CellStyleKey(fontIndex, alignment, verticalAlignment, wrapText, fillColor, border, dataFormat);
+    }
+
+    CellStyleKey withWrapText(boolean wrapText) {
+        return new CellStyleKey(fontIndex, alignment, verticalAlignment, wrapText, fillColor, border, dataFormat);
+    }
+
+    CellStyleKey withFillColor(int fillColor) {
+        return new CellStyleKey(fontIndex, alignment, verticalAlignment, wrapText, fillColor, border, dataFormat);
+    }
+
+    CellStyleKey withBorder(boolean border) {
+        return new CellStyleKey(fontIndex, alignment, verticalAlignment, wrapText, fillColor, border, dataFormat);
+    }
+
+    CellStyleKey withDataFormat(short dataFormat) {
+        return new CellStyleKey(fontIndex, alignment, verticalAlignment, wrapText, fillColor, border, dataFormat);
+    }
+
+    int getFontIndex() {
+        return fontIndex;
+    }
+
+    HorizontalAlignment getAlignment() {
+        return alignment;
+    }
+
+    VerticalAlignment getVerticalAlignment() {
+        return verticalAlignment;
+    }
+
+    boolean isWrapText() {
+        return wrapText;
+    }
+
+    int getFillColor() {
+        return fillColor;
+    }
+
+    boolean isBorder() {
+        return border;
+    }
+
+    short getDataFormat() {
+        return dataFormat;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CellStyleKey)) {
+            return false;
+        }
+        CellStyleKey that = (CellStyleKey) o;
+        return fontIndex == that.fontIndex
+                && alignment == that.alignment
+                && verticalAlignment == that.verticalAlignment
+                && wrapText == that.wrapText
+                && fillColor == that.fillColor
+                && border == that.border
+                && dataFormat == that.dataFormat;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = fontIndex;
+        result = 31 * result + alignment.hashCode();
+        result = 31 * result + verticalAlignment.hashCode();
+        result = 31 * result + (wrapText ? 1 : 0);
+        result = 31 * result + fillColor;
+        result = 31 * result + (border ? 1 : 0);
+        result = 31 * result + dataFormat;
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "CellStyleKey{" +
+                "fontIndex=" + fontIndex +
+                ", alignment=" + alignment +
+                ", verticalAlignment=" + verticalAlignment +
+                ", wrapText=" + wrapText +
+                ", fillColor=" + fillColor +
+                ", border=" + border +
+                ", dataFormat=" + dataFormat +
+                '}';
+    }
+}
@@ -0,0 +1,193 @@
+package export.excel;
+
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DataFormat;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.DefaultIndexedColorMap;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFColor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author deng-zj
+ * @date 2026-10-17
+ * @description 工作簿级别的单元格样式注册表
+ * 以<class>CellStyleKey</class>作为键缓存样式，相同组合的单元格共用同一个样式，
+ * 避免每个单元格都复制一份样式导致styles.xml膨胀
+ * @since JDK1.8
+ */
+class CellStyleRegistry {
+
+    private final Workbook workBook;
+
+    /**
+     * 组合键 -> 样式
+     */
+    private final Map<CellStyleKey, CellStyle> cellStyleMap = new HashMap<>();
+
+    /**
+     * 样式下标 -> 组合键
+     */
+    private final Map<Integer, CellStyleKey> cellStyleKeyMap = new HashMap<>();
+
+    /**
+     * 数据格式 -> 数据格式下标
+     */
+    private final Map<String, Short> dataFormatMap = new HashMap<>();
+    private DataFormat dataFormat;
+
+    CellStyleRegistry(Workbook workBook) {
+        this.workBook = workBook;
+        this.cellStyleKeyMap.put(0, CellStyleKey.DEFAULT);
+    }
+
+    /**
+     * 从模板创建的工作簿中已经有创建好的样式、数据格式，直接登记，不需要再创建
+     *
+     * @param workBook          从模板创建的工作簿
+     * @param cellStyleIndexMap 组合键 -> 样式下标
+     * @param dataFormatMap     数据格式 -> 数据格式下标
+     */
+    CellStyleRegistry(Workbook workBook, Map<CellStyleKey, Integer> cellStyleIndexMap, Map<String, Short> dataFormatMap) {
+        this(workBook);
+        for (Map.Entry<CellStyleKey, Integer> entry : cellStyleIndexMap.entrySet()) {
+            this.cellStyleMap.put(entry.getKey(), workBook.getCellStyleAt(entry.getValue()));
+            this.cellStyleKeyMap.put(entry.getValue(), entry.getKey());
+        }
+        this.dataFormatMap.putAll(dataFormatMap);
+    }
+
+    /**
+     * 登记已有工作簿中的全部样式，向已经导出的Excel追加数据时，相同组合的单元格直接使用已有的样式，
+     * 不会每次追加都重复创建
+     *
+     * @param workBook 已经导出的工作簿
+     * @return
+     */
+    static CellStyleRegistry ofExisting(Workbook workBook) {
+        CellStyleRegistry cellStyleRegistry = new CellStyleRegistry(workBook);
+        for (int i = 1; i < workBook.getNumCellStyles(); i++) {
+            CellStyle cellStyle = workBook.getCellStyleAt(i);
+            CellStyleKey cellStyleKey = CellStyleKey.valueOf((XSSFCellStyle) cellStyle);
+            cellStyleRegistry.cellStyleMap.putIfAbsent(cellStyleKey, cellStyle);
+            cellStyleRegistry.cellStyleKeyMap.put(i, cellStyleKey);
+        }
+        return cellStyleRegistry;
+    }
+
+    /**
+     * 获取组合键对应的样式，不存在则创建
+     *
+     * @param cellStyleKey
+     * @return
+     */
+    CellStyle getCellStyle(CellStyleKey cellStyleKey) {
+        CellStyle cellStyle = this.cellStyleMap.get(cellStyleKey);
+        if (cellStyle == null) {
+            cellStyle = this.createCellStyle(cellStyleKey);
+            this.cellStyleMap.put(cellStyleKey, cellStyle);
+            this.cellStyleKeyMap.put((int) cellStyle.getIndex(), cellStyleKey);
+        }
+        return cellStyle;
+    }
+
+    /**
+     * 获取样式对应的组合键
+     *
+     * @param cellStyle
+     * @return
+     */
+    CellStyleKey getCellStyleKey(CellStyle cellStyle) {
+        CellStyleKey cellStyleKey = this.cellStyleKeyMap.get((int) cellStyle.getIndex());
+        if (cellStyleKey == null) {
+            cellStyleKey = CellStyleKey.valueOf((XSSFCellStyle) cellStyle);
+            this.cellStyleKeyMap.put((int) cellStyle.getIndex(), cellStyleKey);
+        }
+        return cellStyleKey;
+    }
+
+    /**
+     * 获取数据格式的下标，每个工作簿中同一个格式只创建一次
+     *
+     * @param format 数据格式，例如：#,##0.00 | yyyy-MM-dd
+     * @return
+     */
+    short getDataFormat(String format) {
+        Short formatIndex = this.dataFormatMap.get(format);
+        if (formatIndex == null) {
+            if (this.dataFormat == null) {
+                this.dataFormat = this.workBook.createDataFormat();
+            }
+            formatIndex = this.dataFormat.getFormat(format);
+            this.dataFormatMap.put(format, formatIndex);
+        }
+        return formatIndex;
+    }
+
+    /**
+     * 已创建的样式：组合键 -> 样式下标，用于制作模板
+     *
+     * @return
+     */
+    Map<CellStyleKey, Integer> getCellStyleIndexMap() {
+        Map<CellStyleKey, Integer> cellStyleIndexMap = new HashMap<>();
+        for (Map.Entry<CellStyleKey, CellStyle> entry : this.cellStyleMap.entrySet()) {
+            cellStyleIndexMap.put(entry.getKey(), (int) entry.getValue().getIndex());
+        }
+        return cellStyleIndexMap;
+    }
+
+    /**
+     * 已创建的数据格式：数据格式 -> 数据格式下标，用于制作模板
+     *
+     * @return
+     */
+    Map<String, Short> getDataFormatMap() {
+        return new HashMap<>(this.dataFormatMap);
+    }
+
+    /**
+     * 工作簿中的样式总数
+     *
+     * @return
+     */
+    int getCellStyleCount() {
+        return this.workBook.getNumCellStyles();
+    }
+
+    /**
+     * 根据组合键创建样式
+     *
+     * @param cellStyleKey
+     * @return
+     */
+    private CellStyle createCellStyle(CellStyleKey cellStyleKey) {
+        XSSFCellStyle cellStyle = (XSSFCellStyle) this.workBook.createCellStyle();
+        if (cellStyleKey.getFontIndex() != -1) {
+            cellStyle.setFont(this.workBook.getFontAt(cellStyleKey.getFontIndex()));
+        }
+        cellStyle.setAlignment(cellStyleKey.getAlignment());
+        cellStyle.setVerticalAlignment(cellStyleKey.getVerticalAlignment());
+        cellStyle.setWrapText(cellStyleKey.isWrapText());
+        cellStyle.setDataFormat(cellStyleKey.getDataFormat());
+
+        if (cellStyleKey.getFillColor() != -1) {
+            int fillColor = cellStyleKey.getFillColor();
+            byte[] rgb = new byte[]{(byte) (fillColor >> 16), (byte) (fillColor >> 8), (byte) fillColor};
+            cellStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+            cellStyle.setFillForegroundColor(new XSSFColor(rgb, new DefaultIndexedColorMap()));
+        }
+
+        if (cellStyleKey.isBorder()) {
+            cellStyle.setBorderTop(BorderStyle.THIN);
+            cellStyle.setBorderRight(BorderStyle.THIN);
+            cellStyle.setBorderBottom(BorderStyle.THIN);
+            cellStyle.setBorderLeft(BorderStyle.THIN);
+        }
+        return cellStyle;
+    }
+}
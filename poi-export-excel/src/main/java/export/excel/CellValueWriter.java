@@ -0,0 +1,174 @@
+package export.excel;
+
+import org.apache.poi.ss.usermodel.Cell;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Calendar;
+import java.util.Date;
+
+/**
+ * @author deng-zj
+ * @date 2026-10-17
+ * @description 按表头的数据类型<field>TableHeader.valueType</field>写入单元格
+ * number、date、boolean写入Excel原生的数字、日期、布尔单元格，不进入共享字符串表，可以直接在Excel中计算
+ * 字符串数据会先尝试转换（日期只支持ISO格式，例如：2020-04-23 | 2020-04-23T10:15:30），无法转换时按字符串写入
+ * Excel的数字是双精度浮点数：超过15位有效数字的BigDecimal、long（例如很长的编号）按字符串写入，不会静默丢失精度；
+ * NaN、Infinity以及带类型后缀的字符串（例如 12f | 1d）不是数字，按字符串写入
+ * @since JDK1.8
+ */
+final class CellValueWriter {
+
+    static final String STRING = "string";
+    static final String NUMBER = "number";
+    static final String DATE = "date";
+    static final String BOOLEAN = "boolean";
+    static final String AUTO = "auto";
+
+    /**
+     * Excel的数字能精确保存的有效数字位数
+     */
+    private static final int EXCEL_MAX_PRECISION = 15;
+
+    private CellValueWriter() {
+    }
+
+    /**
+     * 写入单元格
+     *
+     * @param cell      单元格
+     * @param value     数据，为null时：字符串类型写入空字符串，其他类型不写入
+     * @param valueType 数据类型，小写
+     * @return 是否写入了日期，日期单元格需要使用日期格式
+     */
+    static boolean write(Cell cell, Object value, String valueType) {
+        if (value == null) {
+            if (STRING.equals(valueType)) {
+                cell.setCellValue("");
+            }
+            return false;
+        }
+
+        Object cellValue = convert(value, valueType);
+        if (cellValue instanceof Double) {
+            cell.setCellValue((Double) cellValue);
+        } else if (cellValue instanceof Boolean) {
+            cell.setCellValue((Boolean) cellValue);
+        } else if (cellValue instanceof Date) {
+            cell.setCellValue((Date) cellValue);
+            return true;
+        } else if (cellValue instanceof LocalDateTime) {
+            cell.setCellValue((LocalDateTime) cellValue);
+            return true;
+        } else if (cellValue instanceof LocalDate) {
+            cell.setCellValue((LocalDate) cellValue);
+            return true;
+        } else if (cellValue instanceof Calendar) {
+            cell.setCellValue((Calendar) cellValue);
+            return true;
+        } else {
+            cell.setCellValue((String) cellValue);
+        }
+        return false;
+    }
+
+    /**
+     * 按数据类型转换数据
+     * 数字转换为Double（超过15位有效数字时转换为字符串），布尔转换为Boolean，日期为Date | LocalDateTime | LocalDate | Calendar，其余（包括无法转换的）转换为字符串
+     *
+     * @param value     数据，不能为null
+     * @param valueType 数据类型，小写
+     * @return
+     */
+    static Object convert(Object value, String valueType) {
+        switch (valueType) {
+            case NUMBER:
+                return toNumber(value);
+            case BOOLEAN:
+                return toBoolean(value);
+            case DATE:
+                return toDate(value);
+            case AUTO:
+                if (value instanceof Number) {
+                    return toNumber(value);
+                } else if (value instanceof Boolean) {
+                    return value;
+                } else if (!(value instanceof CharSequence)) {
+                    return toDate(value);
+                }
+                return value.toString();
+            default:
+                return value.toString();
+        }
+    }
+
+    /**
+     * 转换为数字，无法转换或者转换为double会丢失精度时转换为字符串
+     */
+    private static Object toNumber(Object value) {
+        /**
+         * 整数、BigDecimal、字符串按十进制精确转换，字符串不接受NaN、Infinity、类型后缀；其余数字（Double、Float等）本身就是浮点数
+         */
+        BigDecimal number;
+        if (value instanceof BigDecimal) {
+            number = (BigDecimal) value;
+        } else if (value instanceof BigInteger) {
+            number = new BigDecimal((BigInteger) value);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            number = BigDecimal.valueOf(((Number) value).longValue());
+        } else if (value instanceof Number) {
+            double doubleValue = ((Number) value).doubleValue();
+            return Double.isNaN(doubleValue) || Double.isInfinite(doubleValue) ? value.toString() : doubleValue;
+        } else {
+            try {
+                number = new BigDecimal(value.toString().trim());
+            } catch (NumberFormatException e) {
+                return value.toString();
+            }
+        }
+
+        /**
+         * 超过15位有效数字时转换为double会丢失精度，按字符串写入
+         */
+        if (number.signum() != 0 && number.stripTrailingZeros().precision() > EXCEL_MAX_PRECISION) {
+            return value instanceof BigDecimal ? number.toPlainString() : value.toString();
+        }
+        return number.doubleValue();
+    }
+
+    /**
+     * 转换为布尔值，无法转换时转换为字符串
+     */
+    private static Object toBoolean(Object value) {
+        String strValue = value.toString().trim();
+        if (value instanceof Boolean) {
+            return value;
+        } else if ("true".equalsIgnoreCase(strValue) || "false".equalsIgnoreCase(strValue)) {
+            return Boolean.parseBoolean(strValue);
+        }
+        return value.toString();
+    }
+
+    /**
+     * 转换为日期，无法转换时转换为字符串
+     */
+    private static Object toDate(Object value) {
+        if (value instanceof Date || value instanceof LocalDateTime || value instanceof LocalDate || value instanceof Calendar) {
+            return value;
+        } else if (value instanceof CharSequence) {
+            String strValue = value.toString().trim();
+            try {
+                if (strValue.length() > 10) {
+                    return LocalDateTime.parse(strValue.replace(' ', 'T'));
+                }
+                return LocalDate.parse(strValue);
+            } catch (DateTimeParseException e) {
+                return value.toString();
+            }
+        }
+        return value.toString();
+    }
+}
@@ -0,0 +1,168 @@
+package export.excel;
+
+/**
+ * @author deng-zj
+ * @date 2026-10-17
+ * @description 列宽策略
+ *
+ * 提供了两种策略：
+ * 1、<method>fixed</method> 固定列宽：使用叶子表头的<field>TableHeader.width</field>（默认）
+ * 2、<method>sampling</method> 抽样估算列宽：绘制数据时对前headRowNum行全部测量，之后的行用蓄水池抽样保留sampleRowNum行，
+ * 表格绘制完成后按表头文字和样本中最宽的内容设置列宽，中日韩等全角字符按两个字符计算，最大不超过maxWidth个字符。
+ * 不依赖AWT字体测量，也不需要回读已经写出的行，流式导出时同样可用
+ * @since JDK1.8
+ */
+public class ColumnWidthPolicy {
+
+    /**
+     * xlsx的最大列宽（字符数）
+     */
+    public static final int EXCEL_MAX_WIDTH = 255;
+
+    /**
+     * 列宽两侧预留的字符数
+     */
+    private static final int PADDING = 2;
+
+    private static final ColumnWidthPolicy FIXED = new ColumnWidthPolicy(0, 0, 0);
+
+    /**
+     * 全部测量的前几行
+     */
+    private final int headRowNum;
+
+    /**
+     * 蓄水池抽样保留的行数
+     */
+    private final int sampleRowNum;
+
+    /**
+     * 最大列宽（字符数），小于等于0时为固定列宽
+     */
+    private final int maxWidth;
+
+    private ColumnWidthPolicy(int headRowNum, int sampleRowNum, int maxWidth) {
+        this.headRowNum = headRowNum;
+        this.sampleRowNum = sampleRowNum;
+        this.maxWidth = maxWidth;
+    }
+
+    /**
+     * 固定列宽，使用<field>TableHeader.width</field>
+     *
+     * @return
+     */
+    public static ColumnWidthPolicy fixed() {
+        return FIXED;
+    }
+
+    /**
+     * 抽样估算列宽：前100行全部测量，之后再抽样100行，最大60个字符
+     *
+     * @return
+     */
+    public static ColumnWidthPolicy sampling() {
+        return sampling(100, 100, 60);
+    }
+
+    /**
+     * 抽样估算列宽
+     *
+     * @param headRowNum   全部测量的前几行
+     * @param sampleRowNum 之后的行中抽样的行数
+     * @param maxWidth     最大列宽（字符数），不超过255
+     * @return
+     */
+    public static ColumnWidthPolicy sampling(int headRowNum, int sampleRowNum, int maxWidth) {
+        if (headRowNum < 0 || sampleRowNum < 0) {
+            throw new IllegalArgumentException("抽样行数不能小于0");
+        }
+        if (maxWidth <= 0 || maxWidth > EXCEL_MAX_WIDTH) {
+            throw new IllegalArgumentException("最大列宽必须在1~" + EXCEL_MAX_WIDTH + "之间");
+        }
+        return new ColumnWidthPolicy(headRowNum, sampleRowNum, maxWidth);
+    }
+
+    /**
+     * 是否为固定列宽
+     *
+     * @return
+     */
+    public boolean isFixed() {
+        return this.maxWidth <= 0;
+    }
+
+    /**
+     * 创建一个表格的列宽抽样器，固定列宽时返回null
+     *
+     * @param headerWidths 每一列叶子表头文字的宽度（字符数）
+     * @return
+     */
+    ColumnWidthSampler newSampler(int[] headerWidths) {
+        if (this.isFixed()) {
+            return null;
+        }
+        return new ColumnWidthSampler(headerWidths, this.headRowNum, this.sampleRowNum);
+    }
+
+    /**
+     * 按抽样得到的内容宽度计算POI列宽（1/256个字符）
+     *
+     * @param textWidth 内容宽度（字符数）
+     * @return
+     */
+    int toColumnWidth(int textWidth) {
+        return Math.min(textWidth + PADDING, this.maxWidth) * 256;
+    }
+
+    /**
+     * 计算文字的显示宽度，中日韩文字、全角字符、韩文按两个字符计算
+     *
+     * @param text
+     * @return
+     */
+    static int textWidth(CharSequence text) {
+        if (text == null) {
+            return 0;
+        }
+        int width = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x1100) {
+                width++;
+            } else if (Character.isLowSurrogate(c)) {
+                /**
+                 * 扩展区的汉字由两个char组成，高位代理已经按两个字符计算
+                 */
+                continue;
+            } else if (Character.isHighSurrogate(c) || isWide(c)) {
+                width += 2;
+            } else {
+                width++;
+            }
+        }
+        return width;
+    }
+
+    private static boolean isWide(char c) {
+        return (c >= 0x1100 && c <= 0x115F)
+                || (c >= 0x2E80 && c <= 0xA4CF)
+                || (c >= 0xAC00 && c <= 0xD7A3)
+                || (c >= 0xF900 && c <= 0xFAFF)
+                || (c >= 0xFE30 && c <= 0xFE4F)
+                || (c >= 0xFF00 && c <= 0xFF60)
+                || (c >= 0xFFE0 && c <= 0xFFE6);
+    }
+
+    public int getHeadRowNum() {
+        return headRowNum;
+    }
+
+    public int getSampleRowNum() {
+        return sampleRowNum;
+    }
+
+    public int getMaxWidth() {
+        return maxWidth;
+    }
+}
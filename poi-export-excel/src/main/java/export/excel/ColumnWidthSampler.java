@@ -0,0 +1,131 @@
+package export.excel;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.SplittableRandom;
+
+/**
+ * @author deng-zj
+ * @date 2026-10-17
+ * @description 一个表格的列宽抽样器
+ * 前headRowNum行全部测量，只保留每一列的最大宽度；之后的行用蓄水池抽样（Algorithm R）保留sampleRowNum行的宽度，
+ * 没有被抽中的行不做任何测量。随机数种子固定，相同的数据每次得到相同的列宽
+ * @since JDK1.8
+ */
+class ColumnWidthSampler {
+
+    /**
+     * 当前行需要测量，结果直接计入前几行的最大宽度
+     */
+    static final int HEAD = -2;
+
+    /**
+     * 当前行不需要测量
+     */
+    static final int SKIP = -1;
+
+    /**
+     * 日期单元格按默认日期格式 yyyy-MM-dd 的宽度计算
+     */
+    private static final int DATE_WIDTH = 10;
+
+    private final int headRowNum;
+    private final int[] headWidths;
+    private final int[][] sampleWidths;
+    private final SplittableRandom random = new SplittableRandom(0);
+
+    /**
+     * 已经经过的抽样行数
+     */
+    private long sampledRowNum = 0;
+
+    ColumnWidthSampler(int[] headerWidths, int headRowNum, int sampleRowNum) {
+        this.headRowNum = headRowNum;
+        this.headWidths = headerWidths.clone();
+        this.sampleWidths = new int[sampleRowNum][];
+    }
+
+    /**
+     * 开始一行数据
+     *
+     * @param rowIndex 表格中的数据行下标
+     * @return <field>HEAD</field>、<field>SKIP</field>或者蓄水池中的位置
+     */
+    int beginRow(int rowIndex) {
+        if (rowIndex < this.headRowNum) {
+            return HEAD;
+        }
+        if (this.sampleWidths.length == 0) {
+            return SKIP;
+        }
+
+        long n = this.sampledRowNum++;
+        int slot;
+        if (n < this.sampleWidths.length) {
+            slot = (int) n;
+        } else {
+            long r = this.random.nextLong(n + 1);
+            if (r >= this.sampleWidths.length) {
+                return SKIP;
+            }
+            slot = (int) r;
+        }
+
+        if (this.sampleWidths[slot] == null) {
+            this.sampleWidths[slot] = new int[this.headWidths.length];
+        } else {
+            Arrays.fill(this.sampleWidths[slot], 0);
+        }
+        return slot;
+    }
+
+    /**
+     * 测量一个单元格
+     *
+     * @param slot  <method>beginRow</method>返回的位置
+     * @param col   列下标
+     * @param value 去掉自定义背景色后的单元格内容
+     */
+    void measure(int slot, int col, Object value) {
+        int width = valueWidth(value);
+        if (slot == HEAD) {
+            this.headWidths[col] = Math.max(this.headWidths[col], width);
+        } else {
+            this.sampleWidths[slot][col] = width;
+        }
+    }
+
+    /**
+     * 每一列的宽度（字符数）：表头文字、前几行、抽样行中最宽的内容
+     *
+     * @return
+     */
+    int[] getColumnWidths() {
+        int[] columnWidths = this.headWidths.clone();
+        for (int[] sampleWidth : this.sampleWidths) {
+            if (sampleWidth == null) {
+                continue;
+            }
+            for (int j = 0; j < columnWidths.length; j++) {
+                columnWidths[j] = Math.max(columnWidths[j], sampleWidth[j]);
+            }
+        }
+        return columnWidths;
+    }
+
+    private static int valueWidth(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof Date || value instanceof Calendar || value instanceof LocalDate || value instanceof LocalDateTime) {
+            return DATE_WIDTH;
+        }
+        if (value instanceof CharSequence) {
+            return ColumnWidthPolicy.textWidth((CharSequence) value);
+        }
+        return ColumnWidthPolicy.textWidth(value.toString());
+    }
+}
@@ -0,0 +1,36 @@
+package export.excel;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * @author deng-zj
+ * @date 2026-10-17
+ * @description 统计写出的字节数
+ * @since JDK1.8
+ */
+class CountingOutputStream extends FilterOutputStream {
+
+    private long byteNum = 0;
+
+    CountingOutputStream(OutputStream out) {
+        super(out);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        this.out.write(b);
+        this.byteNum++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        this.out.write(b, off, len);
+        this.byteNum += len;
+    }
+
+    long getByteNum() {
+        return byteNum;
+    }
+}
@@ -0,0 +1,260 @@
+package export.excel;
+
+import export.entity.TableHeader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * @param <T>
+ * @author deng-zj
+ * @date 2026-10-17
+ * @description 导出CSV、TSV：使用与<class>ExportExcel</class>相同的表头结构<class>TableHeader</class>和取值字段，数据边拉取边写出，内存占用不随行数增长
+ * 多级表头展开为一行，列名为各级表头名称用分隔符连接，例如：订单-金额
+ * 数据按<field>TableHeader.valueType</field>转换，日期按ISO格式写出（例如：2020-04-23 | 2020-04-23 10:15:30），内容$bg颜色 中的颜色会被忽略
+ * 包含分隔符、双引号、换行的字段按RFC 4180加双引号
+ * @since JDK1.8
+ */
+public class CsvExportExcel<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(CsvExportExcel.class);
+
+    private static final String LINE_SEPARATOR = "\r\n";
+
+    /**
+     * 字段分隔符
+     */
+    private final char delimiter;
+
+    /**
+     * 多级表头列名的分隔符 [defult = -]
+     */
+    private String headerSeparator = "-";
+
+    /**
+     * 是否写出UTF-8 BOM，Excel打开时才能识别为UTF-8 [defult = true]
+     */
+    private boolean writeBom = true;
+
+    /**
+     * @param delimiter 字段分隔符，例如：',' | '\t'
+     */
+    public CsvExportExcel(char delimiter) {
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * 逗号分隔
+     *
+     * @param <T>
+     * @return
+     */
+    public static <T> CsvExportExcel<T> csv() {
+        return new CsvExportExcel<>(',');
+    }
+
+    /**
+     * 制表符分隔
+     *
+     * @param <T>
+     * @return
+     */
+    public static <T> CsvExportExcel<T> tsv() {
+        return new CsvExportExcel<>('\t');
+    }
+
+    /**
+     * 写出表头和全部数据，输出流由调用方负责关闭
+     *
+     * @param tableHeaderList 表头数据
+     * @param tableData       表格数据
+     * @param outputStream    输出流
+     * @return 写出的数据行数
+     * @throws IOException
+     */
+    public long write(List<TableHeader> tableHeaderList, Iterator<T> tableData, OutputStream outputStream) throws IOException {
+        logger.info("==================================开始导出" + (this.delimiter == '\t' ? "TSV" : "CSV"));
+        Long startTime = System.currentTimeMillis();
+
+        /**
+         * 每一列的取值链、数据类型只计算一次
+         */
+        List<TableHeader> tableHeaderColumnList = TableHeaderLayout.of(tableHeaderList).getColumnList();
+        int colNum = tableHeaderColumnList.size();
+        FieldAccessor[] fieldAccessors = new FieldAccessor[colNum];
+        String[] columnValueTypes = new String[colNum];
+        for (int j = 0; j < colNum; j++) {
+            TableHeader tableHeader = tableHeaderColumnList.get(j);
+            fieldAccessors[j] = tableHeader.getExtractor() != null ? FieldAccessor.of(tableHeader.getExtractor()) : FieldAccessor.compile(tableHeader.getField());
+            columnValueTypes[j] = tableHeader.getValueType() == null ? CellValueWriter.STRING : tableHeader.getValueType().toLowerCase();
+        }
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024);
+        if (this.writeBom) {
+            writer.write('\uFEFF');
+        }
+
+        List<String> columnNameList = this.getColumnNameList(tableHeaderList, "", new ArrayList<>());
+        for (int j = 0; j < columnNameList.size(); j++) {
+            if (j > 0) {
+                writer.write(this.delimiter);
+            }
+            this.writeField(writer, columnNameList.get(j));
+        }
+        writer.write(LINE_SEPARATOR);
+
+        long rowCount = 0;
+        while (tableData.hasNext()) {
+            T rowData = tableData.next();
+            for (int j = 0; j < colNum; j++) {
+                if (j > 0) {
+                    writer.write(this.delimiter);
+                }
+                Object value = fieldAccessors[j].getValue(rowData, j);
+                if (value != null) {
+                    this.writeField(writer, this.format(value, columnValueTypes[j]));
+                }
+            }
+            writer.write(LINE_SEPARATOR);
+            rowCount++;
+        }
+        writer.flush();
+
+        logger.info("==================================导出完成，共" + rowCount + "行数据。耗时" + (System.currentTimeMillis() - startTime) + "ms");
+        return rowCount;
+    }
+
+    /**
+     * 展开多级表头，叶子表头的列名为各级表头名称用分隔符连接，顺序与表头布局的列顺序相同
+     */
+    private List<String> getColumnNameList(List<TableHeader> tableHeaderList, String prefix, List<String> columnNameList) {
+        for (TableHeader tableHeader : tableHeaderList) {
+            String headerText = tableHeader.getHeaderText() == null ? "" : tableHeader.getHeaderText();
+            String columnName = prefix.isEmpty() ? headerText : prefix + this.headerSeparator + headerText;
+            if (tableHeader.getChildren() != null) {
+                this.getColumnNameList(tableHeader.getChildren(), columnName, columnNameList);
+            } else {
+                columnNameList.add(columnName);
+            }
+        }
+        return columnNameList;
+    }
+
+    /**
+     * 按数据类型转换为文本
+     */
+    private String format(Object value, String valueType) {
+        /**
+         * 兼容 内容$bg颜色 形式的数据，只保留内容
+         */
+        if (CellValueWriter.STRING.equals(valueType) || value instanceof CharSequence) {
+            String content = value.toString();
+            int colorIndex = content.indexOf(ExportExcel.CUSTOM_BACKGROUND_SEPARATOR);
+            value = colorIndex == -1 ? content : content.substring(0, colorIndex);
+        }
+
+        /**
+         * 数字保留原始的精度，不经过double转换；浮点数不使用科学计数法，去掉末尾的0
+         */
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).toPlainString();
+        } else if (value instanceof Float && !CellValueWriter.STRING.equals(valueType)) {
+            return this.format(value.toString(), (Float) value);
+        } else if (value instanceof Double && !CellValueWriter.STRING.equals(valueType)) {
+            return this.format(value.toString(), (Double) value);
+        } else if (value instanceof Number && !CellValueWriter.STRING.equals(valueType)) {
+            return value.toString();
+        }
+
+        Object cellValue = CellValueWriter.convert(value, valueType);
+        if (cellValue instanceof Double) {
+            return this.format(cellValue.toString(), (Double) cellValue);
+        } else if (cellValue instanceof Date) {
+            return this.format(LocalDateTime.ofInstant(((Date) cellValue).toInstant(), ZoneId.systemDefault()));
+        } else if (cellValue instanceof Calendar) {
+            return this.format(LocalDateTime.ofInstant(((Calendar) cellValue).toInstant(), ZoneId.systemDefault()));
+        } else if (cellValue instanceof LocalDateTime) {
+            return this.format((LocalDateTime) cellValue);
+        }
+        return cellValue.toString();
+    }
+
+    /**
+     * 浮点数按十进制展开：12.0 -> 12，1.2E7 -> 12000000，NaN、Infinity保持原样
+     *
+     * @param text   浮点数的最短十进制表示，Float使用Float.toString，避免转换为double后多出的尾数
+     * @param number
+     */
+    private String format(String text, double number) {
+        if (Double.isNaN(number) || Double.isInfinite(number)) {
+            return text;
+        }
+        return new BigDecimal(text).stripTrailingZeros().toPlainString();
+    }
+
+    private String format(LocalDateTime dateTime) {
+        return dateTime.toString().replace('T', ' ');
+    }
+
+    /**
+     * 写出一个字段，包含分隔符、双引号、换行时加双引号，字段中的双引号写两次
+     */
+    private void writeField(Writer writer, String field) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == this.delimiter || c == '"' || c == '\n' || c == '\r') {
+                quote = true;
+                break;
+            }
+        }
+        if (!quote) {
+            writer.write(field);
+            return;
+        }
+
+        writer.write('"');
+        writer.write(field.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    public String getHeaderSeparator() {
+        return headerSeparator;
+    }
+
+    /**
+     * 设置多级表头列名的分隔符
+     *
+     * @param headerSeparator
+     */
+    public void setHeaderSeparator(String headerSeparator) {
+        this.headerSeparator = headerSeparator;
+    }
+
+    public boolean isWriteBom() {
+        return writeBom;
+    }
+
+    /**
+     * 设置是否写出UTF-8 BOM，只给其他系统导入时可以不写出
+     *
+     * @param writeBom
+     */
+    public void setWriteBom(boolean writeBom) {
+        this.writeBom = writeBom;
+    }
+}
@@ -0,0 +1,26 @@
+package export.excel;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * @author deng-zj
+ * @date 2026-10-17
+ * @description 导出目标，在写出第一个字节之前按最终的文件名打开输出流
+ * 导出单个Excel时文件名为 fileName.xlsx，导出多个Excel时为 fileName.zip，
+ * 调用方可以在这里根据文件名设置响应头（Content-Type、Content-Disposition）后返回响应的输出流
+ * 返回的输出流由调用方负责关闭，导出只会flush
+ * @since JDK1.8
+ */
+@FunctionalInterface
+public interface ExcelOutputProvider {
+
+    /**
+     * 打开输出流
+     *
+     * @param outputFileName 导出的文件名，例如：fileName.xlsx | fileName.zip
+     * @return
+     * @throws IOException
+     */
+    OutputStream open(String outputFileName) throws IOException;
+}
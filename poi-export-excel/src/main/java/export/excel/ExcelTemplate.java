@@ -0,0 +1,169 @@
+package export.excel;
+
+import export.entity.TableHeader;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * @author deng-zj
+ * @date 2026-10-17
+ * @description 工作簿模板：字体、表头样式、每一列的数据样式和数据格式、表头块（表头单元格、列宽、合并区域）只在制作模板时创建一次，
+ * 可以基于带有公司标识、说明页等内容的.xlsx文件制作。每次导出从模板的字节副本打开工作簿，
+ * 已经创建好的样式直接登记使用，不需要再创建字体、样式；使用同一组表头对象导出时，每个Sheet直接复制模板的表头块
+ * 注：导出时新增的Sheet在模板已有Sheet之后；模板对象不可变，可以在多个线程中共用
+ *
+ * 例如：
+ * ExcelTemplate excelTemplate = ExcelTemplate.of(tableHeaderList, baseExcelInputStream, exportExcel -> exportExcel.createTableBodyFont().setFontName("微软雅黑"));
+ * nomalExportExcel.setExcelTemplate(excelTemplate);
+ * @since JDK1.8
+ */
+public class ExcelTemplate {
+
+    /**
+     * 制作模板时绘制表头使用的Sheet，绘制出的表头块保留在模板中，Sheet在制作完成后删除
+     */
+    private static final String TEMPLATE_SHEET_NAME = "_template_";
+
+    private final byte[] templateBytes;
+    private final int tableHeaderFontIndex;
+    private final int tableBodyFontIndex;
+    private final boolean addBorder;
+    private final boolean addTableHeaderBorder;
+    private final Map<CellStyleKey, Integer> cellStyleIndexMap;
+    private final Map<String, Short> dataFormatMap;
+
+    /**
+     * 制作模板时绘制好的表头块，样式按下标复制给每个从模板创建的工作簿
+     */
+    private final TableHeaderStamp tableHeaderStamp;
+
+    private ExcelTemplate(byte[] templateBytes, ExportExcel<?> exportExcel) {
+        this.templateBytes = templateBytes;
+        this.tableHeaderFontIndex = getFontIndex(exportExcel.getTableHeaderFont());
+        this.tableBodyFontIndex = getFontIndex(exportExcel.getTableBodyFont());
+        this.addBorder = exportExcel.isAddBorder();
+        this.addTableHeaderBorder = exportExcel.isAddTableHeaderBorder();
+        this.cellStyleIndexMap = exportExcel.getCellStyleRegistry().getCellStyleIndexMap();
+        this.dataFormatMap = exportExcel.getCellStyleRegistry().getDataFormatMap();
+        this.tableHeaderStamp = exportExcel.getTableHeaderStamp();
+    }
+
+    /**
+     * 使用默认样式制作模板
+     *
+     * @param tableHeaderList 表头数据
+     * @return
+     */
+    public static ExcelTemplate of(List<TableHeader> tableHeaderList) {
+        try {
+            return of(tableHeaderList, null, null);
+        } catch (IOException e) {
+            throw new RuntimeException("制作工作簿模板失败！", e);
+        }
+    }
+
+    /**
+     * 制作模板
+     *
+     * @param tableHeaderList 表头数据
+     * @param baseExcel       模板基于的.xlsx文件，为null时使用空白工作簿。输入流由调用方负责关闭
+     * @param customizer      设置字体、边框，为null时使用默认样式。表头字体已经创建好，表体字体需要时调用<method>createTableBodyFont</method>创建
+     * @return
+     * @throws IOException
+     */
+    public static ExcelTemplate of(List<TableHeader> tableHeaderList, InputStream baseExcel, Consumer<ExportExcel<?>> customizer) throws IOException {
+        try (XSSFWorkbook workbook = baseExcel == null ? new XSSFWorkbook() : new XSSFWorkbook(baseExcel)) {
+            ExportExcel<Object> exportExcel = new ExportExcel<>();
+            exportExcel.openExcel(workbook);
+            exportExcel.createTableHeaderFont();
+            if (customizer != null) {
+                customizer.accept(exportExcel);
+            }
+
+            /**
+             * 绘制一次表头和空的表格，创建表头块和每一列的数据样式、数据格式，之后删除绘制使用的Sheet
+             */
+            Sheet sheet = workbook.createSheet(TEMPLATE_SHEET_NAME);
+            exportExcel.selectSheet(sheet);
+            exportExcel.drawTable(TableHeaderLayout.of(tableHeaderList), Collections.emptyIterator(), 0);
+            workbook.removeSheetAt(workbook.getSheetIndex(sheet));
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            workbook.write(outputStream);
+            return new ExcelTemplate(outputStream.toByteArray(), exportExcel);
+        }
+    }
+
+    /**
+     * 从模板的字节副本打开工作簿
+     *
+     * @return
+     */
+    XSSFWorkbook newWorkbook() {
+        try {
+            return new XSSFWorkbook(new ByteArrayInputStream(this.templateBytes));
+        } catch (IOException e) {
+            throw new RuntimeException("从模板创建工作簿失败！", e);
+        }
+    }
+
+    /**
+     * 创建登记了模板样式的样式注册表
+     *
+     * @param workbook 从模板创建的工作簿
+     * @return
+     */
+    CellStyleRegistry newCellStyleRegistry(Workbook workbook) {
+        return new CellStyleRegistry(workbook, this.cellStyleIndexMap, this.dataFormatMap);
+    }
+
+    /**
+     * 为从模板创建的工作簿复制表头块
+     *
+     * @param workbook 从模板创建的工作簿
+     * @return
+     */
+    TableHeaderStamp newTableHeaderStamp(Workbook workbook) {
+        return this.tableHeaderStamp.copyTo(workbook);
+    }
+
+    int getTableHeaderFontIndex() {
+        return tableHeaderFontIndex;
+    }
+
+    int getTableBodyFontIndex() {
+        return tableBodyFontIndex;
+    }
+
+    boolean isAddBorder() {
+        return addBorder;
+    }
+
+    boolean isAddTableHeaderBorder() {
+        return addTableHeaderBorder;
+    }
+
+    /**
+     * 模板中创建好的样式数
+     *
+     * @return
+     */
+    public int getCellStyleCount() {
+        return this.cellStyleIndexMap.size();
+    }
+
+    private static int getFontIndex(Font font) {
+        return font == null ? -1 : font.getIndexAsInt();
+    }
+}
@@ -0,0 +1,115 @@
+package export.excel;
+
+import net.lingala.zip4j.io.outputstream.ZipOutputStream;
+import net.lingala.zip4j.model.ZipParameters;
+import net.lingala.zip4j.model.enums.CompressionLevel;
+import net.lingala.zip4j.model.enums.CompressionMethod;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+
+/**
+ * @author deng-zj
+ * @date 2026-10-17
+ * @description 将多个Excel写入压缩包，每个Excel绘制完成后作为一个压缩条目写出
+ * <method>putExcel</method>在锁内直接序列化Excel，不产生中间文件；<method>putFile</method>复制已经写出的Excel文件，
+ * 并行导出时各线程先把Excel写出至临时文件，只有复制条目时需要加锁。多个线程可以同时写入，条目按写入完成的先后顺序排列
+ * 关闭时只结束压缩包（写出中央目录），不会关闭传入的输出流；导出失败时不写出中央目录，压缩包保持不完整，调用方能发现导出失败
+ * @since JDK1.8
+ */
+class ExcelZipWriter implements Closeable {
+
+    private final ZipOutputStream zipOutputStream;
+    private final OutputStream outputStream;
+
+    /**
+     * 导出失败，关闭时不再结束压缩包
+     */
+    private volatile boolean failed = false;
+
+    ExcelZipWriter(OutputStream outputStream) throws IOException {
+        this.outputStream = outputStream;
+        this.zipOutputStream = new ZipOutputStream(new UnclosableOutputStream(outputStream));
+    }
+
+    /**
+     * 将Excel写入压缩包，写入完成后关闭Excel
+     *
+     * @param fileNameInZip 压缩包中的文件名
+     * @param exportExcel   绘制完成的Excel
+     * @return Excel的字节数
+     * @throws IOException
+     */
+    synchronized long putExcel(String fileNameInZip, ExportExcel<?> exportExcel) throws IOException {
+        ZipParameters parameters = new ZipParameters();
+        parameters.setCompressionMethod(CompressionMethod.DEFLATE); // 压缩方式
+        parameters.setCompressionLevel(CompressionLevel.NORMAL); // 压缩级别
+        parameters.setFileNameInZip(fileNameInZip);
+
+        this.zipOutputStream.putNextEntry(parameters);
+        exportExcel.write(this.zipOutputStream);
+        this.zipOutputStream.closeEntry();
+        return exportExcel.getExportMetrics().getByteCount();
+    }
+
+    /**
+     * 将已经写出至本地的Excel写入压缩包，用于并行导出、合并续传导出的Excel
+     *
+     * @param fileNameInZip 压缩包中的文件名
+     * @param excelFile     Excel文件
+     * @return 写入压缩包的耗时（纳秒），不包含等待锁的时间
+     * @throws IOException
+     */
+    synchronized long putFile(String fileNameInZip, File excelFile) throws IOException {
+        long startNanos = System.nanoTime();
+        ZipParameters parameters = new ZipParameters();
+        parameters.setCompressionMethod(CompressionMethod.DEFLATE); // 压缩方式
+        parameters.setCompressionLevel(CompressionLevel.NORMAL); // 压缩级别
+        parameters.setFileNameInZip(fileNameInZip);
+
+        this.zipOutputStream.putNextEntry(parameters);
+        Files.copy(excelFile.toPath(), this.zipOutputStream);
+        this.zipOutputStream.closeEntry();
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * 标记导出失败，关闭时不写出中央目录
+     */
+    void markFailed() {
+        this.failed = true;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (this.failed) {
+            this.outputStream.flush();
+            return;
+        }
+        this.zipOutputStream.close();
+    }
+
+    /**
+     * 关闭时只flush，传入的输出流由调用方关闭
+     */
+    private static class UnclosableOutputStream extends FilterOutputStream {
+
+        private UnclosableOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            this.out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.out.flush();
+        }
+    }
+}
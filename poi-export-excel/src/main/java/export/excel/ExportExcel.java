@@ -1,18 +1,24 @@
 package export.excel;
 
+import export.entity.CellStyleRule;
 import export.entity.TableHeader;
 import org.apache.commons.lang.StringUtils;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedOutputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -29,8 +35,10 @@ import java.util.Map;
  * @see <method>createTableBodyFont</method> 获取表体字体样式对象，对表体内容进行自定义字体样式
  * @see <method>setAddBorder</method> 设置表格是否添加边框
  * @see <method>setAddTableHeaderBorder</method> 设置表格的表头是否添加边框
+ * @see <method>setColumnWidthPolicy</method> 设置列宽策略，可以按抽样的数据估算列宽
  * 4、组装表头结构[对于多级表头会进行合并居中，如果是map或者实体类，field字段一定要匹配。否则取不到数据就会抛出异常]
  * @see TableHeader 表头对象 注：field支持多级取值 例如：a.b[n].c | a.b.c | a[n].b.c
+ * @see export.entity.TableHeaderBuilder 用取值函数组装表头结构，直接调用函数取值，不需要解析field
  * 5、将表格填充至Excel
  * @see <method>drawTable</method> 这个方法提供了两个实现方式：
  * 第一种：以追加的形式将表格填充至Excel，两个表格之间默认间隔两行。
@@ -39,6 +47,10 @@ import java.util.Map;
  *
  * 这里额外提供了一个方法<method>setCellBackGround</method>可以设置指定区域内所有单元格的背景色
  *
+ * 流式导出：通过构造方法<method>ExportExcel(rowAccessWindowSize)</method>开启，基于SXSSFWorkbook只在内存中保留最近的
+ * rowAccessWindowSize行，更早的行会被写入临时文件。表头行在合并完成之前不会被写出。
+ * 注：流式导出时已经写入磁盘的行无法再被修改，所以指定下标绘制表格时，开始行不能小于已写出的行。
+ *
  * @since   JDK1.8
  * @param <T>
  */
@@ -56,13 +68,36 @@ public class ExportExcel<T> {
      */
     private static final Short DEFULT_ROW_HEIGHT = 255 * 2;
 
-    private XSSFWorkbook workBook;
-    private XSSFSheet sheet;
+    /**
+     * 日期单元格的默认格式
+     */
+    private static final String DEFULT_DATE_FORMAT = "yyyy-MM-dd";
+
+    /**
+     * 单元格内容与自定义背景颜色的分隔符，例如：内容$bg[255,0,0]
+     */
+    static final String CUSTOM_BACKGROUND_SEPARATOR = "$bg";
+
+    private Workbook workBook;
+    private Sheet sheet;
+    private CellStyleRegistry cellStyleRegistry;
     private Font tableHeaderFont;
     private Font tableBodyFont;
 
-    private List<TableHeader> tableHeaderList;
-    private List<T> tableData;
+    /**
+     * 当前表格的表头布局
+     */
+    private TableHeaderLayout tableHeaderLayout;
+
+    /**
+     * 当前表头布局绘制好的表头块，表头布局不变时每个Sheet直接复制
+     */
+    private TableHeaderStamp tableHeaderStamp;
+    private Iterator<T> tableData;
+    /**
+     * 本次最多绘制的数据行数
+     */
+    private Integer tableDataMaxRows = 0;
     private Integer nowMaxRowNums = 0;
     private Integer nowMaxColNums = 0;
 
@@ -71,6 +106,16 @@ public class ExportExcel<T> {
 
     private Integer tableHeaderRowNum = 0;
 
+    /**
+     * 取值字段 -> 编译后的取值链，同一个ExportExcel绘制多个表格时只解析一次
+     */
+    private Map<String, FieldAccessor> fieldAccessorMap = new HashMap<>();
+
+    /**
+     * 自定义背景色 -> RGB，同一个颜色只解析一次
+     */
+    private Map<String, Integer> customBackGroundMap = new HashMap<>();
+
     /**
      * 是否添加边框
      */
@@ -83,6 +128,43 @@ public class ExportExcel<T> {
 
     private Integer tableCount = 0;
 
+    /**
+     * 导出指标：数据行数、单元格数、样式数、字节数、各阶段耗时
+     */
+    private ExportMetrics exportMetrics = new ExportMetrics();
+
+    /**
+     * 导出过程监听器
+     */
+    private ExportListener exportListener = ExportListener.NONE;
+
+    /**
+     * 流式导出时内存中保留的行数，小于等于0时不使用流式导出
+     */
+    private Integer rowAccessWindowSize = 0;
+
+    /**
+     * Excel是否已经关闭，重复关闭时直接返回
+     */
+    private boolean disposed = false;
+
+    /**
+     * 列宽策略，默认使用<field>TableHeader.width</field>
+     */
+    private ColumnWidthPolicy columnWidthPolicy = ColumnWidthPolicy.fixed();
+
+    public ExportExcel() {
+    }
+
+    /**
+     * 以流式导出的方式创建ExportExcel
+     *
+     * @param rowAccessWindowSize 内存中保留的行数，小于等于0时不使用流式导出
+     */
+    public ExportExcel(Integer rowAccessWindowSize) {
+        this.rowAccessWindowSize = rowAccessWindowSize;
+    }
+
     /**
      * 创建Excel
      *
@@ -91,13 +173,18 @@ public class ExportExcel<T> {
      */
     public XSSFWorkbook createExcel(String sheetName) {
         logger.info("==================================开始创建Excel(" + sheetName + ")工作簿");
-        this.workBook = new XSSFWorkbook();
+        long phaseStartTime = this.startPhase(ExportPhase.CREATE_WORKBOOK);
+        this.workBook = this.newWorkbook();
+        this.cellStyleRegistry = new CellStyleRegistry(this.workBook);
+        this.disposed = false;
+        this.tableHeaderStamp = null;
         this.workBook.createSheet(sheetName);
         this.sheet = this.workBook.getSheet(sheetName);
 
         this.sheet.setDefaultRowHeight(DEFULT_ROW_HEIGHT);
+        this.endPhase(ExportPhase.CREATE_WORKBOOK, phaseStartTime);
         logger.info("==================================(" + sheetName + ")工作簿创建完成");
-        return this.workBook;
+        return this.getXSSFWorkbook();
     }
 
     /**
@@ -108,16 +195,107 @@ public class ExportExcel<T> {
      */
     public XSSFWorkbook createExcel(Integer sheetNum, String sheetName) {
         logger.info("==================================开始创建Excel、Sheet");
-        this.workBook = new XSSFWorkbook();
+        long phaseStartTime = this.startPhase(ExportPhase.CREATE_WORKBOOK);
+        this.workBook = this.newWorkbook();
+        this.cellStyleRegistry = new CellStyleRegistry(this.workBook);
+        this.disposed = false;
+        this.tableHeaderStamp = null;
 
         for (int i = 0; i < sheetNum; i++) {
             this.workBook.createSheet(sheetName + "(" + (i + 1) + ")");
         }
+        this.endPhase(ExportPhase.CREATE_WORKBOOK, phaseStartTime);
 
         logger.info("==================================Excel、Sheet创建完成");
+        return this.getXSSFWorkbook();
+    }
+
+    /**
+     * 从模板创建Excel，模板中的字体、样式、数据格式、边框设置、表头块（表头单元格、列宽、合并区域）直接使用，不需要再创建
+     * 需要再调用<method>setSheet</method>或者创建Sheet后才能绘制表格
+     *
+     * @param excelTemplate 工作簿模板
+     * @return
+     */
+    Workbook createExcel(ExcelTemplate excelTemplate) {
+        long phaseStartTime = this.startPhase(ExportPhase.CREATE_WORKBOOK);
+        XSSFWorkbook xssfWorkbook = excelTemplate.newWorkbook();
+        if (this.isStreaming()) {
+            SXSSFWorkbook sxssfWorkbook = new SXSSFWorkbook(xssfWorkbook, -1);
+            sxssfWorkbook.setCompressTempFiles(true);
+            this.workBook = sxssfWorkbook;
+        } else {
+            this.workBook = xssfWorkbook;
+        }
+        this.cellStyleRegistry = excelTemplate.newCellStyleRegistry(this.workBook);
+        this.disposed = false;
+        this.tableHeaderStamp = excelTemplate.newTableHeaderStamp(this.workBook);
+        this.tableHeaderFont = excelTemplate.getTableHeaderFontIndex() == -1 ? null : this.workBook.getFontAt(excelTemplate.getTableHeaderFontIndex());
+        this.tableBodyFont = excelTemplate.getTableBodyFontIndex() == -1 ? null : this.workBook.getFontAt(excelTemplate.getTableBodyFontIndex());
+        this.addBorder = excelTemplate.isAddBorder();
+        this.addTableHeaderBorder = excelTemplate.isAddTableHeaderBorder();
+        this.endPhase(ExportPhase.CREATE_WORKBOOK, phaseStartTime);
+        return this.workBook;
+    }
+
+    /**
+     * 打开已经导出的Excel，在已有的表格之后追加数据
+     * 已有的样式直接登记，相同组合的单元格不再重复创建；流式导出时已有的行保留在内存中，追加的行按窗口大小写出
+     *
+     * @param workbook      已经导出的Excel
+     * @param excelTemplate 导出时使用的工作簿模板，为null时使用默认样式
+     * @return
+     */
+    Workbook appendExcel(XSSFWorkbook workbook, ExcelTemplate excelTemplate) {
+        long phaseStartTime = this.startPhase(ExportPhase.CREATE_WORKBOOK);
+        if (this.isStreaming()) {
+            SXSSFWorkbook sxssfWorkbook = new SXSSFWorkbook(workbook, -1);
+            sxssfWorkbook.setCompressTempFiles(true);
+            this.workBook = sxssfWorkbook;
+        } else {
+            this.workBook = workbook;
+        }
+        this.cellStyleRegistry = CellStyleRegistry.ofExisting(this.workBook);
+        this.disposed = false;
+        this.tableHeaderStamp = null;
+        if (excelTemplate != null) {
+            this.tableHeaderFont = excelTemplate.getTableHeaderFontIndex() == -1 ? null : this.workBook.getFontAt(excelTemplate.getTableHeaderFontIndex());
+            this.tableBodyFont = excelTemplate.getTableBodyFontIndex() == -1 ? null : this.workBook.getFontAt(excelTemplate.getTableBodyFontIndex());
+            this.addBorder = excelTemplate.isAddBorder();
+            this.addTableHeaderBorder = excelTemplate.isAddTableHeaderBorder();
+        }
+        this.endPhase(ExportPhase.CREATE_WORKBOOK, phaseStartTime);
         return this.workBook;
     }
 
+    /**
+     * 在已有的工作簿上绘制，用于制作模板
+     *
+     * @param workbook
+     */
+    void openExcel(XSSFWorkbook workbook) {
+        this.workBook = workbook;
+        this.cellStyleRegistry = new CellStyleRegistry(workbook);
+        this.disposed = false;
+        this.tableHeaderStamp = null;
+    }
+
+    /**
+     * 创建工作簿对象
+     * 流式导出时关闭SXSSF的自动写出（-1），由<method>drawTableData</method>按窗口大小手动写出，
+     * 保证表头行在合并完成之前一直保留在内存中
+     *
+     * @return
+     */
+    private Workbook newWorkbook() {
+        if (this.isStreaming()) {
+            SXSSFWorkbook sxssfWorkbook = new SXSSFWorkbook(-1);
+            sxssfWorkbook.setCompressTempFiles(true);
+            return sxssfWorkbook;
+        }
+        return new XSSFWorkbook();
+    }
+
     /**
      * 传入表格数据，将数据追加至Excel中
      *
@@ -126,12 +304,54 @@ public class ExportExcel<T> {
      * @return
      */
     public XSSFWorkbook drawTable(List<TableHeader> tableHeaderList, List<T> tableData) {
+        this.drawTable(tableHeaderList, tableData.iterator(), tableData.size());
+        return this.getXSSFWorkbook();
+    }
+
+    /**
+     * 从迭代器中拉取表格数据，将数据追加至Excel中
+     * 数据不需要全部加载至内存，最多绘制maxRowNum行，剩余的数据留在迭代器中，可以继续绘制下一个表格
+     *
+     * @param tableHeaderList 表头数据
+     * @param tableData       表格数据
+     * @param maxRowNum       最多绘制的数据行数
+     * @return
+     */
+    public Workbook drawTable(List<TableHeader> tableHeaderList, Iterator<T> tableData, Integer maxRowNum) {
+        return this.drawTable(TableHeaderLayout.of(tableHeaderList), tableData, maxRowNum, true);
+    }
+
+    /**
+     * 从迭代器中拉取表格数据，将数据追加至Excel中
+     * 传入同一个表头布局时，表头只在第一次绘制时计算，之后直接复制到每个Sheet
+     * 只用于本类库自己创建的Sheet，合并区域不再校验重叠
+     *
+     * @param tableHeaderLayout 表头布局
+     * @param tableData         表格数据
+     * @param maxRowNum         最多绘制的数据行数
+     * @return
+     */
+    Workbook drawTable(TableHeaderLayout tableHeaderLayout, Iterator<T> tableData, Integer maxRowNum) {
+        return this.drawTable(tableHeaderLayout, tableData, maxRowNum, false);
+    }
+
+    /**
+     * 从迭代器中拉取表格数据，将数据追加至Excel中
+     *
+     * @param tableHeaderLayout 表头布局
+     * @param tableData         表格数据
+     * @param maxRowNum         最多绘制的数据行数
+     * @param validateMerge     是否校验表头的合并区域与Sheet中已有的合并区域重叠
+     * @return
+     */
+    private Workbook drawTable(TableHeaderLayout tableHeaderLayout, Iterator<T> tableData, Integer maxRowNum, boolean validateMerge) {
         logger.info("==================================开始绘制第" + (++tableCount) + "个表格");
         Long startTime = System.currentTimeMillis();
 
-        this.tableHeaderList = tableHeaderList;
+        this.tableHeaderLayout = tableHeaderLayout;
         this.tableData = tableData;
-        this.tableHeaderRowNum = 0;
+        this.tableDataMaxRows = maxRowNum;
+        this.tableHeaderRowNum = this.tableHeaderLayout.getRowNum() - 1;
 
         Integer startRowIndex;
         if (this.nowMaxRowNums == 0) {
@@ -140,54 +360,83 @@ public class ExportExcel<T> {
             startRowIndex = this.nowMaxRowNums + SPACING_BETWEEN_TABLES;
         }
 
-        Integer tableHeaderColNum = this.getTableHeaderColumn(this.tableHeaderList, new ArrayList<>()).size();
-        if (tableHeaderColNum > this.nowMaxColNums) {
-            this.nowMaxColNums = tableHeaderColNum;
-        }
-
-        if (this.nowMaxRowNums < startRowIndex) {
-            this.fillCol(startRowIndex);
-        }
-
-        /**
-         * 开始绘制表头数据
-         * 因为不需要传入<列>下标，默认从第一列开始绘制
-         */
-        this.drawTableHeader(startRowIndex, 0, this.tableHeaderList, 0, 0);
-
         /**
          * 表格最大列下标 = 表格总字段数
-         * 表格最大行下标 = 开始行 + 表头总行数 + 表格数据总行数
          */
-        this.tableMaxCols = this.getTableHeaderColumn(this.tableHeaderList, new ArrayList<>()).size();
-        this.tableMaxRows = startRowIndex + this.tableHeaderRowNum + 1 + this.tableData.size();
+        this.tableMaxCols = this.tableHeaderLayout.getColNum();
 
         /**
-         * 多级表头需要填充<列>，然后进行合并
+         * 开始绘制表头数据，多级表头按布局直接合并
+         * 因为不需要传入<列>下标，默认从第一列开始绘制
          */
-        this.fillCol(this.nowMaxRowNums);
-        this.mergeCol(startRowIndex, 0);
-        this.mergeRow(startRowIndex, 0);
+        long phaseStartTime = this.startPhase(ExportPhase.DRAW_HEADER);
+        this.drawTableHeader(startRowIndex, 0);
+        this.endPhase(ExportPhase.DRAW_HEADER, phaseStartTime);
+
+        phaseStartTime = this.startPhase(ExportPhase.MERGE);
+        this.tableHeaderStamp.merge(this.sheet, startRowIndex, 0, validateMerge);
+        this.endPhase(ExportPhase.MERGE, phaseStartTime);
 
         /**
          * 开始绘制表格数据
+         * 表格最大行下标 = 开始行 + 表头总行数 + 表格数据总行数
          */
-        this.drawTableData(startRowIndex, 0);
+        phaseStartTime = this.startPhase(ExportPhase.DRAW_DATA);
+        Integer tableDataRowNum = this.drawTableData(startRowIndex, 0);
+        this.endPhase(ExportPhase.DRAW_DATA, phaseStartTime);
+        this.tableMaxRows = startRowIndex + this.tableHeaderRowNum + 1 + tableDataRowNum;
+
+        this.refreshMaxNums();
 
-        this.nowMaxRowNums = this.sheet.getPhysicalNumberOfRows();
-        if (this.nowMaxRowNums != 0) {
-            this.nowMaxColNums = this.sheet.getRow(0).getPhysicalNumberOfCells();
+        Long endTime = System.currentTimeMillis();
+        logger.info("==================================第" + tableCount + "个表格绘制完成。耗时" + (endTime - startTime) + "ms");
+        return this.workBook;
+    }
+
+    /**
+     * 在当前Sheet已有表格的最后一行之后追加数据，不再绘制表头
+     * 抽样估算列宽时只会加宽，不会比已有的列宽更窄
+     *
+     * @param tableHeaderLayout 已有表格的表头布局，表格从第一列开始
+     * @param tableData         表格数据
+     * @param maxRowNum         最多追加的数据行数
+     * @param lastRowIndex      已有表格的最后一行下标
+     * @return
+     */
+    Workbook appendTable(TableHeaderLayout tableHeaderLayout, Iterator<T> tableData, Integer maxRowNum, int lastRowIndex) {
+        logger.info("==================================开始向第" + (++tableCount) + "个表格追加数据");
+        Long startTime = System.currentTimeMillis();
+
+        this.tableHeaderLayout = tableHeaderLayout;
+        this.tableData = tableData;
+        this.tableDataMaxRows = maxRowNum;
+        this.tableHeaderRowNum = this.tableHeaderLayout.getRowNum() - 1;
+        this.tableMaxCols = this.tableHeaderLayout.getColNum();
+
+        int[] columnWidths = new int[this.tableMaxCols];
+        for (int j = 0; j < columnWidths.length; j++) {
+            columnWidths[j] = this.sheet.getColumnWidth(j);
         }
 
         /**
-         * 添加边框
+         * 数据从 开始行 + 表头总行数 开始绘制，所以开始行 = 最后一行的下一行 - 表头总行数
          */
-        if (addBorder) {
-            this.addBorder(startRowIndex, 0);
+        Integer startRowIndex = lastRowIndex + 1 - this.tableHeaderLayout.getRowNum();
+        long phaseStartTime = this.startPhase(ExportPhase.DRAW_DATA);
+        Integer tableDataRowNum = this.drawTableData(startRowIndex, 0);
+        this.endPhase(ExportPhase.DRAW_DATA, phaseStartTime);
+        this.tableMaxRows = lastRowIndex + 1 + tableDataRowNum;
+
+        for (int j = 0; j < columnWidths.length; j++) {
+            if (this.sheet.getColumnWidth(j) < columnWidths[j]) {
+                this.sheet.setColumnWidth(j, columnWidths[j]);
+            }
         }
 
+        this.refreshMaxNums();
+
         Long endTime = System.currentTimeMillis();
-        logger.info("==================================第" + tableCount + "个表格绘制完成。耗时" + (endTime - startTime) + "ms");
+        logger.info("==================================第" + tableCount + "个表格追加完成，共" + tableDataRowNum + "行。耗时" + (endTime - startTime) + "ms");
         return this.workBook;
     }
 
@@ -201,148 +450,184 @@ public class ExportExcel<T> {
      * @return
      */
     public XSSFWorkbook drawTable(List<TableHeader> tableHeaderList, List<T> tableData, Integer startRowIndex, Integer startColIndex) {
-        logger.info("==================================开始绘制第" + (++tableCount) + "个表格");
-        Long startTime = System.currentTimeMillis();
-
-        this.tableHeaderList = tableHeaderList;
-        this.tableData = tableData;
-        this.tableHeaderRowNum = 0;
-
-        Integer tableHeaderColNum = this.getTableHeaderColumn(this.tableHeaderList, new ArrayList<>()).size();
-        if ((tableHeaderColNum + startColIndex) > this.nowMaxColNums) {
-            this.nowMaxColNums = tableHeaderColNum + startColIndex;
+        if (startRowIndex < this.getFirstAccessibleRowIndex()) {
+            throw new IllegalArgumentException("流式导出时第" + startRowIndex + "行已写入磁盘，无法在该位置绘制表格");
         }
 
-        if (this.nowMaxRowNums < startRowIndex) {
-            this.fillCol(startRowIndex);
-        }
+        logger.info("==================================开始绘制第" + (++tableCount) + "个表格");
+        Long startTime = System.currentTimeMillis();
 
-        /**
-         * 开始绘制表头数据
-         */
-        this.drawTableHeader(startRowIndex, startColIndex, this.tableHeaderList, 0, 0);
+        this.tableHeaderLayout = TableHeaderLayout.of(tableHeaderList);
+        this.tableData = tableData.iterator();
+        this.tableDataMaxRows = tableData.size();
+        this.tableHeaderRowNum = this.tableHeaderLayout.getRowNum() - 1;
 
         /**
          * 表格最大列下标 = 开始列 + 表格总字段数
-         * 表格最大行下标 = 开始行 + 表头总行数 + 表格数据总行数
          */
-        this.tableMaxCols = startColIndex + this.getTableHeaderColumn(this.tableHeaderList, new ArrayList<>()).size();
-        this.tableMaxRows = startRowIndex + this.tableHeaderRowNum + 1 + this.tableData.size();
+        this.tableMaxCols = startColIndex + this.tableHeaderLayout.getColNum();
 
         /**
-         * 多级表头需要填充<列>，然后进行合并
-         * 开始行下标+表头行数（this.tableHeaderRowNum是下标）要得到实际数得加1
+         * 开始绘制表头数据，多级表头按布局直接合并
          */
-        this.fillCol(startRowIndex + this.tableHeaderRowNum + 1);
-        this.mergeCol(startRowIndex, startColIndex);
-        this.mergeRow(startRowIndex, startColIndex);
+        long phaseStartTime = this.startPhase(ExportPhase.DRAW_HEADER);
+        this.drawTableHeader(startRowIndex, startColIndex);
+        this.endPhase(ExportPhase.DRAW_HEADER, phaseStartTime);
+
+        phaseStartTime = this.startPhase(ExportPhase.MERGE);
+        this.tableHeaderStamp.merge(this.sheet, startRowIndex, startColIndex, true);
+        this.endPhase(ExportPhase.MERGE, phaseStartTime);
 
         /**
          * 开始绘制表格数据
+         * 表格最大行下标 = 开始行 + 表头总行数 + 表格数据总行数
          */
-        this.drawTableData(startRowIndex, startColIndex);
+        phaseStartTime = this.startPhase(ExportPhase.DRAW_DATA);
+        Integer tableDataRowNum = this.drawTableData(startRowIndex, startColIndex);
+        this.endPhase(ExportPhase.DRAW_DATA, phaseStartTime);
+        this.tableMaxRows = startRowIndex + this.tableHeaderRowNum + 1 + tableDataRowNum;
 
-        this.nowMaxRowNums = this.sheet.getPhysicalNumberOfRows();
-        if (this.nowMaxRowNums != 0) {
-            this.nowMaxColNums = this.sheet.getRow(0).getPhysicalNumberOfCells();
-        }
-
-        /**
-         * 表格绘制完成后，填充Excel表格缺少的单元格
-         */
-        this.fillCol(this.nowMaxRowNums);
-
-        /**
-         * 添加边框
-         */
-        if (addBorder) {
-            this.addBorder(startRowIndex, startColIndex);
-        }
+        this.refreshMaxNums();
 
         Long endTime = System.currentTimeMillis();
         logger.info("==================================第" + tableCount + "个表格绘制完成。耗时" + (endTime - startTime) + "ms");
-        return this.workBook;
+        return this.getXSSFWorkbook();
     }
 
     /**
      * 绘制表头
+     * 表头布局变化（或者样式设置变化）时重新计算表头块，否则直接复制已经绘制好的表头块（从模板创建时为模板中的表头块）。
+     * 需要合并的区域在绘制完成后由<method>TableHeaderStamp.merge</method>一次性添加
      *
-     * @param rowIndex        开始<行>下标
-     * @param colIndex        开始<列>下标
-     * @param tableHeaderList 表头数组
-     * @param rowCount        行计数
-     * @param colCount        列计数
+     * @param rowIndex 开始<行>下标
+     * @param colIndex 开始<列>下标
      */
-    private Integer drawTableHeader(Integer rowIndex, Integer colIndex, List<TableHeader> tableHeaderList, Integer rowCount, Integer colCount) {
-        for (int i = 0; i < tableHeaderList.size(); i++) {
-            XSSFRow row = this.sheet.getRow(rowIndex + rowCount);
-            if (row == null) {
-                row = this.sheet.createRow(rowIndex + rowCount);
-            }
-            XSSFCell cell = row.getCell(colIndex + colCount);
-            if (cell == null) {
-                cell = row.createCell(colIndex + colCount);
+    private void drawTableHeader(Integer rowIndex, Integer colIndex) {
+        if (this.tableHeaderStamp == null || !this.tableHeaderStamp.getTableHeaderLayout().isSameAs(this.tableHeaderLayout)) {
+            this.tableHeaderStamp = this.createTableHeaderStamp();
+        }
+        this.exportMetrics.addCellCount(this.tableHeaderStamp.drawCells(this.sheet, rowIndex, colIndex));
+    }
+
+    /**
+     * 按表头布局计算表头块
+     * 字体、对齐方式、背景色、边框在这里一次确定，合并的单元格居中
+     *
+     * @return
+     */
+    private TableHeaderStamp createTableHeaderStamp() {
+        boolean addTableHeaderBorder = this.addBorder && this.addTableHeaderBorder;
+        CellStyle mergedBorderCellStyle = addTableHeaderBorder ? this.cellStyleRegistry.getCellStyle(CellStyleKey.DEFAULT.withBorder(true)) : null;
+        TableHeaderStamp tableHeaderStamp = new TableHeaderStamp(this.tableHeaderLayout, mergedBorderCellStyle);
+        for (TableHeaderLayout.HeaderCell headerCell : this.tableHeaderLayout.getHeaderCellList()) {
+            if (headerCell.getColSpan() == 0) {
+                continue;
             }
-            TableHeader tableHeader = tableHeaderList.get(i);
-            cell.setCellValue(tableHeader.getHeaderText());
 
             /**
-             * 添加表头字体样式
+             * 添加表头字体样式、边框
              */
-            XSSFCellStyle cellStyle = cell.getCellStyle().copy();
-            cellStyle.setFont(this.tableHeaderFont);
+            TableHeader tableHeader = headerCell.getTableHeader();
+            CellStyleKey cellStyleKey = CellStyleKey.DEFAULT.withFont(this.tableHeaderFont).withBorder(addTableHeaderBorder);
 
             /**
-             * 设置自定义列宽
+             * 设置自定义列宽，列宽以叶子表头为准
              */
-            this.sheet.setColumnWidth(colIndex + colCount, tableHeader.getWidth() * 255);
+            if (tableHeader.getChildren() == null) {
+                tableHeaderStamp.addColumnWidth(headerCell.getColIndex(), tableHeader.getWidth() * 255);
+            }
 
             /**
              * 设置自定义背景颜色
              */
             if (!"".equals(tableHeader.getBackground())) {
-                this.setCustomBackGround(cellStyle, tableHeader.getBackground());
+                cellStyleKey = this.setCustomBackGround(cellStyleKey, tableHeader.getBackground());
             }
 
             /**
-             * 设置单元格内容靠左、靠右、居中
+             * 设置单元格内容靠左、靠右、居中，合并的单元格居中
              */
-            this.setCellAlign(cellStyle, tableHeader);
-
-            cell.setCellStyle(cellStyle);
-
-            if (tableHeader.getChildren() != null) {
-                rowCount++;
-                if (this.tableHeaderRowNum < rowCount) {
-                    this.tableHeaderRowNum = rowCount;
-                }
-                colCount = drawTableHeader(rowIndex, colIndex, tableHeader.getChildren(), rowCount, colCount);
-                rowCount--;
-            } else {
-                colCount++;
+            cellStyleKey = this.setCellAlign(cellStyleKey, tableHeader);
+            if (headerCell.isMerged()) {
+                cellStyleKey = cellStyleKey.withAlignment(HorizontalAlignment.CENTER);
+                tableHeaderStamp.addMergedRegion(headerCell.getRowIndex(), headerCell.getRowSpan(), headerCell.getColIndex(), headerCell.getColSpan());
             }
-        }
 
-        this.nowMaxRowNums = this.sheet.getPhysicalNumberOfRows();
-        return colCount;
+            tableHeaderStamp.addCell(headerCell.getRowIndex(), headerCell.getColIndex(), tableHeader.getHeaderText(), this.cellStyleRegistry.getCellStyle(cellStyleKey));
+        }
+        return tableHeaderStamp;
     }
 
     /**
      * 开始绘制表格数据
-     * 从表头下绘制表格
+     * 从表头下绘制表格，从迭代器中最多拉取tableDataMaxRows行数据
+     *
+     * @return 实际绘制的数据行数
      */
-    private void drawTableData(Integer startRowIndex, Integer startColIndex) {
+    private Integer drawTableData(Integer startRowIndex, Integer startColIndex) {
         logger.info("==================================开始绘制第" + (tableCount) + "个表格中的数据");
 
-        List<TableHeader> tableHeaderColumnList = getTableHeaderColumn(this.tableHeaderList, new ArrayList<>());
-        for (int i = 0; i < this.tableData.size(); i++) {
-            T rowData = (T) this.tableData.get(i);
+        List<TableHeader> tableHeaderColumnList = this.tableHeaderLayout.getColumnList();
+        List<FieldAccessor> fieldAccessorList = this.getFieldAccessorList(tableHeaderColumnList);
+
+        /**
+         * 每一列的数据类型、字体、对齐方式、边框、数据格式只计算一次，绘制单元格时直接使用
+         * 日期单元格没有设置格式时使用默认的日期格式
+         * 条件样式规则的样式也在这里创建好，绘制单元格时只需要判断条件
+         */
+        String[] columnValueTypes = new String[tableHeaderColumnList.size()];
+        CellStyleKey[] columnCellStyleKeys = new CellStyleKey[tableHeaderColumnList.size()];
+        CellStyleKey[] columnDateCellStyleKeys = new CellStyleKey[tableHeaderColumnList.size()];
+        CellStyle[] columnCellStyles = new CellStyle[tableHeaderColumnList.size()];
+        CellStyle[] columnDateCellStyles = new CellStyle[tableHeaderColumnList.size()];
+        CellStyleRule[][] columnStyleRules = new CellStyleRule[tableHeaderColumnList.size()][];
+        CellStyle[][] columnRuleCellStyles = new CellStyle[tableHeaderColumnList.size()][];
+        CellStyle[][] columnRuleDateCellStyles = new CellStyle[tableHeaderColumnList.size()][];
+        for (int j = 0; j < tableHeaderColumnList.size(); j++) {
+            TableHeader tableHeader = tableHeaderColumnList.get(j);
+            columnValueTypes[j] = tableHeader.getValueType() == null ? CellValueWriter.STRING : tableHeader.getValueType().toLowerCase();
+
+            CellStyleKey cellStyleKey = this.setCellAlign(CellStyleKey.DEFAULT.withFont(this.tableBodyFont).withBorder(this.addBorder), tableHeader);
+            boolean hasFormat = tableHeader.getFormat() != null && !"".equals(tableHeader.getFormat());
+            short dataFormat = hasFormat ? this.cellStyleRegistry.getDataFormat(tableHeader.getFormat()) : 0;
+            columnCellStyleKeys[j] = cellStyleKey.withDataFormat(dataFormat);
+            columnDateCellStyleKeys[j] = hasFormat ? columnCellStyleKeys[j] : cellStyleKey.withDataFormat(this.cellStyleRegistry.getDataFormat(DEFULT_DATE_FORMAT));
+            columnCellStyles[j] = this.cellStyleRegistry.getCellStyle(columnCellStyleKeys[j]);
+            columnDateCellStyles[j] = this.cellStyleRegistry.getCellStyle(columnDateCellStyleKeys[j]);
+
+            List<CellStyleRule> styleRuleList = tableHeader.getStyleRules() == null ? new ArrayList<>() : tableHeader.getStyleRules();
+            columnStyleRules[j] = styleRuleList.toArray(new CellStyleRule[0]);
+            columnRuleCellStyles[j] = new CellStyle[columnStyleRules[j].length];
+            columnRuleDateCellStyles[j] = new CellStyle[columnStyleRules[j].length];
+            for (int k = 0; k < columnStyleRules[j].length; k++) {
+                String background = columnStyleRules[j][k].getBackground();
+                columnRuleCellStyles[j][k] = this.cellStyleRegistry.getCellStyle(this.setCustomBackGround(columnCellStyleKeys[j], background));
+                columnRuleDateCellStyles[j][k] = this.cellStyleRegistry.getCellStyle(this.setCustomBackGround(columnDateCellStyleKeys[j], background));
+            }
+        }
+
+        /**
+         * 抽样估算列宽时，表头文字的宽度作为每一列的最小宽度
+         */
+        ColumnWidthSampler columnWidthSampler = null;
+        if (!this.columnWidthPolicy.isFixed()) {
+            int[] headerWidths = new int[tableHeaderColumnList.size()];
+            for (int j = 0; j < tableHeaderColumnList.size(); j++) {
+                headerWidths[j] = ColumnWidthPolicy.textWidth(tableHeaderColumnList.get(j).getHeaderText());
+            }
+            columnWidthSampler = this.columnWidthPolicy.newSampler(headerWidths);
+        }
+
+        int i = 0;
+        for (; i < this.tableDataMaxRows && this.tableData.hasNext(); i++) {
+            T rowData = this.tableData.next();
+            int sampleSlot = columnWidthSampler == null ? ColumnWidthSampler.SKIP : columnWidthSampler.beginRow(i);
 
             /**
              * 创建或者获取行对象
              * 开始行下标+表头行数（this.tableHeaderRowNum是下标）要得到实际数得加1
              */
-            XSSFRow row = this.sheet.getRow(startRowIndex + this.tableHeaderRowNum + 1 + i);
+            Row row = this.sheet.getRow(startRowIndex + this.tableHeaderRowNum + 1 + i);
             if (row == null) {
                 row = this.sheet.createRow(startRowIndex + this.tableHeaderRowNum + 1 + i);
             }
@@ -352,393 +637,160 @@ public class ExportExcel<T> {
                 /**
                  * 创建或者获取列对象
                  */
-                XSSFCell cell = row.getCell(startColIndex + j);
+                Cell cell = row.getCell(startColIndex + j);
                 if (cell == null) {
                     cell = row.createCell(startColIndex + j);
                 }
 
-                /**
-                 * 设置自定义文字样式
-                 */
-                XSSFCellStyle cellStyle = cell.getCellStyle().copy();
-                cellStyle.setFont(this.tableBodyFont);
-
                 /**
                  * 将数据放入Excel单元格
                  */
+                Object rawValue;
+                String color = null;
+                boolean isDate;
                 try {
-                    String[] contentAndColor = new String[]{""}; // 内容和颜色
-                    String field = tableHeaderColumnList.get(j).getField();
+                    /**
+                     * 用编译好的取值链取值，取不到数据时为空
+                     */
+                    rawValue = fieldAccessorList.get(j).getValue(rowData, j);
 
-                    String[] arrMultistageField = field.split("\\.");
                     /**
-                     * 如果数据取值字段是一级的情况下，则直接取值
-                     * 否则，则一级一级往下取值
+                     * 兼容 内容$bg颜色 形式的自定义背景颜色，只对字符串数据生效，建议使用条件样式规则<class>CellStyleRule</class>
                      */
-                    if (arrMultistageField.length == 1) {
-                        if (rowData instanceof Map) {
-                            contentAndColor = ((Map) rowData).get(field).toString().split("\\$bg");
-                        } else if (rowData instanceof List) {
-                            contentAndColor = ((List) rowData).get(j).toString().split("\\$bg");
-                        } else {
-                            Method[] methods = rowData.getClass().getMethods();
-                            for (Method method : methods) {
-                                if (("get" + field).toLowerCase().equals(method.getName().toLowerCase())) {
-                                    contentAndColor = method.invoke(rowData).toString().split("\\$bg");
-                                    break;
-                                }
-                            }
+                    Object value = rawValue;
+                    if (value != null && (CellValueWriter.STRING.equals(columnValueTypes[j]) || value instanceof CharSequence)) {
+                        String content = value.toString();
+                        int colorIndex = content.indexOf(CUSTOM_BACKGROUND_SEPARATOR);
+                        if (colorIndex != -1) {
+                            int colorEndIndex = content.indexOf(CUSTOM_BACKGROUND_SEPARATOR, colorIndex + CUSTOM_BACKGROUND_SEPARATOR.length());
+                            color = content.substring(colorIndex + CUSTOM_BACKGROUND_SEPARATOR.length(), colorEndIndex == -1 ? content.length() : colorEndIndex);
+                            color = color.isEmpty() ? null : color;
+                            content = content.substring(0, colorIndex);
                         }
-                    } else if (arrMultistageField.length > 1) {
-                        /**
-                         * 获取多级字段的数据
-                         */
-                        contentAndColor = this.getMultistageFieldData(rowData, contentAndColor, arrMultistageField);
+                        value = content;
                     }
-                    cell.setCellValue(contentAndColor[0]);
 
-                    /**
-                     * 设置自定义背景颜色
-                     */
-                    if (contentAndColor.length > 1) {
-                        this.setCustomBackGround(cellStyle, contentAndColor[1]);
+                    if (sampleSlot != ColumnWidthSampler.SKIP) {
+                        columnWidthSampler.measure(sampleSlot, j, value);
                     }
 
                     /**
-                     * 设置单元格内容靠左、靠右、居中、是否换行
+                     * 按数据类型写入数字、日期、布尔、字符串单元格
                      */
-                    this.setCellAlign(cellStyle, tableHeaderColumnList.get(j));
-
-                    cell.setCellStyle(cellStyle);
+                    isDate = CellValueWriter.write(cell, value, columnValueTypes[j]);
                 } catch (Exception e) {
                     logger.error("导出数据格式异常，请确认TableHeader中field与导出数据的field一致！\t" + e.getLocalizedMessage());
                     e.printStackTrace();
+                    continue;
                 }
-            }
-        }
-
-        logger.info("==================================第" + (tableCount) + "个表格中的数据绘制完成");
-    }
-
-    /**
-     * 获取多级字段的数据
-     *
-     * @param rowData            表格一行数据
-     * @param contentAndColor    数据存放位置
-     * @param arrMultistageField 多级字段
-     * @return
-     */
-    private String[] getMultistageFieldData(T rowData, String[] contentAndColor, String[] arrMultistageField) throws InvocationTargetException, IllegalAccessException {
-        /**
-         * 定义不确定 data 类型, data可能是Map或者List
-         * 定义 k 变量, 如果第一个key值对应的是List，k就从零开始，原因是List不占取值变量名，用a[n]取值
-         * 如果第一个key值是Map， k就从1开始，原因是Map会占用取值变量名, 用a.b取值
-         * 定义 firstKey 变量，如果第一个key值对应的是List，取数组第一个下标的前缀变量作为key
-         * 如果第一个key值是Map，取值数组第一个下标作为key
-         */
-        T data;
-        int k = 0;
-        String firstKey;
-        if (arrMultistageField[0].endsWith("]")) {
-            firstKey = arrMultistageField[0].split("\\[")[0];
-        } else {
-            firstKey = arrMultistageField[0];
-            k = 1;
-        }
-
-        data = (T) ((Map) rowData).get(firstKey);
-        /**
-         * 如果通过Map没有取到数据，则当做对象通过get方法进行取值
-         */
-        if (data == null) {
-            Method[] methods = data.getClass().getMethods();
-            for (Method method : methods) {
-                if (("get" + firstKey).toLowerCase().equals(method.getName().toLowerCase())) {
-                    data = (T) method.invoke(data);
-                    break;
-                }
-            }
-        }
-
-        for (; k < arrMultistageField.length; k++) {
-            if (arrMultistageField[k].endsWith("]")) {
-                String[] fieldAndIndex = arrMultistageField[k].split("\\[");
 
                 /**
-                 * 如果是Map，直接用field进行取值
-                 * 如果不是Map也不是List，则当做对象通过get方法进行取值
+                 * 设置列样式：优先使用第一个满足条件的规则样式，其次是自定义背景颜色
+                 * 规则判断取到的原始数据（没有去掉$bg、没有转换为字符串），规则自身抛出的异常不是数据格式异常，直接抛出
                  */
-                if (data instanceof Map) {
-                    data = (T) ((Map) data).get(arrMultistageField[k].split("\\[")[0]);
-                } else if (!(data instanceof List)) {
-                    Method[] methods = data.getClass().getMethods();
-                    for (Method method : methods) {
-                        if (("get" + arrMultistageField[k].split("\\[")[0]).toLowerCase().equals(method.getName().toLowerCase())) {
-                            data = (T) method.invoke(data);
-                            break;
-                        }
+                CellStyle ruleCellStyle = null;
+                for (int k = 0; k < columnStyleRules[j].length; k++) {
+                    boolean matched;
+                    try {
+                        matched = columnStyleRules[j][k].test(rawValue, rowData);
+                    } catch (RuntimeException e) {
+                        throw new IllegalStateException("第" + (j + 1) + "列（" + tableHeaderColumnList.get(j).getHeaderText() + "）的第" + (k + 1) + "条样式规则判断失败", e);
+                    }
+                    if (matched) {
+                        ruleCellStyle = isDate ? columnRuleDateCellStyles[j][k] : columnRuleCellStyles[j][k];
+                        break;
                     }
                 }
 
-                /**
-                 * 将取出的List通过field传入下标进行取值
-                 */
-                for (int l = 1; l < fieldAndIndex.length; l++) {
-                    data = (T) ((List) data).get(Integer.parseInt(fieldAndIndex[l].substring(0, fieldAndIndex[l].length() - 1)));
-                }
-            } else {
-                /**
-                 * 如果是Map，直接用field进行取值
-                 * 如果不是Map，则当做对象通过get方法进行取值
-                 */
-                if (data instanceof Map) {
-                    data = (T) ((Map) data).get(arrMultistageField[k]);
+                if (ruleCellStyle != null) {
+                    cell.setCellStyle(ruleCellStyle);
+                } else if (color != null) {
+                    cell.setCellStyle(this.cellStyleRegistry.getCellStyle(this.setCustomBackGround(isDate ? columnDateCellStyleKeys[j] : columnCellStyleKeys[j], color)));
                 } else {
-                    Method[] methods = data.getClass().getMethods();
-                    for (Method method : methods) {
-                        if (("get" + arrMultistageField[k]).toLowerCase().equals(method.getName().toLowerCase())) {
-                            data = (T) method.invoke(data);
-                            break;
-                        }
-                    }
+                    cell.setCellStyle(isDate ? columnDateCellStyles[j] : columnCellStyles[j]);
                 }
             }
-        }
-
-        /**
-         * 数据取完之后，字符串数据放入内容和颜色的数组中
-         */
-        if (data instanceof String) {
-            contentAndColor = ((String) data).split("\\$bg");
-        }
-        return contentAndColor;
-    }
-
-    /**
-     * 填充列
-     *
-     * @param maxRows
-     */
-    private void fillCol(Integer maxRows) {
-        /**
-         * 填充列，判断当前<行>中是否缺少<列>，缺少就创建。
-         */
-        for (int i = 0; i < maxRows; i++) {
-            XSSFRow row = this.sheet.getRow(i);
-            if (row == null) {
-                row = this.sheet.createRow(i);
-            }
 
-            for (int j = 0; j < this.nowMaxColNums; j++) {
-                XSSFCell cell = row.getCell(j);
-                if (cell == null) {
-                    row.createCell(j);
+            /**
+             * 流式导出时，内存中只保留rowAccessWindowSize行，其余行写出至临时文件
+             */
+            if (this.isStreaming()) {
+                try {
+                    ((SXSSFSheet) this.sheet).flushRows(this.rowAccessWindowSize);
+                } catch (IOException e) {
+                    throw new RuntimeException("流式导出写出数据行失败！", e);
                 }
             }
         }
 
-        this.nowMaxRowNums = this.sheet.getPhysicalNumberOfRows();
-        if (this.nowMaxRowNums != 0) {
-            this.nowMaxColNums = this.sheet.getRow(0).getPhysicalNumberOfCells();
-        }
-    }
-
-    /**
-     * 合并列
-     *
-     * @param startRowIndex
-     * @param startColIndex
-     */
-    private void mergeCol(Integer startRowIndex, Integer startColIndex) {
-        int firstRow = startRowIndex, lastRow = startRowIndex, firstCol = startColIndex, lastCol = startColIndex;
         /**
-         * 开始行下标+表头行数（this.tableHeaderRowNum是下标）要得到实际数得加1
+         * 列宽不属于行数据，流式导出时已经写出的行不需要回读
          */
-        for (int i = startRowIndex; i < (startRowIndex + this.tableHeaderRowNum + 1); i++) {
-            XSSFRow row = this.sheet.getRow(i);
-
-            firstRow = i;
-            lastRow = i;
-            firstCol = startColIndex;
-            lastCol = startColIndex;
-            for (int j = startColIndex; j < this.tableMaxCols; j++) {
-                XSSFCell nextCell = row.getCell(j + 1);
-                if (nextCell != null) {
-                    String nextCellValue = nextCell.getStringCellValue();
-                    if ("".equals(nextCellValue)) {
-                        /**
-                         * 需要判断下一列之前是否有数据，之后的数据不需要判断，第一行不需要判断，如果有数据则不合并。
-                         * 这一块的判断主要是给行合并留出空间，不留出空间就是导致需要行合并的数据先被列合并了
-                         */
-                        boolean isExist = false;
-                        for (int k = startRowIndex; k < i; k++) {
-                            XSSFRow oldRow = this.sheet.getRow(k);
-                            XSSFCell oldCell = oldRow.getCell(j + 1);
-                            String oldCellValue = oldCell.getStringCellValue();
-                            if (!"".equals(oldCellValue)) {
-                                isExist = true;
-                                break;
-                            }
-                        }
-
-                        if (!isExist) {
-                            lastCol = j + 1;
-                        }
-                    } else {
-                        /**
-                         * 结束列不等于表格开始列下标 并且 开始列等于表格开始列下标 并且 当前行开始列有数据时进行合并并居中（有可能会出现第一列没数据）
-                         * 或者
-                         * 开始列不等于表格开始列下标 并且 开始列小于结束列时进行合并并居中
-                         */
-                        if ((lastCol != startColIndex && firstCol == startColIndex && !"".equals(row.getCell(startColIndex).getStringCellValue()))
-                                || (firstCol != startColIndex && firstCol < lastCol)) {
-                            mergedCenter(firstRow, lastRow, firstCol, lastCol);
-                        }
-                        firstCol = j + 1;
-                    }
-                } else {
-                    /**
-                     * 下一列为null，则是循环结尾，结尾如果存在需要合并的，在额外执行一次合并
-                     */
-                    if ((lastCol != startColIndex && firstCol == startColIndex && !"".equals(row.getCell(startColIndex).getStringCellValue()))
-                            || (firstCol != startColIndex && firstCol < lastCol)) {
-                        mergedCenter(firstRow, lastRow, firstCol, lastCol);
-                    }
-                }
+        if (columnWidthSampler != null) {
+            int[] columnWidths = columnWidthSampler.getColumnWidths();
+            for (int j = 0; j < columnWidths.length; j++) {
+                this.sheet.setColumnWidth(startColIndex + j, this.columnWidthPolicy.toColumnWidth(columnWidths[j]));
             }
         }
+
+        logger.info("==================================第" + (tableCount) + "个表格中的数据绘制完成");
+        this.exportMetrics.addRowCount(i);
+        this.exportMetrics.addCellCount((long) i * tableHeaderColumnList.size());
+        return i;
     }
 
     /**
-     * 合并行
+     * 获取取值字段编译后的取值链
      *
-     * @param startRowIndex
-     * @param startColIndex
+     * @param tableHeaderColumnList 表头需要取值的集合
+     * @return
      */
-    private void mergeRow(Integer startRowIndex, Integer startColIndex) {
-        int firstRow = startRowIndex, lastRow = startRowIndex, firstCol = startColIndex, lastCol = startColIndex;
-        for (int i = startColIndex; i < this.tableMaxCols; i++) {
-
-            firstRow = startRowIndex;
-            lastRow = startRowIndex;
-            firstCol = i;
-            lastCol = i;
+    private List<FieldAccessor> getFieldAccessorList(List<TableHeader> tableHeaderColumnList) {
+        List<FieldAccessor> fieldAccessorList = new ArrayList<>(tableHeaderColumnList.size());
+        for (TableHeader tableHeader : tableHeaderColumnList) {
             /**
-             * 开始行下标+表头行数（this.tableHeaderRowNum是下标）要得到实际数得加1
+             * 设置了取值函数的表头直接调用函数取值
              */
-            for (int j = startRowIndex; j < (startRowIndex + this.tableHeaderRowNum + 1); j++) {
-                XSSFRow nextRow = this.sheet.getRow(j + 1);
-                /**
-                 * 下一行下标超过本次表格使用的行数时，就不合并了
-                 */
-                if (nextRow != null && (j + 1) <= (startRowIndex + this.tableHeaderRowNum)) {
-                    XSSFCell nextCell = nextRow.getCell(i);
-                    if ("".equals(nextCell.getStringCellValue())) {
-                        lastRow = j + 1;
-                    } else {
-                        /**
-                         * 结束行不等于表格开始行下标 并且 开始行等于表格开始行下标 并且 当前列开始行有数据时进行合并并居中（有可能会出现第一行没数据）
-                         * 或者
-                         * 开始行不等于表格开始行下标 并且 开始行小于结束行时进行合并并居中
-                         */
-                        if ((lastRow != startRowIndex && firstRow == startRowIndex && !"".equals(this.sheet.getRow(startRowIndex).getCell(i).getStringCellValue()))
-                                || (firstRow != startRowIndex && firstRow < lastRow)) {
-                            mergedCenter(firstRow, lastRow, firstCol, lastCol);
-                        }
-                        firstRow = j + 1;
-                    }
-                } else {
-                    /**
-                     * 下一行为null，则是循环结尾，结尾如果存在需要合并的，在额外执行一次合并
-                     */
-                    if ((lastRow != startRowIndex && firstRow == startRowIndex && !"".equals(this.sheet.getRow(startRowIndex).getCell(i).getStringCellValue()))
-                            || (firstRow != startRowIndex && firstRow < lastRow)) {
-                        mergedCenter(firstRow, lastRow, firstCol, lastCol);
-                    }
-                }
+            if (tableHeader.getExtractor() != null) {
+                fieldAccessorList.add(FieldAccessor.of(tableHeader.getExtractor()));
+                continue;
             }
-        }
-    }
-
-    /**
-     * 合并居中
-     *
-     * @param firstRow 开始行
-     * @param lastRow  结束行
-     * @param firstCol 开始列
-     * @param lastCol  结束行
-     */
-    private void mergedCenter(int firstRow, int lastRow, int firstCol, int lastCol) {
-        // 合并
-        this.sheet.addMergedRegion(new CellRangeAddress(firstRow, lastRow, firstCol, lastCol));
 
-        // 居中
-        XSSFRow row = this.sheet.getRow(firstRow);
-        XSSFCell cell = row.getCell(firstCol);
-        XSSFCellStyle cellStyle = cell.getCellStyle().copy();
-        cellStyle.setAlignment(HorizontalAlignment.CENTER);
-        cellStyle.setVerticalAlignment(VerticalAlignment.CENTER);
-        cell.setCellStyle(cellStyle);
+            FieldAccessor fieldAccessor = this.fieldAccessorMap.get(tableHeader.getField());
+            if (fieldAccessor == null) {
+                fieldAccessor = FieldAccessor.compile(tableHeader.getField());
+                this.fieldAccessorMap.put(tableHeader.getField(), fieldAccessor);
+            }
+            fieldAccessorList.add(fieldAccessor);
+        }
+        return fieldAccessorList;
     }
 
     /**
      * 设置单元格内容靠左、靠右、居中、换行
      *
-     * @param cellStyle
+     * @param cellStyleKey
+     * @return
      */
-    private void setCellAlign(XSSFCellStyle cellStyle, TableHeader tableHeader) {
+    private CellStyleKey setCellAlign(CellStyleKey cellStyleKey, TableHeader tableHeader) {
         String align = tableHeader.getAlign();
         if ("left".equals(align.toLowerCase())) {
-            cellStyle.setAlignment(HorizontalAlignment.LEFT);
+            cellStyleKey = cellStyleKey.withAlignment(HorizontalAlignment.LEFT);
         } else if ("right".equals(align.toLowerCase())) {
-            cellStyle.setAlignment(HorizontalAlignment.RIGHT);
+            cellStyleKey = cellStyleKey.withAlignment(HorizontalAlignment.RIGHT);
         } else if ("center".equals(align.toLowerCase())) {
-            cellStyle.setAlignment(HorizontalAlignment.CENTER);
+            cellStyleKey = cellStyleKey.withAlignment(HorizontalAlignment.CENTER);
         }
 
         /**
          * 垂直居中
          */
-        cellStyle.setVerticalAlignment(VerticalAlignment.CENTER);
+        cellStyleKey = cellStyleKey.withVerticalAlignment(VerticalAlignment.CENTER);
 
         /**
          * 文字换行
          */
-        cellStyle.setWrapText(tableHeader.getWrapText());
-
-    }
-
-    /**
-     * 添加边框
-     *
-     * @param startRowIndex
-     * @param startColIndex
-     */
-    private void addBorder(Integer startRowIndex, Integer startColIndex) {
-
-        /**
-         * 是否添加表头边框
-         */
-        if (!this.addTableHeaderBorder) {
-            startRowIndex += this.tableHeaderRowNum + 1;
-        }
-
-        /**
-         * 表格全面积设置边框
-         * 开始行下标+表头行数（this.tableHeaderRowNum是下标）要得到实际数得加1 + 数据总行数
-         */
-        for (int i = startRowIndex; i < this.tableMaxRows; i++) {
-            for (int j = startColIndex; j < this.tableMaxCols; j++) {
-                XSSFCell cell = this.sheet.getRow(i).getCell(j);
-                XSSFCellStyle cellStyle = cell.getCellStyle().copy();
-                cellStyle.setBorderTop(BorderStyle.THIN);
-                cellStyle.setBorderRight(BorderStyle.THIN);
-                cellStyle.setBorderBottom(BorderStyle.THIN);
-                cellStyle.setBorderLeft(BorderStyle.THIN);
-                cell.setCellStyle(cellStyle);
-            }
-        }
-
+        return cellStyleKey.withWrapText(tableHeader.getWrapText());
     }
 
     /**
@@ -753,15 +805,23 @@ public class ExportExcel<T> {
         endRowIndex = endRowIndex == 0 ? this.nowMaxRowNums - 1 : endRowIndex;
         endColIndex = endColIndex == 0 ? this.nowMaxColNums - 1 : endColIndex;
 
-        for (int i = startRowIndex; i <= endRowIndex; i++) {
-            XSSFRow row = this.sheet.getRow(i);
+        /**
+         * 流式导出时已写出的行无法再设置
+         * 表格之间没有预先创建空的单元格，区域内缺少的单元格在这里创建
+         */
+        for (int i = Math.max(startRowIndex, this.getFirstAccessibleRowIndex()); i <= endRowIndex; i++) {
+            Row row = this.sheet.getRow(i);
+            if (row == null) {
+                row = this.sheet.createRow(i);
+            }
             for (int j = startColIndex; j <= endColIndex; j++) {
-                XSSFCell cell = row.getCell(j);
+                Cell cell = row.getCell(j);
+                if (cell == null) {
+                    cell = row.createCell(j);
+                }
 
-                XSSFCellStyle cellStyle = cell.getCellStyle().copy();
-                cellStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-                cellStyle.setFillForegroundColor(IndexedColors.WHITE.getIndex());
-                cell.setCellStyle(cellStyle);
+                CellStyleKey cellStyleKey = this.cellStyleRegistry.getCellStyleKey(cell.getCellStyle()).withFillColor(0xFFFFFF);
+                cell.setCellStyle(this.cellStyleRegistry.getCellStyle(cellStyleKey));
             }
         }
     }
@@ -769,10 +829,26 @@ public class ExportExcel<T> {
     /**
      * 设置自定义背景色
      *
-     * @param cellStyle
+     * @param cellStyleKey
      * @param strColor
+     * @return
+     */
+    private CellStyleKey setCustomBackGround(CellStyleKey cellStyleKey, String strColor) {
+        Integer fillColor = this.customBackGroundMap.get(strColor);
+        if (fillColor == null) {
+            fillColor = this.parseColor(strColor);
+            this.customBackGroundMap.put(strColor, fillColor);
+        }
+        return fillColor == -1 ? cellStyleKey : cellStyleKey.withFillColor(fillColor);
+    }
+
+    /**
+     * 解析颜色
+     *
+     * @param strColor 颜色，支持RGB和十六进制，例如：[255,0,0] | 255,0,0 | #FF0000
+     * @return RGB，无法解析时返回-1
      */
-    private void setCustomBackGround(XSSFCellStyle cellStyle, String strColor) {
+    private int parseColor(String strColor) {
         if (strColor.lastIndexOf("[") != -1) {
             strColor = strColor.substring(strColor.lastIndexOf("[") + 1, strColor.lastIndexOf("]"));
         }
@@ -793,9 +869,9 @@ public class ExportExcel<T> {
         }
 
         if (intColorRGB != null) {
-            cellStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            cellStyle.setFillForegroundColor(new XSSFColor(new java.awt.Color(intColorRGB[0], intColorRGB[1], intColorRGB[2]), new DefaultIndexedColorMap()));
+            return (intColorRGB[0] << 16) | (intColorRGB[1] << 8) | intColorRGB[2];
         }
+        return -1;
     }
 
     /**
@@ -819,24 +895,6 @@ public class ExportExcel<T> {
         return new int[]{r, g, b};
     }
 
-    /**
-     * 获取表头取值字段
-     *
-     * @param tableHeaderList       表头集合
-     * @param tableHeaderColumnList 表头需要取值的集合
-     * @return
-     */
-    private List<TableHeader> getTableHeaderColumn(List<TableHeader> tableHeaderList, List<TableHeader> tableHeaderColumnList) {
-        for (int i = 0; i < tableHeaderList.size(); i++) {
-            if (tableHeaderList.get(i).getChildren() != null) {
-                tableHeaderColumnList = getTableHeaderColumn(tableHeaderList.get(i).getChildren(), tableHeaderColumnList);
-            } else {
-                tableHeaderColumnList.add(tableHeaderList.get(i));
-            }
-        }
-        return tableHeaderColumnList;
-    }
-
     /**
      * 创建表头字体样式
      *
@@ -845,6 +903,7 @@ public class ExportExcel<T> {
     public Font createTableHeaderFont() {
         this.tableHeaderFont = this.workBook.createFont();
         this.tableHeaderFont.setBold(true);
+        this.tableHeaderStamp = null;
         return this.tableHeaderFont;
     }
 
@@ -855,6 +914,7 @@ public class ExportExcel<T> {
      */
     public Font createTableBodyFont() {
         this.tableBodyFont = this.workBook.createFont();
+        this.tableHeaderStamp = null;
         return this.tableBodyFont;
     }
 
@@ -865,21 +925,149 @@ public class ExportExcel<T> {
      * @throws IOException
      */
     public void write(String filePath) throws IOException {
-        FileOutputStream fos = new FileOutputStream(filePath);
-        this.workBook.write(fos);
+        FileOutputStream fos;
+        try {
+            fos = new FileOutputStream(filePath);
+        } catch (IOException | RuntimeException e) {
+            try {
+                this.dispose();
+            } catch (IOException disposeException) {
+                e.addSuppressed(disposeException);
+            }
+            throw e;
+        }
+        try (FileOutputStream outputStream = fos) {
+            this.write(outputStream);
+        }
+    }
+
+    /**
+     * 生成并写入Excel至输出流，写出完成或失败后关闭Excel，但不会关闭输出流
+     *
+     * @param outputStream 输出流
+     * @throws IOException
+     */
+    public void write(OutputStream outputStream) throws IOException {
+        long phaseStartTime = this.startPhase(ExportPhase.WRITE);
+        CountingOutputStream countingOutputStream = new CountingOutputStream(outputStream);
+        try {
+            this.workBook.write(countingOutputStream);
+        } catch (IOException | RuntimeException e) {
+            /**
+             * 写出失败（例如磁盘已满、输出流已关闭）时同样删除临时文件、关闭Excel
+             */
+            try {
+                this.dispose();
+            } catch (IOException disposeException) {
+                e.addSuppressed(disposeException);
+            }
+            throw e;
+        }
+        this.exportMetrics.addByteCount(countingOutputStream.getByteNum());
+        this.exportMetrics.addCellStyleCount(this.getCellStyleCount());
+        this.exportMetrics.addExcelCount(1);
+        logger.info("==================================Excel写出完成，共使用" + this.getCellStyleCount() + "个单元格样式");
+        this.dispose();
+
+        this.endPhase(ExportPhase.WRITE, phaseStartTime);
+        this.exportListener.onExcelWritten(this.exportMetrics);
+    }
+
+    /**
+     * 关闭Excel，用于写出之后或者放弃导出时释放资源
+     *
+     * @throws IOException
+     */
+    public void dispose() throws IOException {
+        if (this.disposed) {
+            return;
+        }
+        this.disposed = true;
 
-        fos.close();
+        /**
+         * 流式导出需要删除绘制、写出时产生的临时文件
+         */
+        if (this.workBook instanceof SXSSFWorkbook) {
+            ((SXSSFWorkbook) this.workBook).dispose();
+        }
         this.workBook.close();
     }
 
+    /**
+     * 生成并写入Excel至NIO通道，写出完成后关闭Excel，但不会关闭通道
+     *
+     * @param channel 通道
+     * @throws IOException
+     */
+    public void write(WritableByteChannel channel) throws IOException {
+        OutputStream outputStream = new BufferedOutputStream(Channels.newOutputStream(channel));
+        this.write(outputStream);
+        outputStream.flush();
+    }
+
+    /**
+     * 阶段开始
+     *
+     * @param phase
+     * @return 开始时间（纳秒）
+     */
+    private long startPhase(ExportPhase phase) {
+        this.exportListener.onPhaseStart(phase);
+        return System.nanoTime();
+    }
+
+    /**
+     * 阶段结束，记录耗时
+     *
+     * @param phase
+     * @param phaseStartTime 开始时间（纳秒）
+     */
+    private void endPhase(ExportPhase phase, long phaseStartTime) {
+        long durationNanos = System.nanoTime() - phaseStartTime;
+        this.exportMetrics.addPhaseNanos(phase, durationNanos);
+        this.exportListener.onPhaseEnd(phase, durationNanos, this.exportMetrics);
+    }
+
+    /**
+     * 是否为流式导出
+     *
+     * @return
+     */
+    private boolean isStreaming() {
+        return this.rowAccessWindowSize != null && this.rowAccessWindowSize > 0;
+    }
+
+    /**
+     * 获取当前sheet中第一个可以访问的<行>下标，流式导出时已写出的行无法再访问
+     *
+     * @return
+     */
+    private int getFirstAccessibleRowIndex() {
+        if (this.sheet instanceof SXSSFSheet) {
+            return ((SXSSFSheet) this.sheet).getLastFlushedRowNum() + 1;
+        }
+        return 0;
+    }
+
+    /**
+     * 表格绘制完成后，用表格占用的区域更新当前最大行数、最大列数
+     * 只记录已占用区域的边界，不会创建空的单元格，所以追加表格、指定下标绘制表格只需要绘制新表格本身
+     */
+    private void refreshMaxNums() {
+        this.nowMaxRowNums = Math.max(this.nowMaxRowNums, this.tableMaxRows);
+        this.nowMaxColNums = Math.max(this.nowMaxColNums, this.tableMaxCols);
+    }
+
     /*********************************************** get and set method***************************************************/
 
     public void setTableHeaderFont(Font tableHeaderFont) {
         this.tableHeaderFont = tableHeaderFont;
+        this.tableHeaderStamp = null;
     }
 
     public void setTableBodyFont(Font tableBodyFont) {
         this.tableBodyFont = tableBodyFont;
+        this.tableHeaderStamp = null;
     }
 
     public boolean isAddBorder() {
@@ -888,6 +1076,7 @@ public class ExportExcel<T> {
 
     public void setAddBorder(boolean addBorder) {
         this.addBorder = addBorder;
+        this.tableHeaderStamp = null;
     }
 
     public boolean isAddTableHeaderBorder() {
@@ -896,6 +1085,7 @@ public class ExportExcel<T> {
 
     public void setAddTableHeaderBorder(boolean addTableHeaderBorder) {
         this.addTableHeaderBorder = addTableHeaderBorder;
+        this.tableHeaderStamp = null;
     }
 
     public Integer getNowMaxRowNums() {
@@ -914,11 +1104,120 @@ public class ExportExcel<T> {
         this.nowMaxColNums = nowMaxColNums;
     }
 
+    TableHeaderStamp getTableHeaderStamp() {
+        return tableHeaderStamp;
+    }
+
+    Font getTableHeaderFont() {
+        return tableHeaderFont;
+    }
+
+    Font getTableBodyFont() {
+        return tableBodyFont;
+    }
+
+    CellStyleRegistry getCellStyleRegistry() {
+        return cellStyleRegistry;
+    }
+
+    /**
+     * 获取当前绘制的Sheet
+     * 流式导出时返回SXSSFSheet底层的XSSFSheet，只能用于设置列宽、打印等Sheet级别的属性，已写出的行无法访问
+     *
+     * @return
+     */
     public XSSFSheet getSheet() {
-        return sheet;
+        if (this.sheet instanceof SXSSFSheet) {
+            return ((SXSSFWorkbook) this.workBook).getXSSFWorkbook().getSheet(this.sheet.getSheetName());
+        }
+        return (XSSFSheet) sheet;
     }
 
+    /**
+     * 设置当前绘制的Sheet，流式导出时按名称使用对应的SXSSFSheet
+     *
+     * @param sheet
+     */
     public void setSheet(XSSFSheet sheet) {
+        this.selectSheet(this.workBook instanceof SXSSFWorkbook ? this.workBook.getSheet(sheet.getSheetName()) : sheet);
+    }
+
+    /**
+     * 设置当前绘制的Sheet，流式导出时为SXSSFSheet
+     *
+     * @param sheet
+     */
+    void selectSheet(Sheet sheet) {
         this.sheet = sheet;
     }
+
+    /**
+     * 获取工作簿：流式导出时为SXSSFWorkbook，否则为XSSFWorkbook
+     *
+     * @return
+     */
+    public Workbook getWorkbook() {
+        return workBook;
+    }
+
+    /**
+     * 兼容原有返回XSSFWorkbook的方法：流式导出时返回SXSSFWorkbook底层的XSSFWorkbook，
+     * 只能用于创建字体、样式、Sheet，已写出的行无法访问，需要完整的工作簿时使用<method>getWorkbook</method>
+     *
+     * @return
+     */
+    private XSSFWorkbook getXSSFWorkbook() {
+        if (this.workBook instanceof SXSSFWorkbook) {
+            return ((SXSSFWorkbook) this.workBook).getXSSFWorkbook();
+        }
+        return (XSSFWorkbook) this.workBook;
+    }
+
+    public Integer getRowAccessWindowSize() {
+        return rowAccessWindowSize;
+    }
+
+    public Long getDataRowCount() {
+        return this.exportMetrics.getRowCount();
+    }
+
+    public ExportMetrics getExportMetrics() {
+        return exportMetrics;
+    }
+
+    public ColumnWidthPolicy getColumnWidthPolicy() {
+        return columnWidthPolicy;
+    }
+
+    /**
+     * 设置列宽策略
+     *
+     * @param columnWidthPolicy 为null时使用固定列宽
+     * @see ColumnWidthPolicy
+     */
+    public void setColumnWidthPolicy(ColumnWidthPolicy columnWidthPolicy) {
+        this.columnWidthPolicy = columnWidthPolicy == null ? ColumnWidthPolicy.fixed() : columnWidthPolicy;
+    }
+
+    public ExportListener getExportListener() {
+        return exportListener;
+    }
+
+    /**
+     * 设置导出过程监听器
+     *
+     * @param exportListener 为null时不监听
+     */
+    public void setExportListener(ExportListener exportListener) {
+        this.exportListener = exportListener == null ? ExportListener.NONE : exportListener;
+    }
+
+    /**
+     * 获取工作簿中的单元格样式总数，相同字体、对齐方式、换行、背景色、边框的单元格共用同一个样式
+     *
+     * @return
+     */
+    public int getCellStyleCount() {
+        return this.cellStyleRegistry.getCellStyleCount();
+    }
 }
@@ -0,0 +1,25 @@
+package export.excel;
+
+/**
+ * @author deng-zj
+ * @date 2026-10-17
+ * @description 导出文件格式，见<method>NomalExportExcel.setExportFormat</method>
+ * @since JDK1.8
+ */
+public enum ExportFormat {
+
+    /**
+     * Excel，按分区策略分Sheet、分Excel，多个Excel时压缩
+     */
+    XLSX,
+
+    /**
+     * 逗号分隔，所有数据写入一个文件，不分区、不压缩
+     */
+    CSV,
+
+    /**
+     * 制表符分隔，所有数据写入一个文件，不分区、不压缩
+     */
+    TSV
+}
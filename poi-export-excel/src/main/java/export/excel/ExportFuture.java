@@ -0,0 +1,94 @@
+package export.excel;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * @author deng-zj
+ * @date 2026-10-17
+ * @description 异步导出的结果，见<method>NomalExportExcel.exportAsync</method>
+ * 结果为导出后的文件路径（或文件名），可以通过<method>getProgress</method>查看导出进度。
+ * <method>cancel</method>立即将结果标记为已取消，导出线程在拉取下一行数据时结束并清理不完整的文件
+ * @since JDK1.8
+ */
+public class ExportFuture implements Future<String> {
+
+    private final CompletableFuture<String> future = new CompletableFuture<>();
+    private final ExportProgress progress;
+
+    ExportFuture(ExportProgress progress) {
+        this.progress = progress;
+    }
+
+    void complete(String value) {
+        this.future.complete(value);
+    }
+
+    void completeExceptionally(Throwable e) {
+        this.future.completeExceptionally(e);
+    }
+
+    /**
+     * 取消后执行，用于导出调度器将排队中的任务移出队列。已经取消时立即执行
+     *
+     * @param action
+     */
+    void whenCancelled(Runnable action) {
+        this.future.whenComplete((value, e) -> {
+            if (this.future.isCancelled()) {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * 取消导出，协作式取消，不会中断导出线程
+     *
+     * @param mayInterruptIfRunning 不使用
+     * @return 导出已经完成时返回false
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        if (this.future.isDone()) {
+            return false;
+        }
+        this.progress.cancel();
+        return this.future.cancel(false);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return this.future.isCancelled();
+    }
+
+    @Override
+    public boolean isDone() {
+        return this.future.isDone();
+    }
+
+    @Override
+    public String get() throws InterruptedException, ExecutionException {
+        return this.future.get();
+    }
+
+    @Override
+    public String get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        return this.future.get(timeout, unit);
+    }
+
+    public ExportProgress getProgress() {
+        return progress;
+    }
+
+    /**
+     * 转换为<class>CompletableFuture</class>，用于组合后续操作。对其取消不会取消导出
+     *
+     * @return
+     */
+    public CompletableFuture<String> toCompletableFuture() {
+        return this.future.thenApply(value -> value);
+    }
+}
@@ -0,0 +1,52 @@
+package export.excel;
+
+/**
+ * @author deng-zj
+ * @date 2026-10-17
+ * @description 导出过程监听器，用于将导出的各阶段耗时、行数、字节数等指标上报至监控系统
+ * <class>ExportExcel</class>在每个阶段结束、每个Excel写出后回调，<class>NomalExportExcel</class>在压缩、全部导出完成后回调
+ * 注：并行导出时会在多个线程中同时回调，实现类需要保证线程安全
+ * @since JDK1.8
+ */
+public interface ExportListener {
+
+    /**
+     * 不做任何处理的监听器
+     */
+    ExportListener NONE = new ExportListener() {
+    };
+
+    /**
+     * 阶段开始
+     *
+     * @param phase 阶段
+     */
+    default void onPhaseStart(ExportPhase phase) {
+    }
+
+    /**
+     * 阶段结束
+     *
+     * @param phase         阶段
+     * @param durationNanos 本次耗时（纳秒）
+     * @param metrics       当前Excel（或整个导出）的累计指标
+     */
+    default void onPhaseEnd(ExportPhase phase, long durationNanos, ExportMetrics metrics) {
+    }
+
+    /**
+     * 一个Excel写出完成
+     *
+     * @param metrics 这个Excel的指标
+     */
+    default void onExcelWritten(ExportMetrics metrics) {
+    }
+
+    /**
+     * 全部导出完成，只有<class>NomalExportExcel</class>会回调
+     *
+     * @param metrics 整个导出的汇总指标
+     */
+    default void onExportFinished(ExportMetrics metrics) {
+    }
+}
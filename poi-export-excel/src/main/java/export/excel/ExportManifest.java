@@ -0,0 +1,173 @@
+package export.excel;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * @author deng-zj
+ * @date 2026-10-17
+ * @description 可续传导出的清单，记录已经写出的Excel和每个Excel的数据行区间
+ * 清单和已经写出的Excel保存在同一个工作目录中，每写完一个Excel就更新一次清单（先写临时文件再替换）。
+ * 加载时校验每个Excel的文件大小，从第一个缺失或者不完整的Excel开始重新导出
+ *
+ * 清单格式（properties）：
+ * jobId=任务id
+ * fileName=导出的文件名
+ * tableHeader=叶子表头文字，用逗号连接
+ * excelCount=已经写出的Excel数
+ * excel.n=开始行,结束行（不包含）,字节数
+ * @since JDK1.8
+ */
+class ExportManifest {
+
+    /**
+     * 清单的文件名
+     */
+    static final String MANIFEST_FILE_NAME = "manifest.properties";
+
+    private final File workDir;
+    private final String jobId;
+    private final String fileName;
+    private final String tableHeader;
+
+    /**
+     * 已经写出的Excel：{开始行, 结束行（不包含）, 字节数}
+     */
+    private final List<long[]> partitionList = new ArrayList<>();
+
+    private ExportManifest(File workDir, String jobId, String fileName, String tableHeader) {
+        this.workDir = workDir;
+        this.jobId = jobId;
+        this.fileName = fileName;
+        this.tableHeader = tableHeader;
+    }
+
+    /**
+     * 加载工作目录中的清单，没有清单时创建一个空的清单
+     *
+     * @param workDir     工作目录
+     * @param jobId       任务id
+     * @param fileName    导出的文件名
+     * @param tableHeader 叶子表头文字，用逗号连接
+     * @return
+     */
+    static ExportManifest load(File workDir, String jobId, String fileName, String tableHeader) throws IOException {
+        ExportManifest exportManifest = new ExportManifest(workDir, jobId, fileName, tableHeader);
+        File manifestFile = new File(workDir, MANIFEST_FILE_NAME);
+        if (!manifestFile.exists()) {
+            return exportManifest;
+        }
+
+        Properties properties = new Properties();
+        try (InputStream inputStream = new BufferedInputStream(new FileInputStream(manifestFile))) {
+            properties.load(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        }
+        if (!jobId.equals(properties.getProperty("jobId")) || !fileName.equals(properties.getProperty("fileName"))
+                || !tableHeader.equals(properties.getProperty("tableHeader"))) {
+            throw new IllegalStateException("任务" + jobId + "的文件名或表头与已有的清单不一致，无法续传");
+        }
+
+        /**
+         * 从第一个缺失或者大小不一致的Excel开始重新导出
+         */
+        int excelCount = Integer.parseInt(properties.getProperty("excelCount", "0"));
+        for (int excelIndex = 1; excelIndex <= excelCount; excelIndex++) {
+            String[] partition = properties.getProperty("excel." + excelIndex, "").split(",");
+            if (partition.length != 3) {
+                break;
+            }
+            long[] range = {Long.parseLong(partition[0]), Long.parseLong(partition[1]), Long.parseLong(partition[2])};
+            File excelFile = exportManifest.getExcelFile(excelIndex);
+            if (!excelFile.exists() || excelFile.length() != range[2]) {
+                break;
+            }
+            exportManifest.partitionList.add(range);
+        }
+        return exportManifest;
+    }
+
+    /**
+     * 记录一个写出完成的Excel，并保存清单
+     *
+     * @param rowNum  Excel的数据行数
+     * @param byteNum Excel的字节数
+     */
+    void addExcel(long rowNum, long byteNum) throws IOException {
+        long fromRow = this.getRowCount();
+        this.partitionList.add(new long[]{fromRow, fromRow + rowNum, byteNum});
+        this.save();
+    }
+
+    /**
+     * 保存清单：先写出至临时文件再替换，保存中断时不会留下不完整的清单
+     */
+    private void save() throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("jobId", this.jobId);
+        properties.setProperty("fileName", this.fileName);
+        properties.setProperty("tableHeader", this.tableHeader);
+        properties.setProperty("excelCount", String.valueOf(this.partitionList.size()));
+        for (int i = 0; i < this.partitionList.size(); i++) {
+            long[] range = this.partitionList.get(i);
+            properties.setProperty("excel." + (i + 1), range[0] + "," + range[1] + "," + range[2]);
+        }
+
+        File manifestFile = new File(this.workDir, MANIFEST_FILE_NAME);
+        File tempFile = new File(this.workDir, MANIFEST_FILE_NAME + ".tmp");
+        try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(tempFile))) {
+            properties.store(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), null);
+        }
+        Files.move(tempFile.toPath(), manifestFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * 第几个Excel在工作目录中的文件，文件名与压缩包中的文件名相同：fileName(n).xlsx
+     *
+     * @param excelIndex 第几个Excel
+     * @return
+     */
+    File getExcelFile(int excelIndex) {
+        return new File(this.workDir, this.fileName + "(" + excelIndex + ").xlsx");
+    }
+
+    /**
+     * 已经写出的Excel数
+     */
+    int getExcelCount() {
+        return this.partitionList.size();
+    }
+
+    /**
+     * 已经写出的数据行数，续传时跳过这些行
+     */
+    long getRowCount() {
+        return this.partitionList.isEmpty() ? 0 : this.partitionList.get(this.partitionList.size() - 1)[1];
+    }
+
+    /**
+     * 删除清单和工作目录，所有Excel已经合并至最终的文件之后调用
+     */
+    void delete() {
+        File[] files = this.workDir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        this.workDir.delete();
+    }
+}
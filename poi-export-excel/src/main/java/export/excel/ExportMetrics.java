@@ -0,0 +1,139 @@
+package export.excel;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * @author deng-zj
+ * @date 2026-10-17
+ * @description 导出指标：数据行数、单元格数、样式数、写出字节数、Excel数、各阶段累计耗时
+ * 每个<class>ExportExcel</class>记录一个Excel的指标，<class>NomalExportExcel</class>汇总所有Excel的指标
+ * 并行导出时多个线程会同时汇总，所以方法都是同步的
+ * @since JDK1.8
+ */
+public class ExportMetrics {
+
+    private long rowCount = 0;
+    private long cellCount = 0;
+    private long cellStyleCount = 0;
+    private long byteCount = 0;
+    private int excelCount = 0;
+
+    /**
+     * 阶段 -> 累计耗时（纳秒）
+     */
+    private final Map<ExportPhase, Long> phaseNanos = new EnumMap<>(ExportPhase.class);
+
+    synchronized void addRowCount(long rowCount) {
+        this.rowCount += rowCount;
+    }
+
+    synchronized void addCellCount(long cellCount) {
+        this.cellCount += cellCount;
+    }
+
+    synchronized void addCellStyleCount(long cellStyleCount) {
+        this.cellStyleCount += cellStyleCount;
+    }
+
+    synchronized void addByteCount(long byteCount) {
+        this.byteCount += byteCount;
+    }
+
+    synchronized void addExcelCount(int excelCount) {
+        this.excelCount += excelCount;
+    }
+
+    synchronized void addPhaseNanos(ExportPhase phase, long nanos) {
+        this.phaseNanos.merge(phase, nanos, Long::sum);
+    }
+
+    /**
+     * 汇总另一个Excel的指标，不包含整个导出的耗时
+     *
+     * @param metrics
+     */
+    synchronized void add(ExportMetrics metrics) {
+        synchronized (metrics) {
+            this.rowCount += metrics.rowCount;
+            this.cellCount += metrics.cellCount;
+            this.cellStyleCount += metrics.cellStyleCount;
+            this.byteCount += metrics.byteCount;
+            this.excelCount += metrics.excelCount;
+            for (Map.Entry<ExportPhase, Long> entry : metrics.phaseNanos.entrySet()) {
+                if (entry.getKey() != ExportPhase.EXPORT) {
+                    this.phaseNanos.merge(entry.getKey(), entry.getValue(), Long::sum);
+                }
+            }
+        }
+    }
+
+    /**
+     * 数据行数（不包含表头）
+     */
+    public synchronized long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * 单元格数（包含表头）
+     */
+    public synchronized long getCellCount() {
+        return cellCount;
+    }
+
+    /**
+     * 创建的单元格样式数
+     */
+    public synchronized long getCellStyleCount() {
+        return cellStyleCount;
+    }
+
+    /**
+     * 写出的Excel字节数（压缩前）
+     */
+    public synchronized long getByteCount() {
+        return byteCount;
+    }
+
+    public synchronized int getExcelCount() {
+        return excelCount;
+    }
+
+    /**
+     * 阶段的累计耗时（纳秒），并行导出时是各线程耗时之和
+     *
+     * @param phase
+     * @return
+     */
+    public synchronized long getPhaseNanos(ExportPhase phase) {
+        return this.phaseNanos.getOrDefault(phase, 0L);
+    }
+
+    /**
+     * 每秒导出的数据行数，有整个导出的耗时时按整个导出计算，否则按绘制数据、写出的耗时计算
+     *
+     * @return
+     */
+    public synchronized double getRowsPerSecond() {
+        long nanos = this.getPhaseNanos(ExportPhase.EXPORT);
+        if (nanos == 0) {
+            nanos = this.getPhaseNanos(ExportPhase.CREATE_WORKBOOK) + this.getPhaseNanos(ExportPhase.DRAW_HEADER) + this.getPhaseNanos(ExportPhase.MERGE)
+                    + this.getPhaseNanos(ExportPhase.DRAW_DATA) + this.getPhaseNanos(ExportPhase.WRITE);
+        }
+        return nanos == 0 ? 0 : this.rowCount * 1e9 / nanos;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ExportMetrics{" +
+                "rowCount=" + rowCount +
+                ", cellCount=" + cellCount +
+                ", cellStyleCount=" + cellStyleCount +
+                ", byteCount=" + byteCount +
+                ", excelCount=" + excelCount +
+                ", phaseNanos=" + phaseNanos +
+                ", rowsPerSecond=" + getRowsPerSecond() +
+                '}';
+    }
+}
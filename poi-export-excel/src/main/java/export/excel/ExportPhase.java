@@ -0,0 +1,46 @@
+package export.excel;
+
+/**
+ * @author deng-zj
+ * @date 2026-10-17
+ * @description 导出阶段，见<class>ExportListener</class>
+ * 边框在创建单元格时一起设置，不再是单独的阶段
+ * @since JDK1.8
+ */
+public enum ExportPhase {
+
+    /**
+     * 创建工作簿、Sheet
+     */
+    CREATE_WORKBOOK,
+
+    /**
+     * 绘制表头
+     */
+    DRAW_HEADER,
+
+    /**
+     * 合并多级表头
+     */
+    MERGE,
+
+    /**
+     * 绘制表格数据
+     */
+    DRAW_DATA,
+
+    /**
+     * 生成并写出Excel
+     */
+    WRITE,
+
+    /**
+     * 将Excel写入压缩包（包含写出Excel）
+     */
+    ZIP,
+
+    /**
+     * 整个导出过程，只有<class>NomalExportExcel</class>会报告
+     */
+    EXPORT
+}
@@ -0,0 +1,139 @@
+package export.excel;
+
+import java.util.Iterator;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author deng-zj
+ * @date 2026-10-17
+ * @description 导出进度：已绘制的数据行数、总行数、正在绘制的Excel和Sheet，以及取消标记
+ * 导出线程在拉取每一行数据之前检查取消标记，取消后抛出<class>CancellationException</class>结束导出，
+ * 导出至本地文件时会删除不完整的文件
+ * @since JDK1.8
+ */
+public class ExportProgress {
+
+    private final long totalRowCount;
+    private final AtomicLong rowCount = new AtomicLong();
+    private volatile int excelIndex = 0;
+    private volatile int sheetIndex = 0;
+    private volatile boolean cancelled = false;
+
+    /**
+     * @param totalRowCount 总行数，数据源是迭代器时未知，为-1
+     */
+    ExportProgress(long totalRowCount) {
+        this.totalRowCount = totalRowCount;
+    }
+
+    /**
+     * 包装数据迭代器：拉取数据之前检查是否已取消，每拉取一行数据进度加一
+     *
+     * @param tableDataIterator 表格数据
+     * @param <T>
+     * @return
+     */
+    <T> Iterator<T> track(Iterator<T> tableDataIterator) {
+        return new Iterator<T>() {
+            @Override
+            public boolean hasNext() {
+                ExportProgress.this.checkCancelled();
+                return tableDataIterator.hasNext();
+            }
+
+            @Override
+            public T next() {
+                ExportProgress.this.checkCancelled();
+                T rowData = tableDataIterator.next();
+                ExportProgress.this.rowCount.incrementAndGet();
+                return rowData;
+            }
+        };
+    }
+
+    /**
+     * 续传导出时，已经写出的行直接计入进度
+     *
+     * @param rowNum 跳过的行数
+     */
+    void skip(long rowNum) {
+        this.rowCount.addAndGet(rowNum);
+    }
+
+    /**
+     * 已取消时抛出<class>CancellationException</class>
+     */
+    void checkCancelled() {
+        if (this.cancelled) {
+            throw new CancellationException("导出已取消");
+        }
+    }
+
+    void setSheet(int excelIndex, int sheetIndex) {
+        this.excelIndex = excelIndex;
+        this.sheetIndex = sheetIndex;
+    }
+
+    /**
+     * 取消导出，导出线程在拉取下一行数据时结束
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * 已绘制的数据行数
+     */
+    public long getRowCount() {
+        return rowCount.get();
+    }
+
+    /**
+     * 总行数，数据源是迭代器时未知，为-1
+     */
+    public long getTotalRowCount() {
+        return totalRowCount;
+    }
+
+    /**
+     * 正在绘制第几个Excel，并行导出时是最近开始绘制的Excel
+     */
+    public int getExcelIndex() {
+        return excelIndex;
+    }
+
+    /**
+     * 正在绘制Excel的第几个Sheet
+     */
+    public int getSheetIndex() {
+        return sheetIndex;
+    }
+
+    /**
+     * 完成百分比（0~100），总行数未知时为-1
+     *
+     * @return
+     */
+    public double getPercent() {
+        if (this.totalRowCount < 0) {
+            return -1;
+        }
+        return this.totalRowCount == 0 ? 100 : this.getRowCount() * 100.0 / this.totalRowCount;
+    }
+
+    @Override
+    public String toString() {
+        return "ExportProgress{" +
+                "rowCount=" + getRowCount() +
+                ", totalRowCount=" + totalRowCount +
+                ", excelIndex=" + excelIndex +
+                ", sheetIndex=" + sheetIndex +
+                ", cancelled=" + cancelled +
+                '}';
+    }
+}
@@ -0,0 +1,323 @@
+package export.excel;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author deng-zj
+ * @date 2026-10-17
+ * @description 导出调度器，用于多个租户共享的导出服务：导出任务先排队，按并发数和单元格数准入，避免同时导出过多数据导致内存溢出
+ * 调度规则：
+ * 1、同时导出的任务数不超过maxConcurrency，正在导出的单元格总数不超过maxCellsInFlight
+ * 2、优先级高的任务先导出；优先级相同时，正在导出任务少的租户优先，再按最久没有被调度的租户优先（公平分配）；同一租户按提交顺序
+ * 3、排在最前面的任务不满足准入条件时等待，不会被后面较小的任务插队，避免大任务一直等待
+ * 4、单元格数无法估算（迭代器数据源且没有估算行数）或者超过maxCellsInFlight的任务，只能在没有其他任务导出时单独导出
+ *
+ * 例如：
+ * ExportScheduler exportScheduler = new ExportScheduler(4, 20_000_000L);
+ * ExportFuture exportFuture = exportScheduler.submit("tenantA", 0, new NomalExportExcel<>(tableHeaderList, tableData), fileDir, fileName);
+ * @since JDK1.8
+ */
+public class ExportScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportScheduler.class);
+
+    private final int maxConcurrency;
+    private final long maxCellsInFlight;
+    private final ExecutorService executorService;
+
+    /**
+     * 租户 -> 排队中的任务
+     */
+    private final Map<String, PriorityQueue<ExportJob>> tenantQueueMap = new HashMap<>();
+
+    /**
+     * 租户 -> 正在导出的任务数
+     */
+    private final Map<String, Integer> tenantRunningMap = new HashMap<>();
+
+    /**
+     * 租户 -> 最近一次被调度的序号
+     */
+    private final Map<String, Long> tenantDispatchMap = new HashMap<>();
+
+    private int queuedJobCount = 0;
+    private int runningJobCount = 0;
+    private long cellsInFlight = 0;
+    private long jobSequence = 0;
+    private long dispatchSequence = 0;
+    private boolean shutdown = false;
+
+    /**
+     * @param maxConcurrency   同时导出的任务数
+     * @param maxCellsInFlight 正在导出的单元格总数上限（包含表头）
+     */
+    public ExportScheduler(int maxConcurrency, long maxCellsInFlight) {
+        if (maxConcurrency < 1 || maxCellsInFlight < 1) {
+            throw new IllegalArgumentException("maxConcurrency、maxCellsInFlight必须大于0");
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.maxCellsInFlight = maxCellsInFlight;
+        this.executorService = Executors.newFixedThreadPool(maxConcurrency);
+    }
+
+    /**
+     * 提交导出至本地文件的任务，单元格数按List数据源的行数估算
+     *
+     * @param tenant           租户
+     * @param priority         优先级，越大越先导出
+     * @param nomalExportExcel 导出
+     * @param fileDir
+     * @param fileName
+     * @return 导出结果，排队中取消时不会再导出
+     */
+    public ExportFuture submit(String tenant, int priority, NomalExportExcel<?> nomalExportExcel, String fileDir, String fileName) {
+        return this.submit(tenant, priority, -1, nomalExportExcel, fileDir, fileName);
+    }
+
+    /**
+     * 提交导出至本地文件的任务
+     *
+     * @param tenant            租户
+     * @param priority          优先级，越大越先导出
+     * @param estimatedRowCount 估算的数据行数，小于0时按List数据源的行数估算
+     * @param nomalExportExcel  导出
+     * @param fileDir
+     * @param fileName
+     * @return 导出结果，排队中取消时不会再导出
+     */
+    public ExportFuture submit(String tenant, int priority, long estimatedRowCount, NomalExportExcel<?> nomalExportExcel, String fileDir, String fileName) {
+        ExportJob exportJob = new ExportJob(tenant, priority, this.getAdmissionCells(nomalExportExcel.estimateCellCount(estimatedRowCount)));
+        exportJob.exportFuture = nomalExportExcel.exportAsync(fileDir, fileName, runnable -> this.enqueue(exportJob, runnable));
+        exportJob.exportFuture.whenCancelled(this::dispatch);
+        return exportJob.exportFuture;
+    }
+
+    /**
+     * 提交导出至导出目标的任务
+     *
+     * @param tenant            租户
+     * @param priority          优先级，越大越先导出
+     * @param estimatedRowCount 估算的数据行数，小于0时按List数据源的行数估算
+     * @param nomalExportExcel  导出
+     * @param outputProvider    导出目标
+     * @param fileName
+     * @return 导出结果，排队中取消时不会再导出
+     */
+    public ExportFuture submit(String tenant, int priority, long estimatedRowCount, NomalExportExcel<?> nomalExportExcel, ExcelOutputProvider outputProvider, String fileName) {
+        ExportJob exportJob = new ExportJob(tenant, priority, this.getAdmissionCells(nomalExportExcel.estimateCellCount(estimatedRowCount)));
+        exportJob.exportFuture = nomalExportExcel.exportAsync(outputProvider, fileName, runnable -> this.enqueue(exportJob, runnable));
+        exportJob.exportFuture.whenCancelled(this::dispatch);
+        return exportJob.exportFuture;
+    }
+
+    /**
+     * 不再接收新任务，排队中的任务会继续导出，排队中已取消的任务直接移出队列
+     */
+    public synchronized void shutdown() {
+        this.shutdown = true;
+        this.dispatch();
+    }
+
+    /**
+     * 等待所有任务导出完成
+     *
+     * @param timeout
+     * @param unit
+     * @return 超时返回false
+     * @throws InterruptedException
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return this.executorService.awaitTermination(timeout, unit);
+    }
+
+    public synchronized int getQueuedJobCount() {
+        return queuedJobCount;
+    }
+
+    public synchronized int getRunningJobCount() {
+        return runningJobCount;
+    }
+
+    public synchronized long getCellsInFlight() {
+        return cellsInFlight;
+    }
+
+    /**
+     * 准入使用的单元格数，无法估算或者超过上限时按上限计算，只能单独导出
+     */
+    private long getAdmissionCells(long estimatedCellCount) {
+        return estimatedCellCount < 0 ? this.maxCellsInFlight : Math.min(estimatedCellCount, this.maxCellsInFlight);
+    }
+
+    /**
+     * 任务排队
+     */
+    private synchronized void enqueue(ExportJob exportJob, Runnable runnable) {
+        if (this.shutdown) {
+            throw new RejectedExecutionException("导出调度器已关闭");
+        }
+        exportJob.runnable = runnable;
+        exportJob.sequence = this.jobSequence++;
+        this.tenantQueueMap.computeIfAbsent(exportJob.tenant, tenant -> new PriorityQueue<>(ExportJob.QUEUE_ORDER)).add(exportJob);
+        this.queuedJobCount++;
+        this.dispatch();
+    }
+
+    /**
+     * 按调度规则开始导出排在最前面的任务，直到不满足准入条件
+     */
+    private synchronized void dispatch() {
+        this.removeCancelledJobs();
+        while (this.runningJobCount < this.maxConcurrency) {
+            ExportJob exportJob = this.peekNextJob();
+            if (exportJob == null) {
+                break;
+            }
+
+            boolean cancelled = exportJob.exportFuture != null && exportJob.exportFuture.isCancelled();
+            if (!cancelled && this.runningJobCount > 0 && this.cellsInFlight + exportJob.cells > this.maxCellsInFlight) {
+                break;
+            }
+
+            PriorityQueue<ExportJob> tenantQueue = this.tenantQueueMap.get(exportJob.tenant);
+            tenantQueue.poll();
+            if (tenantQueue.isEmpty()) {
+                this.tenantQueueMap.remove(exportJob.tenant);
+            }
+            this.queuedJobCount--;
+            if (cancelled) {
+                this.removeIdleTenant(exportJob.tenant);
+                continue;
+            }
+
+            this.runningJobCount++;
+            this.cellsInFlight += exportJob.cells;
+            this.tenantRunningMap.merge(exportJob.tenant, 1, Integer::sum);
+            this.tenantDispatchMap.put(exportJob.tenant, this.dispatchSequence++);
+            logger.info("==================================开始导出任务（租户：" + exportJob.tenant + "，优先级：" + exportJob.priority + "，单元格数：" + exportJob.cells + "）");
+            this.executorService.execute(() -> {
+                try {
+                    exportJob.runnable.run();
+                } finally {
+                    this.finish(exportJob);
+                }
+            });
+        }
+
+        if (this.shutdown && this.queuedJobCount == 0) {
+            this.executorService.shutdown();
+        }
+    }
+
+    /**
+     * 任务导出完成，释放占用的并发数、单元格数，继续调度
+     */
+    private synchronized void finish(ExportJob exportJob) {
+        this.runningJobCount--;
+        this.cellsInFlight -= exportJob.cells;
+        this.tenantRunningMap.computeIfPresent(exportJob.tenant, (tenant, running) -> running > 1 ? running - 1 : null);
+        this.removeIdleTenant(exportJob.tenant);
+        this.dispatch();
+    }
+
+    /**
+     * 将排队中已取消的任务移出队列，不必等到排在最前面
+     */
+    private void removeCancelledJobs() {
+        Iterator<Map.Entry<String, PriorityQueue<ExportJob>>> iterator = this.tenantQueueMap.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, PriorityQueue<ExportJob>> entry = iterator.next();
+            PriorityQueue<ExportJob> tenantQueue = entry.getValue();
+            int queuedNum = tenantQueue.size();
+            tenantQueue.removeIf(exportJob -> exportJob.exportFuture != null && exportJob.exportFuture.isCancelled());
+            this.queuedJobCount -= queuedNum - tenantQueue.size();
+            if (tenantQueue.isEmpty()) {
+                iterator.remove();
+                this.removeIdleTenant(entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * 租户没有排队中、正在导出的任务时移除租户的调度记录，避免租户越来越多时一直占用内存
+     */
+    private void removeIdleTenant(String tenant) {
+        if (!this.tenantQueueMap.containsKey(tenant) && !this.tenantRunningMap.containsKey(tenant)) {
+            this.tenantDispatchMap.remove(tenant);
+        }
+    }
+
+    /**
+     * 所有租户排在最前面的任务中，按调度规则选出下一个任务
+     */
+    private ExportJob peekNextJob() {
+        ExportJob nextJob = null;
+        Iterator<PriorityQueue<ExportJob>> iterator = this.tenantQueueMap.values().iterator();
+        while (iterator.hasNext()) {
+            PriorityQueue<ExportJob> tenantQueue = iterator.next();
+            ExportJob exportJob = tenantQueue.peek();
+            if (exportJob == null) {
+                iterator.remove();
+            } else if (nextJob == null || this.compareTenantJob(exportJob, nextJob) < 0) {
+                nextJob = exportJob;
+            }
+        }
+        return nextJob;
+    }
+
+    /**
+     * 优先级高的在前；优先级相同时正在导出任务少的租户在前，再按最久没有被调度的租户在前，最后按提交顺序
+     */
+    private int compareTenantJob(ExportJob job1, ExportJob job2) {
+        if (job1.priority != job2.priority) {
+            return Integer.compare(job2.priority, job1.priority);
+        }
+        int running1 = this.tenantRunningMap.getOrDefault(job1.tenant, 0);
+        int running2 = this.tenantRunningMap.getOrDefault(job2.tenant, 0);
+        if (running1 != running2) {
+            return Integer.compare(running1, running2);
+        }
+        long dispatch1 = this.tenantDispatchMap.getOrDefault(job1.tenant, -1L);
+        long dispatch2 = this.tenantDispatchMap.getOrDefault(job2.tenant, -1L);
+        if (dispatch1 != dispatch2) {
+            return Long.compare(dispatch1, dispatch2);
+        }
+        return Long.compare(job1.sequence, job2.sequence);
+    }
+
+    /**
+     * 排队中的导出任务
+     */
+    private static class ExportJob {
+
+        /**
+         * 同一租户内：优先级高的在前，优先级相同按提交顺序
+         */
+        private static final Comparator<ExportJob> QUEUE_ORDER = Comparator.<ExportJob>comparingInt(exportJob -> -exportJob.priority)
+                .thenComparingLong(exportJob -> exportJob.sequence);
+
+        private final String tenant;
+        private final int priority;
+        private final long cells;
+        private long sequence;
+        private Runnable runnable;
+        private volatile ExportFuture exportFuture;
+
+        private ExportJob(String tenant, int priority, long cells) {
+            this.tenant = tenant;
+            this.priority = priority;
+            this.cells = cells;
+        }
+    }
+}
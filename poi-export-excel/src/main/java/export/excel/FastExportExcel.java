@@ -0,0 +1,563 @@
+package export.excel;
+
+import export.entity.TableHeader;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.ss.util.WorkbookUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * @param <T>
+ * @author deng-zj
+ * @date 2026-10-17
+ * @description 快速导出Excel：不经过POI的对象模型，直接将工作表XML、样式写入xlsx压缩包，适用于只需要简单样式的大批量数据导出
+ * 与<class>ExportExcel</class>使用相同的表头结构<class>TableHeader</class>和多级表头合并规则，数据按<field>TableHeader.valueType</field>写入
+ * 数字、日期、布尔、字符串单元格，<field>TableHeader.format</field>作为数据格式
+ * 样式固定：表头加粗居中、所有单元格细边框，不支持背景色、条件样式规则，内容$bg颜色 中的颜色会被忽略
+ * 字符串以内联字符串写入，不需要在内存中保留共享字符串表；超过Excel最大行数时自动分Sheet
+ * 绘制表格失败时Excel不完整，<method>close</method>不再写出工作簿等其余部分，直接抛出异常
+ *
+ * 例如：
+ * try (FastExportExcel<Order> fastExportExcel = new FastExportExcel<>(outputStream)) {
+ *     fastExportExcel.drawTable("订单", tableHeaderList, orderIterator);
+ * }
+ * 注：输出流由调用方负责关闭
+ * @since JDK1.8
+ */
+public class FastExportExcel<T> implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(FastExportExcel.class);
+
+    private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+    private static final String MAIN_NAMESPACE = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+    private static final String RELATIONSHIP_NAMESPACE = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+    /**
+     * 样式下标：0 默认，1 表头（加粗、居中、边框）
+     */
+    private static final int HEADER_STYLE_INDEX = 1;
+
+    /**
+     * 自定义数据格式的下标从164开始
+     */
+    private static final int CUSTOM_NUMBER_FORMAT_ID = 164;
+
+    /**
+     * 默认的日期格式
+     */
+    private static final String DEFULT_DATE_FORMAT = "yyyy-mm-dd";
+
+    /**
+     * 样式下标的字符串，避免每个单元格都转换
+     */
+    private static final String[] CELL_STYLE_INDEXES = new String[256];
+
+    static {
+        for (int i = 0; i < CELL_STYLE_INDEXES.length; i++) {
+            CELL_STYLE_INDEXES[i] = Integer.toString(i);
+        }
+    }
+
+    private final ZipOutputStream zipOutputStream;
+    private final Writer writer;
+
+    private final List<String> sheetNameList = new ArrayList<>();
+
+    /**
+     * 已使用的Sheet名称（小写），Excel中的Sheet名称不区分大小写
+     */
+    private final Set<String> sheetNameSet = new HashSet<>();
+
+    /**
+     * 数据格式 -> 样式下标，数据样式只区分数据格式，""表示常规格式
+     */
+    private final Map<String, Integer> cellStyleIndexMap = new HashMap<>();
+    private final List<String> numberFormatList = new ArrayList<>();
+
+    /**
+     * Sheet最多的行数（包含表头）
+     */
+    private int sheetMaxRows = PartitionPolicy.EXCEL_MAX_ROWS;
+
+    private long dataRowCount = 0;
+    private boolean closed = false;
+
+    /**
+     * 绘制表格失败，工作表已经写出了一部分
+     */
+    private boolean failed = false;
+
+    /**
+     * @param outputStream 输出流，由调用方负责关闭
+     */
+    public FastExportExcel(OutputStream outputStream) {
+        this.zipOutputStream = new ZipOutputStream(outputStream, StandardCharsets.UTF_8);
+        this.zipOutputStream.setLevel(Deflater.BEST_SPEED);
+        this.writer = new BufferedWriter(new OutputStreamWriter(this.zipOutputStream, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    /**
+     * 将表格绘制到新的Sheet中，数据超过一个Sheet时自动分Sheet：sheetName、sheetName(2)、sheetName(3)...
+     *
+     * @param sheetName       Sheet名称
+     * @param tableHeaderList 表头数据
+     * @param tableData       表格数据
+     * @throws IOException
+     */
+    public void drawTable(String sheetName, List<TableHeader> tableHeaderList, List<T> tableData) throws IOException {
+        this.drawTable(sheetName, tableHeaderList, tableData.iterator());
+    }
+
+    /**
+     * 从迭代器中拉取表格数据绘制到新的Sheet中，数据边拉取边写出，不需要全部加载至内存
+     * 数据超过一个Sheet时自动分Sheet：sheetName、sheetName(2)、sheetName(3)...
+     *
+     * @param sheetName       Sheet名称
+     * @param tableHeaderList 表头数据
+     * @param tableData       表格数据
+     * @throws IOException
+     * @throws IllegalArgumentException Sheet名称不合法（为空、超过31个字符、包含[]:*?/\\）或者与已有的Sheet重名
+     */
+    public void drawTable(String sheetName, List<TableHeader> tableHeaderList, Iterator<T> tableData) throws IOException {
+        if (this.closed || this.failed) {
+            throw new IllegalStateException("Excel已经关闭或者绘制失败，不能继续绘制表格");
+        }
+        this.checkSheetName(sheetName);
+        logger.info("==================================开始快速导出表格(" + sheetName + ")");
+        Long startTime = System.currentTimeMillis();
+
+        TableHeaderLayout tableHeaderLayout = TableHeaderLayout.of(tableHeaderList);
+        List<TableHeader> tableHeaderColumnList = tableHeaderLayout.getColumnList();
+
+        /**
+         * 每一列的取值链、数据类型、样式只计算一次
+         */
+        int colNum = tableHeaderColumnList.size();
+        FieldAccessor[] fieldAccessors = new FieldAccessor[colNum];
+        String[] columnValueTypes = new String[colNum];
+        int[] columnCellStyleIndexes = new int[colNum];
+        int[] columnDateCellStyleIndexes = new int[colNum];
+        String[] columnNames = new String[colNum];
+        for (int j = 0; j < colNum; j++) {
+            TableHeader tableHeader = tableHeaderColumnList.get(j);
+            fieldAccessors[j] = tableHeader.getExtractor() != null ? FieldAccessor.of(tableHeader.getExtractor()) : FieldAccessor.compile(tableHeader.getField());
+            columnValueTypes[j] = tableHeader.getValueType() == null ? CellValueWriter.STRING : tableHeader.getValueType().toLowerCase();
+            boolean hasFormat = tableHeader.getFormat() != null && !"".equals(tableHeader.getFormat());
+            columnCellStyleIndexes[j] = this.getCellStyleIndex(hasFormat ? tableHeader.getFormat() : "");
+            columnDateCellStyleIndexes[j] = hasFormat ? columnCellStyleIndexes[j] : this.getCellStyleIndex(DEFULT_DATE_FORMAT);
+            columnNames[j] = CellReference.convertNumToColString(j);
+        }
+
+        int sheetDataMaxRows = Math.max(1, this.sheetMaxRows - tableHeaderLayout.getRowNum());
+        int sheetCount = 0;
+        try {
+            do {
+                sheetCount++;
+                String name = sheetCount == 1 ? sheetName : this.getSplitSheetName(sheetName, sheetCount);
+                this.checkSheetName(name);
+                this.sheetNameSet.add(name.toLowerCase(Locale.ROOT));
+                this.sheetNameList.add(name);
+                this.zipOutputStream.putNextEntry(new ZipEntry("xl/worksheets/sheet" + this.sheetNameList.size() + ".xml"));
+                this.writeSheetStart(tableHeaderLayout);
+                this.writeTableHeader(tableHeaderLayout, columnNames);
+
+                int rowIndex = tableHeaderLayout.getRowNum();
+                for (int i = 0; i < sheetDataMaxRows && tableData.hasNext(); i++) {
+                    T rowData = tableData.next();
+                    rowIndex++;
+                    String rowNumber = Integer.toString(rowIndex);
+                    this.writer.write("<row r=\"");
+                    this.writer.write(rowNumber);
+                    this.writer.write("\">");
+                    for (int j = 0; j < colNum; j++) {
+                        this.writeCell(columnNames[j], rowNumber, fieldAccessors[j].getValue(rowData, j), columnValueTypes[j],
+                                columnCellStyleIndexes[j], columnDateCellStyleIndexes[j]);
+                    }
+                    this.writer.write("</row>");
+                    this.dataRowCount++;
+                }
+
+                this.writer.write("</sheetData>");
+                this.writeMergeCells(tableHeaderLayout);
+                this.writer.write("</worksheet>");
+                this.writer.flush();
+                this.zipOutputStream.closeEntry();
+            } while (tableData.hasNext());
+        } catch (IOException | RuntimeException e) {
+            this.failed = true;
+            throw e;
+        }
+
+        logger.info("==================================表格(" + sheetName + ")快速导出完成，共" + sheetCount + "个Sheet。耗时" + (System.currentTimeMillis() - startTime) + "ms");
+    }
+
+    /**
+     * 写出工作簿、样式等其余部分，完成xlsx压缩包。不会关闭输出流
+     * 绘制表格失败时不写出其余部分，抛出<class>IOException</class>，输出流中的内容不是完整的Excel
+     * 没有绘制任何表格时抛出<class>IllegalStateException</class>：xlsx至少要有一个Sheet，否则Excel无法打开
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        if (this.failed) {
+            throw new IOException("表格绘制失败，Excel不完整");
+        }
+        if (this.sheetNameList.isEmpty()) {
+            throw new IllegalStateException("没有绘制任何表格，Excel至少需要一个Sheet");
+        }
+
+        this.writeEntry("[Content_Types].xml", this.contentTypesXml());
+        this.writeEntry("_rels/.rels", XML_HEADER
+                + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+                + "<Relationship Id=\"rId1\" Type=\"" + RELATIONSHIP_NAMESPACE + "/officeDocument\" Target=\"xl/workbook.xml\"/>"
+                + "</Relationships>");
+        this.writeEntry("xl/workbook.xml", this.workbookXml());
+        this.writeEntry("xl/_rels/workbook.xml.rels", this.workbookRelsXml());
+        this.writeEntry("xl/styles.xml", this.stylesXml());
+        this.zipOutputStream.finish();
+        this.zipOutputStream.flush();
+    }
+
+    /**
+     * 设置压缩级别（0～9），级别越高文件越小、写出越慢 [defult = 1，压缩最快]
+     *
+     * @param compressionLevel
+     */
+    public void setCompressionLevel(int compressionLevel) {
+        this.zipOutputStream.setLevel(compressionLevel);
+    }
+
+    /**
+     * 设置Sheet最多的行数（包含表头），超过时自动分Sheet [defult = Excel最大行数]
+     *
+     * @param sheetMaxRows
+     */
+    public void setSheetMaxRows(int sheetMaxRows) {
+        this.sheetMaxRows = Math.min(sheetMaxRows, PartitionPolicy.EXCEL_MAX_ROWS);
+    }
+
+    public int getSheetMaxRows() {
+        return sheetMaxRows;
+    }
+
+    /**
+     * 已写出的数据总行数
+     *
+     * @return
+     */
+    public long getDataRowCount() {
+        return dataRowCount;
+    }
+
+    /**
+     * 校验Sheet名称：按Excel的规则校验字符和长度，不区分大小写不能与已有的Sheet重名
+     */
+    private void checkSheetName(String sheetName) {
+        WorkbookUtil.validateSheetName(sheetName);
+        if (this.sheetNameSet.contains(sheetName.toLowerCase(Locale.ROOT))) {
+            throw new IllegalArgumentException("Sheet名称(" + sheetName + ")与已有的Sheet重名");
+        }
+    }
+
+    /**
+     * 自动分Sheet的名称：sheetName(n)，超过31个字符时截短sheetName
+     */
+    private String getSplitSheetName(String sheetName, int sheetCount) {
+        String suffix = "(" + sheetCount + ")";
+        return sheetName.substring(0, Math.min(sheetName.length(), 31 - suffix.length())) + suffix;
+    }
+
+    /**
+     * 写出工作表开头：列宽、默认行高，之后是表格数据
+     */
+    private void writeSheetStart(TableHeaderLayout tableHeaderLayout) throws IOException {
+        this.writer.write(XML_HEADER);
+        this.writer.write("<worksheet xmlns=\"" + MAIN_NAMESPACE + "\" xmlns:r=\"" + RELATIONSHIP_NAMESPACE + "\">");
+        this.writer.write("<sheetFormatPr defaultRowHeight=\"25.5\" customHeight=\"1\"/>");
+
+        List<TableHeader> tableHeaderColumnList = tableHeaderLayout.getColumnList();
+        if (!tableHeaderColumnList.isEmpty()) {
+            this.writer.write("<cols>");
+            for (int j = 0; j < tableHeaderColumnList.size(); j++) {
+                double width = tableHeaderColumnList.get(j).getWidth() * 255 / 256.0;
+                this.writer.write("<col min=\"" + (j + 1) + "\" max=\"" + (j + 1) + "\" width=\"" + width + "\" customWidth=\"1\"/>");
+            }
+            this.writer.write("</cols>");
+        }
+        this.writer.write("<sheetData>");
+    }
+
+    /**
+     * 写出表头：按表头布局填充每一行，合并区域内被覆盖的单元格只写出边框
+     */
+    private void writeTableHeader(TableHeaderLayout tableHeaderLayout, String[] columnNames) throws IOException {
+        String[][] headerTexts = new String[tableHeaderLayout.getRowNum()][tableHeaderLayout.getColNum()];
+        for (TableHeaderLayout.HeaderCell headerCell : tableHeaderLayout.getHeaderCellList()) {
+            if (headerCell.getColSpan() == 0) {
+                continue;
+            }
+            for (int i = 0; i < headerCell.getRowSpan(); i++) {
+                for (int j = 0; j < headerCell.getColSpan(); j++) {
+                    headerTexts[headerCell.getRowIndex() + i][headerCell.getColIndex() + j] = "";
+                }
+            }
+            String headerText = headerCell.getTableHeader().getHeaderText();
+            headerTexts[headerCell.getRowIndex()][headerCell.getColIndex()] = headerText == null ? "" : headerText;
+        }
+
+        for (int i = 0; i < headerTexts.length; i++) {
+            this.writer.write("<row r=\"" + (i + 1) + "\">");
+            for (int j = 0; j < headerTexts[i].length; j++) {
+                if (headerTexts[i][j] == null) {
+                    continue;
+                }
+                if (headerTexts[i][j].isEmpty()) {
+                    this.writeCellStart(columnNames[j], Integer.toString(i + 1), HEADER_STYLE_INDEX);
+                    this.writer.write("\"/>");
+                } else {
+                    this.writeStringCell(columnNames[j], Integer.toString(i + 1), headerTexts[i][j], HEADER_STYLE_INDEX);
+                }
+            }
+            this.writer.write("</row>");
+        }
+    }
+
+    /**
+     * 写出多级表头的合并区域
+     */
+    private void writeMergeCells(TableHeaderLayout tableHeaderLayout) throws IOException {
+        List<String> mergeCellList = new ArrayList<>();
+        for (TableHeaderLayout.HeaderCell headerCell : tableHeaderLayout.getHeaderCellList()) {
+            if (headerCell.getColSpan() != 0 && headerCell.isMerged()) {
+                mergeCellList.add(CellReference.convertNumToColString(headerCell.getColIndex()) + (headerCell.getRowIndex() + 1) + ":"
+                        + CellReference.convertNumToColString(headerCell.getColIndex() + headerCell.getColSpan() - 1) + (headerCell.getRowIndex() + headerCell.getRowSpan()));
+            }
+        }
+        if (mergeCellList.isEmpty()) {
+            return;
+        }
+
+        this.writer.write("<mergeCells count=\"" + mergeCellList.size() + "\">");
+        for (String mergeCell : mergeCellList) {
+            this.writer.write("<mergeCell ref=\"" + mergeCell + "\"/>");
+        }
+        this.writer.write("</mergeCells>");
+    }
+
+    /**
+     * 按数据类型写出单元格，为null时只写出边框
+     */
+    private void writeCell(String columnName, String rowNumber, Object value, String valueType, int cellStyleIndex, int dateCellStyleIndex) throws IOException {
+        if (value == null) {
+            this.writeCellStart(columnName, rowNumber, cellStyleIndex);
+            this.writer.write("\"/>");
+            return;
+        }
+
+        /**
+         * 兼容 内容$bg颜色 形式的数据，只保留内容
+         */
+        if (CellValueWriter.STRING.equals(valueType) || value instanceof CharSequence) {
+            String content = value.toString();
+            int colorIndex = content.indexOf(ExportExcel.CUSTOM_BACKGROUND_SEPARATOR);
+            value = colorIndex == -1 ? content : content.substring(0, colorIndex);
+        }
+
+        Object cellValue = CellValueWriter.convert(value, valueType);
+        if (cellValue instanceof Double && !((Double) cellValue).isNaN() && !((Double) cellValue).isInfinite()) {
+            this.writeValueCell(columnName, rowNumber, null, Double.toString((Double) cellValue), cellStyleIndex);
+        } else if (cellValue instanceof Boolean) {
+            this.writeValueCell(columnName, rowNumber, "b", (Boolean) cellValue ? "1" : "0", cellStyleIndex);
+        } else if (cellValue instanceof Date) {
+            this.writeValueCell(columnName, rowNumber, null, Double.toString(DateUtil.getExcelDate((Date) cellValue)), dateCellStyleIndex);
+        } else if (cellValue instanceof LocalDateTime) {
+            this.writeValueCell(columnName, rowNumber, null, Double.toString(DateUtil.getExcelDate((LocalDateTime) cellValue)), dateCellStyleIndex);
+        } else if (cellValue instanceof LocalDate) {
+            this.writeValueCell(columnName, rowNumber, null, Double.toString(DateUtil.getExcelDate((LocalDate) cellValue)), dateCellStyleIndex);
+        } else if (cellValue instanceof Calendar) {
+            this.writeValueCell(columnName, rowNumber, null, Double.toString(DateUtil.getExcelDate((Calendar) cellValue, false)), dateCellStyleIndex);
+        } else {
+            this.writeStringCell(columnName, rowNumber, cellValue.toString(), cellStyleIndex);
+        }
+    }
+
+    private void writeValueCell(String columnName, String rowNumber, String type, String value, int cellStyleIndex) throws IOException {
+        this.writeCellStart(columnName, rowNumber, cellStyleIndex);
+        if (type != null) {
+            this.writer.write("\" t=\"");
+            this.writer.write(type);
+        }
+        this.writer.write("\"><v>");
+        this.writer.write(value);
+        this.writer.write("</v></c>");
+    }
+
+    private void writeStringCell(String columnName, String rowNumber, String value, int cellStyleIndex) throws IOException {
+        this.writeCellStart(columnName, rowNumber, cellStyleIndex);
+        this.writer.write("\" t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+        this.writeEscaped(value);
+        this.writer.write("</t></is></c>");
+    }
+
+    /**
+     * 写出单元格开头：<c r="A1" s="1，单元格坐标不拼接字符串
+     */
+    private void writeCellStart(String columnName, String rowNumber, int cellStyleIndex) throws IOException {
+        this.writer.write("<c r=\"");
+        this.writer.write(columnName);
+        this.writer.write(rowNumber);
+        this.writer.write("\" s=\"");
+        this.writer.write(cellStyleIndex < CELL_STYLE_INDEXES.length ? CELL_STYLE_INDEXES[cellStyleIndex] : Integer.toString(cellStyleIndex));
+    }
+
+    /**
+     * 转义XML特殊字符，去掉XML中不允许的控制字符
+     */
+    private void writeEscaped(String value) throws IOException {
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String replacement;
+            if (c == '<') {
+                replacement = "&lt;";
+            } else if (c == '>') {
+                replacement = "&gt;";
+            } else if (c == '&') {
+                replacement = "&amp;";
+            } else if (c == '"') {
+                replacement = "&quot;";
+            } else if (c < 0x20 && c != '\t' && c != '\n' && c != '\r') {
+                replacement = "";
+            } else {
+                continue;
+            }
+            this.writer.write(value, start, i - start);
+            this.writer.write(replacement);
+            start = i + 1;
+        }
+        this.writer.write(value, start, value.length() - start);
+    }
+
+    /**
+     * 获取数据格式对应的数据样式下标，数据样式从2开始
+     */
+    private int getCellStyleIndex(String format) {
+        Integer cellStyleIndex = this.cellStyleIndexMap.get(format);
+        if (cellStyleIndex == null) {
+            cellStyleIndex = HEADER_STYLE_INDEX + 1 + this.cellStyleIndexMap.size();
+            this.cellStyleIndexMap.put(format, cellStyleIndex);
+            this.numberFormatList.add(format);
+        }
+        return cellStyleIndex;
+    }
+
+    private void writeEntry(String name, String content) throws IOException {
+        this.zipOutputStream.putNextEntry(new ZipEntry(name));
+        this.writer.write(content);
+        this.writer.flush();
+        this.zipOutputStream.closeEntry();
+    }
+
+    private String contentTypesXml() {
+        StringBuilder xml = new StringBuilder(XML_HEADER)
+                .append("<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">")
+                .append("<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>")
+                .append("<Default Extension=\"xml\" ContentType=\"application/xml\"/>")
+                .append("<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>")
+                .append("<Override PartName=\"/xl/styles.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>");
+        for (int i = 1; i <= this.sheetNameList.size(); i++) {
+            xml.append("<Override PartName=\"/xl/worksheets/sheet").append(i)
+                    .append(".xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+        }
+        return xml.append("</Types>").toString();
+    }
+
+    private String workbookXml() {
+        StringBuilder xml = new StringBuilder(XML_HEADER)
+                .append("<workbook xmlns=\"").append(MAIN_NAMESPACE).append("\" xmlns:r=\"").append(RELATIONSHIP_NAMESPACE).append("\"><sheets>");
+        for (int i = 1; i <= this.sheetNameList.size(); i++) {
+            xml.append("<sheet name=\"").append(escape(this.sheetNameList.get(i - 1))).append("\" sheetId=\"").append(i)
+                    .append("\" r:id=\"rId").append(i).append("\"/>");
+        }
+        return xml.append("</sheets></workbook>").toString();
+    }
+
+    private String workbookRelsXml() {
+        StringBuilder xml = new StringBuilder(XML_HEADER)
+                .append("<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">");
+        int sheetNum = this.sheetNameList.size();
+        for (int i = 1; i <= sheetNum; i++) {
+            xml.append("<Relationship Id=\"rId").append(i).append("\" Type=\"").append(RELATIONSHIP_NAMESPACE)
+                    .append("/worksheet\" Target=\"worksheets/sheet").append(i).append(".xml\"/>");
+        }
+        xml.append("<Relationship Id=\"rId").append(sheetNum + 1).append("\" Type=\"").append(RELATIONSHIP_NAMESPACE)
+                .append("/styles\" Target=\"styles.xml\"/>");
+        return xml.append("</Relationships>").toString();
+    }
+
+    /**
+     * 样式：0 默认，1 表头，之后每个数据格式一个数据样式
+     */
+    private String stylesXml() {
+        StringBuilder numFmts = new StringBuilder();
+        StringBuilder cellXfs = new StringBuilder()
+                .append("<xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/>")
+                .append("<xf numFmtId=\"0\" fontId=\"1\" fillId=\"0\" borderId=\"1\" xfId=\"0\" applyFont=\"1\" applyBorder=\"1\" applyAlignment=\"1\">")
+                .append("<alignment horizontal=\"center\" vertical=\"center\"/></xf>");
+        int numFmtCount = 0;
+        for (String format : this.numberFormatList) {
+            int numFmtId = 0;
+            if (!format.isEmpty()) {
+                numFmtId = CUSTOM_NUMBER_FORMAT_ID + numFmtCount++;
+                numFmts.append("<numFmt numFmtId=\"").append(numFmtId).append("\" formatCode=\"").append(escape(format)).append("\"/>");
+            }
+            cellXfs.append("<xf numFmtId=\"").append(numFmtId).append("\" fontId=\"0\" fillId=\"0\" borderId=\"1\" xfId=\"0\" applyNumberFormat=\"1\" applyBorder=\"1\"/>");
+        }
+
+        StringBuilder xml = new StringBuilder(XML_HEADER).append("<styleSheet xmlns=\"").append(MAIN_NAMESPACE).append("\">");
+        if (numFmtCount > 0) {
+            xml.append("<numFmts count=\"").append(numFmtCount).append("\">").append(numFmts).append("</numFmts>");
+        }
+        return xml.append("<fonts count=\"2\"><font><sz val=\"11\"/><name val=\"Calibri\"/></font><font><b/><sz val=\"11\"/><name val=\"Calibri\"/></font></fonts>")
+                .append("<fills count=\"2\"><fill><patternFill patternType=\"none\"/></fill><fill><patternFill patternType=\"gray125\"/></fill></fills>")
+                .append("<borders count=\"2\"><border><left/><right/><top/><bottom/><diagonal/></border>")
+                .append("<border><left style=\"thin\"/><right style=\"thin\"/><top style=\"thin\"/><bottom style=\"thin\"/><diagonal/></border></borders>")
+                .append("<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>")
+                .append("<cellXfs count=\"").append(2 + this.numberFormatList.size()).append("\">").append(cellXfs).append("</cellXfs>")
+                .append("<cellStyles count=\"1\"><cellStyle name=\"Normal\" xfId=\"0\" builtinId=\"0\"/></cellStyles>")
+                .append("</styleSheet>").toString();
+    }
+
+    private static String escape(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
@@ -0,0 +1,197 @@
+package export.excel;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * @author deng-zj
+ * @date 2026-10-17
+ * @description 表头取值字段<field>TableHeader.field</field>编译后的取值链
+ * 取值字段只在导出开始时解析一次，例如：a.b[n].c | a.b.c | a[n].b.c
+ * 每一级按照数据类型取值：Map用key取值，List用下标取值（List不占取值变量名），实体类调用get方法取值
+ * 实体类的get方法按运行时类型解析一次后缓存为MethodHandle
+ * 表头设置了取值函数时直接调用函数取值，见<field>TableHeader.extractor</field>
+ * @since JDK1.8
+ */
+final class FieldAccessor {
+
+    /**
+     * 运行时类型 -> (小写的get方法名 -> get方法)
+     */
+    private static final ClassValue<Map<String, MethodHandle>> GETTERS = new ClassValue<Map<String, MethodHandle>>() {
+        @Override
+        protected Map<String, MethodHandle> computeValue(Class<?> type) {
+            return resolveGetters(type);
+        }
+    };
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private final String field;
+    private final Segment[] segments;
+    private final Function<Object, ?> extractor;
+
+    private FieldAccessor(String field, Segment[] segments, Function<Object, ?> extractor) {
+        this.field = field;
+        this.segments = segments;
+        this.extractor = extractor;
+    }
+
+    /**
+     * 用取值函数创建取值链
+     *
+     * @param extractor 取值函数
+     * @return
+     */
+    static FieldAccessor of(Function<Object, ?> extractor) {
+        return new FieldAccessor(null, new Segment[0], extractor);
+    }
+
+    /**
+     * 解析取值字段
+     *
+     * @param field 取值字段
+     * @return
+     */
+    static FieldAccessor compile(String field) {
+        if (field == null || field.isEmpty()) {
+            return new FieldAccessor(field, new Segment[0], null);
+        }
+
+        List<Segment> segmentList = new ArrayList<>();
+        for (String strSegment : field.split("\\.")) {
+            String[] fieldAndIndex = strSegment.split("\\[");
+            int[] indexes = new int[fieldAndIndex.length - 1];
+            for (int i = 1; i < fieldAndIndex.length; i++) {
+                indexes[i - 1] = Integer.parseInt(fieldAndIndex[i].substring(0, fieldAndIndex[i].length() - 1));
+            }
+            segmentList.add(new Segment(fieldAndIndex[0], indexes));
+        }
+        return new FieldAccessor(field, segmentList.toArray(new Segment[0]), null);
+    }
+
+    /**
+     * 从一行数据中取值
+     *
+     * @param rowData     表格一行数据
+     * @param columnIndex 列下标，一行数据是List并且取值字段只有一级（或者没有取值字段）时，按列下标取值
+     * @return 取到的数据，没有取值字段或者中间某一级为null时返回null
+     */
+    Object getValue(Object rowData, int columnIndex) {
+        if (this.extractor != null) {
+            return this.extractor.apply(rowData);
+        }
+        if (rowData instanceof List && (this.segments.length == 0 || (this.segments.length == 1 && this.segments[0].indexes.length == 0))) {
+            return ((List) rowData).get(columnIndex);
+        }
+        if (this.segments.length == 0) {
+            return null;
+        }
+
+        Object data = rowData;
+        for (Segment segment : this.segments) {
+            if (data == null) {
+                return null;
+            }
+
+            /**
+             * 如果是Map，直接用field进行取值
+             * 如果是List，不占取值变量名，直接用下标取值
+             * 否则当做对象通过get方法进行取值
+             */
+            if (!segment.name.isEmpty()) {
+                if (data instanceof Map) {
+                    data = ((Map) data).get(segment.name);
+                } else if (!(data instanceof List)) {
+                    data = invokeGetter(data, segment);
+                }
+            }
+
+            for (int index : segment.indexes) {
+                if (data == null) {
+                    return null;
+                }
+                data = ((List) data).get(index);
+            }
+        }
+        return data;
+    }
+
+    String getField() {
+        return field;
+    }
+
+    /**
+     * 调用实体类的get方法
+     *
+     * @param data
+     * @param segment
+     * @return
+     */
+    private Object invokeGetter(Object data, Segment segment) {
+        MethodHandle getter = GETTERS.get(data.getClass()).get(segment.getterName);
+        if (getter == null) {
+            throw new IllegalArgumentException(data.getClass().getName() + "中没有字段" + segment.name + "的get方法，取值字段：" + this.field);
+        }
+
+        try {
+            return (Object) getter.invokeExact(data);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("调用" + data.getClass().getName() + "." + segment.getterName + "失败", e);
+        }
+    }
+
+    /**
+     * 解析类型中所有无参的get方法
+     * 非public类中的public方法（例如包内可见的实体类）需要先设置可访问，否则无法调用
+     *
+     * @param type
+     * @return
+     */
+    private static Map<String, MethodHandle> resolveGetters(Class<?> type) {
+        Map<String, MethodHandle> getters = new HashMap<>();
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        for (Method method : type.getMethods()) {
+            String methodName = method.getName().toLowerCase();
+            if (!methodName.startsWith("get") || method.getParameterCount() != 0 || getters.containsKey(methodName)) {
+                continue;
+            }
+
+            try {
+                if (!Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                    method.setAccessible(true);
+                }
+                getters.put(methodName, lookup.unreflect(method).asType(GETTER_TYPE));
+            } catch (IllegalAccessException | RuntimeException e) {
+                // 无法访问的方法不参与取值
+            }
+        }
+        return Collections.unmodifiableMap(getters);
+    }
+
+    /**
+     * 取值字段中的一级，例如：b[1][0] -> name = b, indexes = [1, 0]
+     */
+    private static final class Segment {
+        private final String name;
+        private final String getterName;
+        private final int[] indexes;
+
+        private Segment(String name, int[] indexes) {
+            this.name = name;
+            this.getterName = ("get" + name).toLowerCase();
+            this.indexes = indexes;
+        }
+    }
+}
@@ -1,19 +1,46 @@
 package export.excel;
 
 import export.entity.TableHeader;
-import net.lingala.zip4j.ZipFile;
-import net.lingala.zip4j.model.ZipParameters;
-import net.lingala.zip4j.model.enums.CompressionLevel;
-import net.lingala.zip4j.model.enums.CompressionMethod;
-import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
 
 /**
  * @param <T>
@@ -29,11 +56,119 @@ public class NomalExportExcel<T> {
     private List<TableHeader> tableHeaderList;
     private List<T> tableData;
 
+    /**
+     * 拉取式数据源，数据在导出时边拉取边绘制
+     */
+    private Iterator<T> tableDataIterator;
+
+    /**
+     * 分Sheet、分Excel策略 [defult = 每个Sheet100行，每个Excel10个Sheet]
+     */
+    private PartitionPolicy partitionPolicy = PartitionPolicy.byRowCount(100, 10);
+
+    /**
+     * 本次导出的分Excel预估，导出开始时由分Excel策略创建，自适应修正不会带到下一次导出
+     */
+    private PartitionPolicy.Estimator partitionEstimator;
+
+    /**
+     * 列宽策略
+     */
+    private ColumnWidthPolicy columnWidthPolicy = ColumnWidthPolicy.fixed();
+
+    /**
+     * 表头布局，导出开始时计算一次，每个Sheet直接复制绘制好的表头
+     */
+    private TableHeaderLayout tableHeaderLayout;
+
+    /**
+     * 表头总行数、表格总列数，导出开始时计算
+     */
+    private int tableHeaderRowNum;
+    private int tableHeaderColNum;
+
+    /**
+     * 流式导出时内存中保留的行数，小于等于0时不使用流式导出 [defult = 0]
+     */
+    private Integer rowAccessWindowSize = 0;
+
+    /**
+     * 同时绘制的Excel数，大于1时并行导出 [defult = 1]
+     */
+    private Integer parallelism = 1;
+
+    /**
+     * 并行导出使用的线程池，不设置时按parallelism创建线程池，导出完成后关闭
+     */
+    private ExecutorService executor;
+
+    /**
+     * 并行导出时Excel的临时文件目录，不设置时使用系统的临时目录
+     */
+    private File spillDir;
+
+    /**
+     * 导出文件格式 [defult = XLSX]
+     */
+    private ExportFormat exportFormat = ExportFormat.XLSX;
+
+    /**
+     * 工作簿模板，不设置时每个Excel都从空白工作簿创建
+     */
+    private ExcelTemplate excelTemplate;
+
+    /**
+     * 导出过程监听器，会传递给每个Excel
+     */
+    private ExportListener exportListener = ExportListener.NONE;
+
+    /**
+     * 最近一次导出的汇总指标
+     */
+    private ExportMetrics exportMetrics = new ExportMetrics();
+
+    /**
+     * 最近一次（或正在进行的）导出的进度
+     */
+    private volatile ExportProgress exportProgress = new ExportProgress(-1);
+
     public NomalExportExcel(List<TableHeader> tableHeaderList, List<T> tableData) {
         this.tableHeaderList = tableHeaderList;
         this.tableData = tableData;
     }
 
+    /**
+     * 以迭代器作为数据源，导出时边拉取边绘制，数据不需要全部加载至内存
+     * 注：迭代器只能被拉取一次，所以只能导出一次
+     *
+     * @param tableHeaderList 表头数据
+     * @param tableData       表格数据
+     */
+    public NomalExportExcel(List<TableHeader> tableHeaderList, Iterator<T> tableData) {
+        this.tableHeaderList = tableHeaderList;
+        this.tableDataIterator = tableData;
+    }
+
+    /**
+     * 以Stream作为数据源，导出时边拉取边绘制。Stream由调用方负责关闭
+     *
+     * @param tableHeaderList 表头数据
+     * @param tableData       表格数据
+     */
+    public NomalExportExcel(List<TableHeader> tableHeaderList, Stream<T> tableData) {
+        this(tableHeaderList, tableData.iterator());
+    }
+
+    /**
+     * 以Spliterator作为数据源，导出时边拉取边绘制
+     *
+     * @param tableHeaderList 表头数据
+     * @param tableData       表格数据
+     */
+    public NomalExportExcel(List<TableHeader> tableHeaderList, Spliterator<T> tableData) {
+        this(tableHeaderList, Spliterators.iterator(tableData));
+    }
+
     /**
      * 导出Excel
      *
@@ -42,108 +177,1122 @@ public class NomalExportExcel<T> {
      * @return 返回导出后最终的文件路径
      */
     public String export(String fileDir, String fileName) throws IOException {
-        logger.info("==================================开始导出Excel");
+        return this.export(fileDir, fileName, this.newExportProgress());
+    }
+
+    /**
+     * 导出Excel至本地文件，导出失败或取消时删除不完整的文件
+     *
+     * @param fileDir
+     * @param fileName
+     * @param progress 导出进度
+     * @return 返回导出后最终的文件路径
+     */
+    private String export(String fileDir, String fileName, ExportProgress progress) throws IOException {
+        File exportDir = new File(fileDir);
+        if (!exportDir.exists()) {
+            exportDir.mkdirs();
+        }
+
+        FileOutputProvider fileOutputProvider = new FileOutputProvider(exportDir);
+        try (FileOutputProvider outputProvider = fileOutputProvider) {
+            return fileDir + File.separator + this.export(outputProvider, fileName, progress);
+        } catch (IOException | RuntimeException e) {
+            /**
+             * 导出失败时删除不完整的文件
+             */
+            fileOutputProvider.deleteFile();
+            throw e;
+        }
+    }
+
+    /**
+     * 导出Excel至输出流，不产生本地文件。输出流由调用方负责关闭
+     *
+     * @param outputStream 输出流
+     * @param fileName
+     * @return 导出的文件名：只有一个Excel时为 fileName.xlsx，多个Excel时为 fileName.zip，CSV、TSV时为 fileName.csv | fileName.tsv
+     */
+    public String export(OutputStream outputStream, String fileName) throws IOException {
+        return this.export(outputFileName -> outputStream, fileName);
+    }
+
+    /**
+     * 导出Excel至NIO通道，不产生本地文件。通道由调用方负责关闭
+     *
+     * @param channel  通道
+     * @param fileName
+     * @return 导出的文件名：只有一个Excel时为 fileName.xlsx，多个Excel时为 fileName.zip，CSV、TSV时为 fileName.csv | fileName.tsv
+     */
+    public String export(WritableByteChannel channel, String fileName) throws IOException {
+        OutputStream outputStream = new BufferedOutputStream(Channels.newOutputStream(channel));
+        String outputFileName = this.export(outputStream, fileName);
+        outputStream.flush();
+        return outputFileName;
+    }
+
+    /**
+     * 导出Excel至导出目标
+     * 第一个Excel绘制完成后才会打开输出流，此时已经确定导出一个Excel还是压缩包，
+     * 之后每个Excel绘制完成就立即写出，不需要等待全部导出完成
+     *
+     * @param outputProvider 导出目标
+     * @param fileName
+     * @return 导出的文件名：只有一个Excel时为 fileName.xlsx，多个Excel时为 fileName.zip，CSV、TSV时为 fileName.csv | fileName.tsv
+     */
+    public String export(ExcelOutputProvider outputProvider, String fileName) throws IOException {
+        return this.export(outputProvider, fileName, this.newExportProgress());
+    }
+
+    /**
+     * 可续传的导出：每个Excel先写出至工作目录 fileDir/jobId.parts，写完一个Excel就在清单中记录它的数据行区间，
+     * 全部完成后合并为 fileName.xlsx（只有一个Excel时）或者 fileName.zip，再删除工作目录。
+     * 导出失败（例如磁盘已满、进程重启）后用相同的jobId重新导出时，跳过已经完成的Excel，从第一个没有完成的Excel继续导出
+     * 注：续传时数据源必须按相同的顺序返回相同的数据；只支持xlsx，Excel依次绘制，不使用并行导出
+     *
+     * @param fileDir
+     * @param fileName
+     * @param jobId    任务id，同一个导出任务重新导出时使用相同的id
+     * @return 返回导出后最终的文件路径
+     */
+    public String exportResumable(String fileDir, String fileName, String jobId) throws IOException {
+        if (this.exportFormat != ExportFormat.XLSX) {
+            throw new IllegalStateException("只有xlsx支持续传导出");
+        }
+        logger.info("==================================开始导出Excel，任务id：" + jobId);
         Long exportStartTime = System.currentTimeMillis();
+        long exportStartNanos = System.nanoTime();
+        this.exportProgress = this.newExportProgress();
+        this.exportMetrics = new ExportMetrics();
+        this.partitionEstimator = this.partitionPolicy.newEstimator();
+        this.exportListener.onPhaseStart(ExportPhase.EXPORT);
+
+        Iterator<T> tableDataIterator = this.tableData != null ? this.tableData.listIterator() : this.tableDataIterator;
+        this.initTableHeaderLayout();
+
+        File exportDir = new File(fileDir);
+        File workDir = new File(exportDir, jobId + ".parts");
+        if (!workDir.exists()) {
+            workDir.mkdirs();
+        }
+        List<String> headerTextList = new ArrayList<>();
+        for (TableHeader tableHeader : this.tableHeaderLayout.getColumnList()) {
+            headerTextList.add(tableHeader.getHeaderText());
+        }
+        ExportManifest exportManifest = ExportManifest.load(workDir, jobId, fileName, String.join(",", headerTextList));
 
         /**
-         * 将导出数据进行分sheet分excel，数据大的情况下将数据分成多个Excel保存数据，一个Excel又分多个Sheet
+         * 跳过已经写出的行：数据源是List时直接从下标开始，迭代器只能逐行拉取丢弃
          */
-        List<List<List<T>>> allExcelData = new ArrayList<>();
-        List<List<T>> excelData = new ArrayList<>();
-        List<T> sheetData = new ArrayList<>();
-        for (int i = 0; i < this.tableData.size(); i++) {
-            if (i != 0 && i % 100 == 0) {
-                excelData.add(sheetData);
-                sheetData = new ArrayList<>();
-
-                if (excelData.size() % 10 == 0) {
-                    allExcelData.add(excelData);
-                    excelData = new ArrayList<>();
+        long skipRowNum = exportManifest.getRowCount();
+        if (skipRowNum > 0) {
+            logger.info("==================================续传导出，跳过已完成的" + exportManifest.getExcelCount() + "个Excel，共" + skipRowNum + "行");
+            long skippedRowNum = 0;
+            if (this.tableData != null) {
+                skippedRowNum = Math.min(skipRowNum, this.tableData.size());
+                tableDataIterator = this.tableData.listIterator((int) skippedRowNum);
+            } else {
+                for (; skippedRowNum < skipRowNum && tableDataIterator.hasNext(); skippedRowNum++) {
+                    tableDataIterator.next();
                 }
             }
-            sheetData.add(this.tableData.get(i));
-
-            if (i == this.tableData.size() - 1 && i % 100 != 0) {
-                excelData.add(sheetData);
-                allExcelData.add(excelData);
+            if (skippedRowNum < skipRowNum) {
+                throw new IllegalStateException("数据行数少于任务" + jobId + "已经导出的行数，无法续传");
             }
+            this.exportProgress.skip(skippedRowNum);
         }
 
         /**
-         * 将分好的数据进行导出
+         * 没有数据时也导出一个只有表头的Excel
          */
-        String xlsxFilePath = fileDir + File.separator + fileName + ".xlsx";
-        for (int i = 0; i < allExcelData.size(); i++) {
-            logger.info("==================================开始导出第" + (i + 1) + "个Excel");
+        int excelIndex = exportManifest.getExcelCount();
+        while (excelIndex == 0 || tableDataIterator.hasNext()) {
+            excelIndex++;
             Long exportExcelStartTime = System.currentTimeMillis();
+            ExportExcel<T> exportExcel = this.drawExcel(tableDataIterator, fileName, excelIndex, this.getExcelMaxRows());
+            File excelFile = exportManifest.getExcelFile(excelIndex);
+            this.writeExcel(exportExcel, excelFile);
+            exportManifest.addExcel(exportExcel.getDataRowCount(), excelFile.length());
+            logger.info("==================================第" + excelIndex + "个Excel导出完成，共耗时：" + (System.currentTimeMillis() - exportExcelStartTime) + "ms");
+        }
 
-            ExportExcel exportExcel = new ExportExcel();
+        /**
+         * 合并为最终的文件：先写出至工作目录，完成后再移动至导出目录
+         */
+        String outputFileName;
+        if (excelIndex == 1) {
+            outputFileName = fileName + ".xlsx";
+            Files.move(exportManifest.getExcelFile(1).toPath(), new File(exportDir, outputFileName).toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            outputFileName = fileName + ".zip";
+            this.exportListener.onPhaseStart(ExportPhase.ZIP);
+            long zipStartNanos = System.nanoTime();
+            File zipFile = new File(workDir, outputFileName);
+            try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(zipFile));
+                 ExcelZipWriter excelZipWriter = new ExcelZipWriter(outputStream)) {
+                try {
+                    for (int i = 1; i <= excelIndex; i++) {
+                        this.exportProgress.checkCancelled();
+                        excelZipWriter.putFile(this.getFileNameInZip(fileName, i), exportManifest.getExcelFile(i));
+                    }
+                } catch (IOException | RuntimeException e) {
+                    excelZipWriter.markFailed();
+                    throw e;
+                }
+            }
+            Files.move(zipFile.toPath(), new File(exportDir, outputFileName).toPath(), StandardCopyOption.REPLACE_EXISTING);
+            long durationNanos = System.nanoTime() - zipStartNanos;
+            this.exportMetrics.addPhaseNanos(ExportPhase.ZIP, durationNanos);
+            this.exportListener.onPhaseEnd(ExportPhase.ZIP, durationNanos, this.exportMetrics);
+        }
+        exportManifest.delete();
 
-            /**
-             * 创建Excel
-             */
-            excelData = allExcelData.get(i);
-            XSSFWorkbook workbook = exportExcel.createExcel(excelData.size(), fileName);
-            exportExcel.createTableHeaderFont();
+        this.finishExport(exportStartNanos);
+        logger.info("==================================Excel全部导出成功。共" + excelIndex + "个Excel，本次导出" + this.exportMetrics.getRowCount()
+                + "行，耗时" + (System.currentTimeMillis() - exportStartTime) + "ms");
+        return fileDir + File.separator + outputFileName;
+    }
+
+    /**
+     * 向已经导出的Excel追加数据，只绘制新增的行
+     * 导出的Excel依次为 fileName.xlsx、fileName(2).xlsx、fileName(3).xlsx……，打开最后一个Excel，
+     * 按表头布局找到最后一个Sheet的最后一行，在其后追加数据；达到分Sheet策略的行数时创建新的Sheet，
+     * 达到分Excel策略的行数时创建下一个Excel。还没有导出过时从 fileName.xlsx 开始导出。
+     * 追加的Excel先写出至临时文件，成功后再替换原文件，追加失败或取消时原文件不受影响
+     * 注：只支持xlsx；byEstimatedBytes策略按预估行数判断已有的Excel是否已满
+     *
+     * @param fileDir
+     * @param fileName
+     * @return 追加或新建的文件路径
+     */
+    public List<String> append(String fileDir, String fileName) throws IOException {
+        if (this.exportFormat != ExportFormat.XLSX) {
+            throw new IllegalStateException("只有xlsx支持追加数据");
+        }
+        logger.info("==================================开始向" + fileName + "追加数据");
+        Long appendStartTime = System.currentTimeMillis();
+        long exportStartNanos = System.nanoTime();
+        this.exportProgress = this.newExportProgress();
+        this.exportMetrics = new ExportMetrics();
+        this.partitionEstimator = this.partitionPolicy.newEstimator();
+        this.exportListener.onPhaseStart(ExportPhase.EXPORT);
+
+        Iterator<T> tableDataIterator = this.tableData != null ? this.tableData.listIterator() : this.tableDataIterator;
+        this.initTableHeaderLayout();
+
+        File exportDir = new File(fileDir);
+        if (!exportDir.exists()) {
+            exportDir.mkdirs();
+        }
+
+        /**
+         * 找到最后一个已经导出的Excel，没有时从第一个Excel开始导出
+         */
+        int excelIndex = 0;
+        while (new File(exportDir, this.getAppendFileName(fileName, excelIndex + 1)).exists()) {
+            excelIndex++;
+        }
 
-            for (int j = 0; j < excelData.size(); j++) {
-                XSSFSheet sheet = workbook.getSheetAt(j);
-                sheet.setDefaultRowHeight((short) (255 * 2));
-                exportExcel.setSheet(sheet);
-                exportExcel.setNowMaxRowNums(0);
-                exportExcel.setNowMaxColNums(0);
-                exportExcel.drawTable(this.tableHeaderList, excelData.get(j));
+        List<String> filePathList = new ArrayList<>();
+        if (excelIndex > 0 && tableDataIterator.hasNext()) {
+            File excelFile = new File(exportDir, this.getAppendFileName(fileName, excelIndex));
+            ExportExcel<T> exportExcel = this.appendExcel(excelFile, tableDataIterator, fileName, excelIndex);
+            if (exportExcel != null) {
+                this.writeExcel(exportExcel, excelFile);
+                filePathList.add(fileDir + File.separator + excelFile.getName());
             }
+        }
+        while (tableDataIterator.hasNext()) {
+            excelIndex++;
+            File excelFile = new File(exportDir, this.getAppendFileName(fileName, excelIndex));
+            this.writeExcel(this.drawExcel(tableDataIterator, fileName, excelIndex, this.getExcelMaxRows()), excelFile);
+            filePathList.add(fileDir + File.separator + excelFile.getName());
+        }
+
+        this.finishExport(exportStartNanos);
+        logger.info("==================================追加完成。共" + this.exportMetrics.getRowCount() + "行数据，写出" + filePathList.size()
+                + "个Excel，耗时" + (System.currentTimeMillis() - appendStartTime) + "ms");
+        return filePathList;
+    }
+
+    /**
+     * 异步导出Excel至本地文件，导出失败或取消时删除不完整的文件
+     * 注：executor不能是并行导出使用的线程池，否则线程池被占满时会互相等待
+     *
+     * @param fileDir
+     * @param fileName
+     * @param executor 执行导出的线程池
+     * @return 导出结果，结果为导出后最终的文件路径
+     */
+    public ExportFuture exportAsync(String fileDir, String fileName, Executor executor) {
+        ExportProgress progress = this.newExportProgress();
+        return this.exportAsync(progress, () -> this.export(fileDir, fileName, progress), executor);
+    }
+
+    /**
+     * 异步导出Excel至导出目标。导出失败或取消时，不完整的输出由导出目标负责清理
+     * 注：executor不能是并行导出使用的线程池，否则线程池被占满时会互相等待
+     *
+     * @param outputProvider 导出目标
+     * @param fileName
+     * @param executor       执行导出的线程池
+     * @return 导出结果，结果为导出的文件名：只有一个Excel时为 fileName.xlsx，多个Excel时为 fileName.zip，CSV、TSV时为 fileName.csv | fileName.tsv
+     */
+    public ExportFuture exportAsync(ExcelOutputProvider outputProvider, String fileName, Executor executor) {
+        ExportProgress progress = this.newExportProgress();
+        return this.exportAsync(progress, () -> this.export(outputProvider, fileName, progress), executor);
+    }
 
-            File exportDir = new File(fileDir);
-            if (!exportDir.exists()) {
-                exportDir.mkdirs();
+    /**
+     * 在线程池中执行导出
+     *
+     * @param progress 导出进度
+     * @param task     导出任务
+     * @param executor 执行导出的线程池
+     * @return 导出结果
+     */
+    private ExportFuture exportAsync(ExportProgress progress, Callable<String> task, Executor executor) {
+        ExportFuture exportFuture = new ExportFuture(progress);
+        executor.execute(() -> {
+            /**
+             * 开始之前已经取消时不再导出
+             */
+            if (exportFuture.isCancelled()) {
+                return;
+            }
+            try {
+                exportFuture.complete(task.call());
+            } catch (Throwable e) {
+                exportFuture.completeExceptionally(e);
             }
+        });
+        return exportFuture;
+    }
 
-            if (allExcelData.size() > 1) {
-                exportExcel.write(fileDir + File.separator + fileName + "(" + (i + 1) + ").xlsx");
-            } else {
-                exportExcel.write(xlsxFilePath);
+    /**
+     * 创建导出进度，数据源是List时总行数已知
+     *
+     * @return
+     */
+    private ExportProgress newExportProgress() {
+        return new ExportProgress(this.tableData != null ? this.tableData.size() : -1);
+    }
+
+    /**
+     * 导出Excel至导出目标
+     *
+     * @param outputProvider 导出目标
+     * @param fileName
+     * @param progress       导出进度
+     * @return 导出的文件名：只有一个Excel时为 fileName.xlsx，多个Excel时为 fileName.zip，CSV、TSV时为 fileName.csv | fileName.tsv
+     */
+    private String export(ExcelOutputProvider outputProvider, String fileName, ExportProgress progress) throws IOException {
+        logger.info("==================================开始导出Excel");
+        this.exportProgress = progress;
+        Long exportStartTime = System.currentTimeMillis();
+        long exportStartNanos = System.nanoTime();
+        this.exportMetrics = new ExportMetrics();
+        this.partitionEstimator = this.partitionPolicy.newEstimator();
+        this.exportListener.onPhaseStart(ExportPhase.EXPORT);
+
+        /**
+         * 将导出数据进行分sheet分excel，数据大的情况下将数据分成多个Excel保存数据，一个Excel又分多个Sheet
+         * 数据从迭代器中边拉取边绘制，不需要全部加载至内存
+         */
+        Iterator<T> tableDataIterator = this.tableData != null ? this.tableData.listIterator() : this.tableDataIterator;
+        this.initTableHeaderLayout();
+
+        /**
+         * CSV、TSV不分区、不压缩，所有数据直接写出至一个文件
+         */
+        if (this.exportFormat != ExportFormat.XLSX) {
+            return this.exportCsv(outputProvider, fileName, tableDataIterator, exportStartNanos);
+        }
+
+        /**
+         * 先绘制第一个Excel，绘制完之后没有剩余数据时，只导出一个Excel，不需要编号和压缩
+         */
+        Long exportExcelStartTime = System.currentTimeMillis();
+        ExportExcel<T> exportExcel = this.drawExcel(tableDataIterator, fileName, 1, this.getExcelMaxRows());
+        if (!tableDataIterator.hasNext()) {
+            String xlsxFileName = fileName + ".xlsx";
+            OutputStream outputStream;
+            try {
+                progress.checkCancelled();
+                outputStream = outputProvider.open(xlsxFileName);
+            } catch (IOException | RuntimeException e) {
+                this.disposeOnFailure(exportExcel, e);
+                throw e;
             }
+            exportExcel.write(outputStream);
+            outputStream.flush();
+            this.exportMetrics.add(exportExcel.getExportMetrics());
+            this.finishExport(exportStartNanos);
 
-            Long exportExcelEndTime = System.currentTimeMillis();
-            logger.info("==================================第" + (i + 1) + "个Excel导出完成，共耗时：" + (exportExcelEndTime - exportExcelStartTime) + "ms");
+            Long exportEndTime = System.currentTimeMillis();
+            logger.info("==================================第1个Excel导出完成，共耗时：" + (exportEndTime - exportExcelStartTime) + "ms");
+            logger.info("==================================Excel全部导出成功。共1个Excel，耗时" + (exportEndTime - exportStartTime) + "ms");
+            return xlsxFileName;
         }
 
+        /**
+         * 导出多个文件时，每个Excel绘制完成后直接写入压缩包，不产生中间文件；
+         * 并行导出时每个Excel先写出至临时文件，见<method>putExcelInParallel</method>
+         */
+        String zipFileName = fileName + ".zip";
+        OutputStream zipOutputStream;
+        try {
+            zipOutputStream = outputProvider.open(zipFileName);
+        } catch (IOException | RuntimeException e) {
+            this.disposeOnFailure(exportExcel, e);
+            throw e;
+        }
+        int excelCount;
+        try (ExcelZipWriter excelZipWriter = new ExcelZipWriter(zipOutputStream)) {
+            try {
+                if (this.parallelism > 1) {
+                    excelCount = this.exportParallel(tableDataIterator, fileName, exportExcel, excelZipWriter);
+                } else {
+                    this.putExcel(excelZipWriter, fileName, 1, exportExcel);
+                    logger.info("==================================第1个Excel导出完成，共耗时：" + (System.currentTimeMillis() - exportExcelStartTime) + "ms");
+
+                    excelCount = 1;
+                    while (tableDataIterator.hasNext()) {
+                        excelCount++;
+                        exportExcelStartTime = System.currentTimeMillis();
+                        this.putExcel(excelZipWriter, fileName, excelCount, this.drawExcel(tableDataIterator, fileName, excelCount, this.getExcelMaxRows()));
+                        logger.info("==================================第" + excelCount + "个Excel导出完成，共耗时：" + (System.currentTimeMillis() - exportExcelStartTime) + "ms");
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                /**
+                 * 绘制或者写出失败时不结束压缩包，输出流中的压缩包保持不完整，不会被当作完整的导出结果
+                 */
+                excelZipWriter.markFailed();
+                throw e;
+            }
+        }
+
+        this.finishExport(exportStartNanos);
+
         Long exportEndTime = System.currentTimeMillis();
-        logger.info("==================================Excel全部导出成功。共" + allExcelData.size() + "个Excel，耗时" + (exportEndTime - exportStartTime) + "ms");
+        logger.info("==================================Excel全部导出成功。共" + excelCount + "个Excel，耗时" + (exportEndTime - exportStartTime) + "ms");
+        return zipFileName;
+    }
+
+    /**
+     * 计算表头布局、表头总行数、总列数
+     */
+    private void initTableHeaderLayout() {
+        this.tableHeaderLayout = TableHeaderLayout.of(this.tableHeaderList);
+        this.tableHeaderRowNum = this.tableHeaderLayout.getRowNum();
+        this.tableHeaderColNum = this.tableHeaderLayout.getColNum();
+    }
+
+    /**
+     * 导出CSV、TSV，数据边拉取边写出
+     *
+     * @param outputProvider    导出目标
+     * @param fileName
+     * @param tableDataIterator 表格数据
+     * @param exportStartNanos  导出开始时间（纳秒）
+     * @return 导出的文件名：fileName.csv | fileName.tsv
+     */
+    private String exportCsv(ExcelOutputProvider outputProvider, String fileName, Iterator<T> tableDataIterator, long exportStartNanos) throws IOException {
+        boolean tsv = this.exportFormat == ExportFormat.TSV;
+        CsvExportExcel<T> csvExportExcel = tsv ? CsvExportExcel.tsv() : CsvExportExcel.csv();
+        String csvFileName = fileName + (tsv ? ".tsv" : ".csv");
+
+        this.exportListener.onPhaseStart(ExportPhase.WRITE);
+        long writeStartNanos = System.nanoTime();
+        this.exportProgress.setSheet(1, 1);
+        CountingOutputStream outputStream = new CountingOutputStream(outputProvider.open(csvFileName));
+        long rowCount = csvExportExcel.write(this.tableHeaderList, this.exportProgress.track(tableDataIterator), outputStream);
+        outputStream.flush();
+        long durationNanos = System.nanoTime() - writeStartNanos;
+
+        this.exportMetrics.addRowCount(rowCount);
+        this.exportMetrics.addCellCount((rowCount + 1) * this.tableHeaderColNum);
+        this.exportMetrics.addByteCount(outputStream.getByteNum());
+        this.exportMetrics.addPhaseNanos(ExportPhase.WRITE, durationNanos);
+        this.exportListener.onPhaseEnd(ExportPhase.WRITE, durationNanos, this.exportMetrics);
+        this.finishExport(exportStartNanos);
+        logger.info("==================================" + csvFileName + "导出成功，共" + rowCount + "行数据");
+        return csvFileName;
+    }
+
+    /**
+     * 记录整个导出的耗时，回调导出完成
+     *
+     * @param exportStartNanos 导出开始时间（纳秒）
+     */
+    private void finishExport(long exportStartNanos) {
+        long durationNanos = System.nanoTime() - exportStartNanos;
+        this.exportMetrics.addPhaseNanos(ExportPhase.EXPORT, durationNanos);
+        this.exportListener.onPhaseEnd(ExportPhase.EXPORT, durationNanos, this.exportMetrics);
+        this.exportListener.onExportFinished(this.exportMetrics);
+    }
+
+    /**
+     * 并行导出多个Excel
+     * 在当前线程中依次拉取每个Excel的数据，交给线程池绘制并写入压缩包。同时绘制的Excel数不超过parallelism，
+     * 所以内存中最多保留parallelism个Excel的数据
+     *
+     * @param tableDataIterator 表格数据
+     * @param fileName
+     * @param firstExcel        已经绘制完成的第一个Excel
+     * @param excelZipWriter    压缩包
+     * @return 导出的Excel总数
+     */
+    private int exportParallel(Iterator<T> tableDataIterator, String fileName, ExportExcel<T> firstExcel, ExcelZipWriter excelZipWriter) throws IOException {
+        ExecutorService executorService = this.executor != null ? this.executor : Executors.newFixedThreadPool(this.parallelism);
+        Semaphore semaphore = new Semaphore(this.parallelism);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Phaser phaser = new Phaser(1);
+        List<ParallelTask> taskList = new ArrayList<>();
+        List<Future<?>> futureList = new ArrayList<>();
+
+        int excelCount = 1;
+        try {
+            semaphore.acquire();
+            ParallelTask firstTask = new ParallelTask(semaphore, failure, phaser, () -> this.putExcelInParallel(excelZipWriter, fileName, 1, firstExcel));
+            taskList.add(firstTask);
+            futureList.add(executorService.submit(firstTask));
+
+            while (tableDataIterator.hasNext()) {
+                semaphore.acquire();
+
+                /**
+                 * 已经有Excel绘制或写出失败时不再拉取数据，未完成的Excel在finally中取消
+                 */
+                if (failure.get() != null) {
+                    throw new ExecutionException("导出Excel失败！", failure.get());
+                }
+                this.exportProgress.checkCancelled();
+                excelCount++;
+                long excelMaxRows = this.getExcelMaxRows();
+                List<T> excelData;
+                if (this.tableData != null) {
+                    /**
+                     * 数据源是List时使用下标区间视图，不复制数据
+                     */
+                    int fromIndex = ((ListIterator<T>) tableDataIterator).nextIndex();
+                    int toIndex = fromIndex + (int) Math.min(this.tableData.size() - fromIndex, excelMaxRows);
+                    excelData = this.tableData.subList(fromIndex, toIndex);
+                    tableDataIterator = this.tableData.listIterator(toIndex);
+                } else {
+                    excelData = new ArrayList<>();
+                    for (long i = 0; i < excelMaxRows && tableDataIterator.hasNext(); i++) {
+                        excelData.add(tableDataIterator.next());
+                    }
+                }
+
+                final int excelIndex = excelCount;
+                ParallelTask task = new ParallelTask(semaphore, failure, phaser, () -> {
+                    Long exportExcelStartTime = System.currentTimeMillis();
+                    this.putExcelInParallel(excelZipWriter, fileName, excelIndex, this.drawExcel(excelData.iterator(), fileName, excelIndex, excelData.size()));
 
-        if (allExcelData.size() > 1) {
+                    Long exportExcelEndTime = System.currentTimeMillis();
+                    logger.info("==================================第" + excelIndex + "个Excel导出完成，共耗时：" + (exportExcelEndTime - exportExcelStartTime) + "ms");
+                });
+                taskList.add(task);
+                futureList.add(executorService.submit(task));
+            }
+
+            for (Future<?> future : futureList) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("导出Excel时线程被中断");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException("导出Excel失败！", e.getCause());
+        } finally {
             /**
-             * 导出多个文件时，将导出的所有文件进行压缩至一个压缩包
+             * 还没有开始的任务不再执行（第一个Excel已经绘制完成，需要关闭），正在执行的任务中断后等待其结束，
+             * 返回之后调用方会关闭压缩包，不能还有线程在绘制或者写入压缩包
              */
-            ZipParameters parameters = new ZipParameters();
-            parameters.setCompressionMethod(CompressionMethod.DEFLATE); // 压缩方式
-            parameters.setCompressionLevel(CompressionLevel.NORMAL); // 压缩级别
+            for (int i = 0; i < taskList.size(); i++) {
+                if (taskList.get(i).skip() && i == 0) {
+                    try {
+                        firstExcel.dispose();
+                    } catch (IOException e) {
+                        logger.error("关闭第1个Excel失败\t" + e.getLocalizedMessage());
+                    }
+                }
+                if (i < futureList.size()) {
+                    futureList.get(i).cancel(true);
+                }
+            }
+            phaser.arriveAndAwaitAdvance();
+            if (this.executor == null) {
+                executorService.shutdown();
+            }
+        }
+        return excelCount;
+    }
+
+    /**
+     * 并行导出的任务：结束时释放并发数，失败时先记录异常再释放，拉取数据的线程拿到并发数后就能发现失败
+     * 任务在创建时注册到<class>Phaser</class>，执行结束或者被跳过时注销，拉取数据的线程据此等待所有任务结束
+     */
+    private static class ParallelTask implements Callable<Void> {
+        private final Semaphore semaphore;
+        private final AtomicReference<Throwable> failure;
+        private final Phaser phaser;
+        private final ExcelTask task;
 
-            String zipFilePath = fileDir + File.separator + fileName + ".zip";
-            File file = new File(zipFilePath);
-            if(file.exists()){
-                file.delete();
+        /**
+         * 任务已经开始执行或者已经被跳过，两者只会发生一个
+         */
+        private final AtomicBoolean claimed = new AtomicBoolean(false);
+
+        /**
+         * @param semaphore 并发数
+         * @param failure   第一个失败的异常
+         * @param phaser    等待所有任务结束
+         * @param task      绘制、写出Excel
+         */
+        private ParallelTask(Semaphore semaphore, AtomicReference<Throwable> failure, Phaser phaser, ExcelTask task) {
+            this.semaphore = semaphore;
+            this.failure = failure;
+            this.phaser = phaser;
+            this.task = task;
+            phaser.register();
+        }
+
+        @Override
+        public Void call() throws Exception {
+            if (!this.claimed.compareAndSet(false, true)) {
+                return null;
             }
+            try {
+                this.task.run();
+                return null;
+            } catch (Throwable e) {
+                this.failure.compareAndSet(null, e);
+                throw e;
+            } finally {
+                this.semaphore.release();
+                this.phaser.arriveAndDeregister();
+            }
+        }
+
+        /**
+         * 跳过还没有开始执行的任务
+         *
+         * @return 任务是否被跳过，已经开始执行的任务返回false
+         */
+        private boolean skip() {
+            if (!this.claimed.compareAndSet(false, true)) {
+                return false;
+            }
+            this.phaser.arriveAndDeregister();
+            return true;
+        }
+    }
 
-            ZipFile zipFile = new ZipFile(zipFilePath);
+    /**
+     * 绘制、写出Excel的任务
+     */
+    private interface ExcelTask {
+        void run() throws IOException;
+    }
 
-            File exportDir = new File(fileDir);
-            File[] exportFiles = exportDir.listFiles();
-            for (File exportFile : exportFiles) {
-                if (exportFile.getName().startsWith(fileName) && exportFile.getName().endsWith(".xlsx")) {
-                    zipFile.addFile(exportFile);
+    /**
+     * 绘制一个Excel，从迭代器中最多拉取excelMaxRows行数据，按分Sheet策略拆分Sheet
+     * 每拉取一行数据更新导出进度，导出取消时关闭Excel并抛出<class>CancellationException</class>
+     *
+     * @param tableDataIterator 表格数据
+     * @param fileName
+     * @param excelIndex        第几个Excel
+     * @param excelMaxRows      最多绘制的数据行数
+     * @return 绘制完成、还未写出的Excel
+     */
+    private ExportExcel<T> drawExcel(Iterator<T> tableDataIterator, String fileName, int excelIndex, long excelMaxRows) {
+        logger.info("==================================开始导出第" + excelIndex + "个Excel");
+        ExportExcel<T> exportExcel = new ExportExcel<>(this.rowAccessWindowSize);
+        exportExcel.setExportListener(this.exportListener);
+        exportExcel.setColumnWidthPolicy(this.columnWidthPolicy);
 
-                    /**
-                     * 将原Excel文件删除，只留下压缩包
-                     */
-                    exportFile.delete();
+        /**
+         * 创建Excel，Sheet在拉取到数据时再创建。设置了模板时从模板创建，字体、样式不需要再创建
+         */
+        Workbook workbook;
+        if (this.excelTemplate != null) {
+            workbook = exportExcel.createExcel(this.excelTemplate);
+        } else {
+            workbook = exportExcel.createExcel(0, fileName);
+            exportExcel.createTableHeaderFont();
+        }
+
+        try {
+            this.drawSheets(exportExcel, workbook, this.exportProgress.track(tableDataIterator), fileName, excelIndex, excelMaxRows, 0, 0);
+        } catch (RuntimeException e) {
+            this.disposeOnFailure(exportExcel, e);
+            throw e;
+        }
+        return exportExcel;
+    }
+
+    /**
+     * 在Excel中按分Sheet策略依次创建Sheet并绘制表格，直到达到Excel的行数上限或者没有数据
+     *
+     * @param exportExcel     Excel
+     * @param workbook        Excel的工作簿
+     * @param trackedIterator 更新导出进度的表格数据
+     * @param fileName
+     * @param excelIndex      第几个Excel
+     * @param excelMaxRows    Excel最多绘制的数据行数
+     * @param sheetCount      Excel中已有的Sheet数
+     * @param excelRowNum     Excel中已有的数据行数
+     */
+    private void drawSheets(ExportExcel<T> exportExcel, Workbook workbook, Iterator<T> trackedIterator, String fileName, int excelIndex, long excelMaxRows, int sheetCount, long excelRowNum) {
+        int sheetMaxRows = this.partitionPolicy.getSheetMaxRows(this.tableHeaderRowNum);
+        do {
+            sheetCount++;
+            this.exportProgress.setSheet(excelIndex, sheetCount);
+            int sheetRowNum = (int) Math.min(sheetMaxRows, excelMaxRows - excelRowNum);
+            Sheet sheet = workbook.createSheet(fileName + "(" + sheetCount + ")");
+            sheet.setDefaultRowHeight((short) (255 * 2));
+            exportExcel.selectSheet(sheet);
+            exportExcel.setNowMaxRowNums(0);
+            exportExcel.setNowMaxColNums(0);
+            exportExcel.drawTable(this.tableHeaderLayout, trackedIterator, sheetRowNum);
+            excelRowNum += sheetRowNum;
+        } while (excelRowNum < excelMaxRows && trackedIterator.hasNext());
+    }
+
+    /**
+     * 打开已经导出的Excel，在最后一个Sheet之后追加数据，Sheet满了之后继续创建新的Sheet
+     *
+     * @param excelFile         已经导出的Excel
+     * @param tableDataIterator 表格数据
+     * @param fileName
+     * @param excelIndex        第几个Excel
+     * @return 追加完成、还未写出的Excel；已经达到分Excel策略的行数时返回null
+     */
+    private ExportExcel<T> appendExcel(File excelFile, Iterator<T> tableDataIterator, String fileName, int excelIndex) throws IOException {
+        XSSFWorkbook xssfWorkbook;
+        try (InputStream inputStream = new BufferedInputStream(new FileInputStream(excelFile))) {
+            xssfWorkbook = new XSSFWorkbook(inputStream);
+        }
+
+        /**
+         * 按表头布局校验最后一个Sheet，每个Sheet的数据行数 = 最后一行 + 1 - 表头总行数
+         * 只统计表头与表头布局一致的数据Sheet，模板中的说明页等其它Sheet不计入Sheet数和数据行数
+         */
+        int lastSheetIndex = xssfWorkbook.getNumberOfSheets() - 1;
+        Sheet lastSheet = lastSheetIndex < 0 ? null : xssfWorkbook.getSheetAt(lastSheetIndex);
+        if (lastSheet == null || !this.matchTableHeader(lastSheet)) {
+            xssfWorkbook.close();
+            throw new IllegalArgumentException(excelFile.getName() + "的表头与TableHeader不一致，无法追加数据");
+        }
+        int sheetCount = 0;
+        long excelRowNum = 0;
+        for (Sheet sheet : xssfWorkbook) {
+            if (this.matchTableHeader(sheet)) {
+                sheetCount++;
+                excelRowNum += sheet.getLastRowNum() + 1 - this.tableHeaderRowNum;
+            }
+        }
+        int lastRowIndex = lastSheet.getLastRowNum();
+        long sheetRowNum = lastRowIndex + 1 - this.tableHeaderRowNum;
+
+        long excelMaxRows = this.getExcelMaxRows();
+        if (excelRowNum >= excelMaxRows) {
+            xssfWorkbook.close();
+            return null;
+        }
+
+        logger.info("==================================开始向第" + excelIndex + "个Excel追加数据，已有" + excelRowNum + "行");
+        ExportExcel<T> exportExcel = new ExportExcel<>(this.rowAccessWindowSize);
+        exportExcel.setExportListener(this.exportListener);
+        exportExcel.setColumnWidthPolicy(this.columnWidthPolicy);
+        Workbook workbook = exportExcel.appendExcel(xssfWorkbook, this.excelTemplate);
+
+        /**
+         * 新建的Sheet使用已有表头的字体
+         */
+        if (this.excelTemplate == null) {
+            Cell headerCell = lastSheet.getRow(0).getCell(0);
+            exportExcel.setTableHeaderFont(workbook.getFontAt(headerCell.getCellStyle().getFontIndexAsInt()));
+        }
+
+        Iterator<T> trackedIterator = this.exportProgress.track(tableDataIterator);
+        int sheetMaxRows = this.partitionPolicy.getSheetMaxRows(this.tableHeaderRowNum);
+        try {
+            if (sheetRowNum < sheetMaxRows) {
+                this.exportProgress.setSheet(excelIndex, sheetCount);
+                int appendRowNum = (int) Math.min(sheetMaxRows - sheetRowNum, excelMaxRows - excelRowNum);
+                exportExcel.selectSheet(workbook.getSheetAt(lastSheetIndex));
+                exportExcel.appendTable(this.tableHeaderLayout, trackedIterator, appendRowNum, lastRowIndex);
+                excelRowNum += appendRowNum;
+            }
+            if (excelRowNum < excelMaxRows && trackedIterator.hasNext()) {
+                this.drawSheets(exportExcel, workbook, trackedIterator, fileName, excelIndex, excelMaxRows, sheetCount, excelRowNum);
+            }
+        } catch (RuntimeException e) {
+            this.disposeOnFailure(exportExcel, e);
+            throw e;
+        }
+        return exportExcel;
+    }
+
+    /**
+     * 校验Sheet中叶子表头的位置和文字与表头布局一致
+     *
+     * @param sheet
+     * @return
+     */
+    private boolean matchTableHeader(Sheet sheet) {
+        if (sheet.getLastRowNum() + 1 < this.tableHeaderRowNum) {
+            return false;
+        }
+        DataFormatter dataFormatter = new DataFormatter();
+        for (TableHeaderLayout.HeaderCell headerCell : this.tableHeaderLayout.getHeaderCellList()) {
+            TableHeader tableHeader = headerCell.getTableHeader();
+            if (headerCell.getColSpan() == 0 || tableHeader.getChildren() != null) {
+                continue;
+            }
+            Row row = sheet.getRow(headerCell.getRowIndex());
+            Cell cell = row == null ? null : row.getCell(headerCell.getColIndex());
+            String headerText = tableHeader.getHeaderText() == null ? "" : tableHeader.getHeaderText();
+            if (cell == null || !headerText.equals(dataFormatter.formatCellValue(cell))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 将Excel写出至本地文件：先写出至临时文件，成功后再替换目标文件，失败或取消时删除临时文件
+     * 汇总Excel的指标，并用Excel的实际大小修正本次导出的分Excel预估
+     *
+     * @param exportExcel 绘制完成的Excel
+     * @param excelFile   目标文件
+     */
+    private void writeExcel(ExportExcel<T> exportExcel, File excelFile) throws IOException {
+        File tempFile = new File(excelFile.getParentFile(), excelFile.getName() + ".tmp");
+        try {
+            this.exportProgress.checkCancelled();
+            try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(tempFile))) {
+                exportExcel.write(outputStream);
+            }
+            Files.move(tempFile.toPath(), excelFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            this.disposeOnFailure(exportExcel, e);
+            tempFile.delete();
+            throw e;
+        }
+        this.exportMetrics.add(exportExcel.getExportMetrics());
+        this.partitionEstimator.onExcelWritten(exportExcel.getDataRowCount(), this.tableHeaderColNum, exportExcel.getExportMetrics().getByteCount());
+    }
+
+    /**
+     * 获取追加导出的第几个Excel的文件名：第一个为 fileName.xlsx，之后为 fileName(n).xlsx
+     *
+     * @param fileName
+     * @param excelIndex 第几个Excel
+     * @return
+     */
+    private String getAppendFileName(String fileName, int excelIndex) {
+        return excelIndex == 1 ? fileName + ".xlsx" : this.getFileNameInZip(fileName, excelIndex);
+    }
+
+    /**
+     * 将Excel写入压缩包，汇总Excel的指标，并用Excel的实际大小修正本次导出的分Excel预估
+     *
+     * @param excelZipWriter 压缩包
+     * @param fileName
+     * @param excelIndex     第几个Excel
+     * @param exportExcel    绘制完成的Excel
+     * @throws IOException
+     */
+    private void putExcel(ExcelZipWriter excelZipWriter, String fileName, int excelIndex, ExportExcel<T> exportExcel) throws IOException {
+        long zipStartNanos = System.nanoTime();
+        long byteNum;
+        try {
+            this.exportListener.onPhaseStart(ExportPhase.ZIP);
+            byteNum = excelZipWriter.putExcel(this.getFileNameInZip(fileName, excelIndex), exportExcel);
+        } catch (IOException | RuntimeException e) {
+            this.disposeOnFailure(exportExcel, e);
+            throw e;
+        }
+        long durationNanos = System.nanoTime() - zipStartNanos;
+
+        this.exportMetrics.add(exportExcel.getExportMetrics());
+        this.exportMetrics.addPhaseNanos(ExportPhase.ZIP, durationNanos);
+        this.exportListener.onPhaseEnd(ExportPhase.ZIP, durationNanos, this.exportMetrics);
+        this.partitionEstimator.onExcelWritten(exportExcel.getDataRowCount(), this.tableHeaderColNum, byteNum);
+    }
+
+    /**
+     * 并行导出时将Excel写入压缩包：先在当前线程中把Excel写出至<field>spillDir</field>中的临时文件（序列化、压缩xlsx），
+     * 只有复制至压缩包时才需要加锁，多个Excel的写出可以同时进行。ZIP阶段的耗时从拿到锁开始计算
+     * 这是用磁盘空间换并行度的取舍：同时最多有parallelism个临时文件，写入压缩包后立即删除
+     *
+     * @param excelZipWriter 压缩包
+     * @param fileName
+     * @param excelIndex     第几个Excel
+     * @param exportExcel    绘制完成的Excel
+     * @throws IOException
+     */
+    private void putExcelInParallel(ExcelZipWriter excelZipWriter, String fileName, int excelIndex, ExportExcel<T> exportExcel) throws IOException {
+        File tempFile = null;
+        try {
+            try {
+                tempFile = File.createTempFile("export-excel", ".xlsx", this.spillDir);
+                try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(tempFile))) {
+                    exportExcel.write(outputStream);
                 }
+            } catch (IOException | RuntimeException e) {
+                this.disposeOnFailure(exportExcel, e);
+                throw e;
+            }
+
+            this.exportListener.onPhaseStart(ExportPhase.ZIP);
+            long durationNanos = excelZipWriter.putFile(this.getFileNameInZip(fileName, excelIndex), tempFile);
+
+            this.exportMetrics.add(exportExcel.getExportMetrics());
+            this.exportMetrics.addPhaseNanos(ExportPhase.ZIP, durationNanos);
+            this.exportListener.onPhaseEnd(ExportPhase.ZIP, durationNanos, this.exportMetrics);
+            this.partitionEstimator.onExcelWritten(exportExcel.getDataRowCount(), this.tableHeaderColNum, exportExcel.getExportMetrics().getByteCount());
+        } finally {
+            if (tempFile != null) {
+                tempFile.delete();
             }
+        }
+    }
+
+    /**
+     * 导出失败时关闭Excel、删除流式导出的临时文件，关闭时的异常附加在导出异常上
+     *
+     * @param exportExcel 绘制完成或者绘制失败的Excel
+     * @param e           导出异常
+     */
+    private void disposeOnFailure(ExportExcel<T> exportExcel, Exception e) {
+        try {
+            exportExcel.dispose();
+        } catch (IOException disposeException) {
+            e.addSuppressed(disposeException);
+        }
+    }
+
+    /**
+     * 估算导出的单元格数（包含表头），用于导出调度的准入控制
+     *
+     * @param estimatedRowCount 估算的数据行数，小于0时按List数据源的行数计算
+     * @return 数据源是迭代器且没有估算行数时返回-1
+     */
+    long estimateCellCount(long estimatedRowCount) {
+        long rowCount = estimatedRowCount >= 0 ? estimatedRowCount : (this.tableData != null ? this.tableData.size() : -1);
+        if (rowCount < 0) {
+            return -1;
+        }
+        TableHeaderLayout tableHeaderLayout = TableHeaderLayout.of(this.tableHeaderList);
+        return (rowCount + tableHeaderLayout.getRowNum()) * tableHeaderLayout.getColNum();
+    }
+
+    /**
+     * 按分Excel策略获取下一个Excel的数据行数
+     *
+     * @return
+     */
+    private long getExcelMaxRows() {
+        return this.partitionEstimator.getExcelMaxRows(this.tableHeaderRowNum, this.tableHeaderColNum);
+    }
+
+    /**
+     * 获取Excel在压缩包中的文件名
+     *
+     * @param fileName
+     * @param excelIndex 第几个Excel
+     * @return
+     */
+    private String getFileNameInZip(String fileName, int excelIndex) {
+        return fileName + "(" + excelIndex + ").xlsx";
+    }
+
+    public Integer getRowAccessWindowSize() {
+        return rowAccessWindowSize;
+    }
+
+    /**
+     * 设置流式导出时内存中保留的行数，小于等于0时不使用流式导出
+     *
+     * @param rowAccessWindowSize
+     */
+    public void setRowAccessWindowSize(Integer rowAccessWindowSize) {
+        this.rowAccessWindowSize = rowAccessWindowSize;
+    }
+
+    public PartitionPolicy getPartitionPolicy() {
+        return partitionPolicy;
+    }
+
+    /**
+     * 设置分Sheet、分Excel策略
+     *
+     * @param partitionPolicy
+     * @see PartitionPolicy
+     */
+    public void setPartitionPolicy(PartitionPolicy partitionPolicy) {
+        this.partitionPolicy = partitionPolicy;
+    }
+
+    public ColumnWidthPolicy getColumnWidthPolicy() {
+        return columnWidthPolicy;
+    }
+
+    /**
+     * 设置列宽策略，每个Sheet按自己的数据抽样估算列宽
+     *
+     * @param columnWidthPolicy 为null时使用固定列宽
+     * @see ColumnWidthPolicy
+     */
+    public void setColumnWidthPolicy(ColumnWidthPolicy columnWidthPolicy) {
+        this.columnWidthPolicy = columnWidthPolicy == null ? ColumnWidthPolicy.fixed() : columnWidthPolicy;
+    }
+
+    /**
+     * 获取最近一次（或正在进行的）导出的进度，可以在其他线程中查看进度、取消导出
+     *
+     * @return
+     */
+    public ExportProgress getExportProgress() {
+        return exportProgress;
+    }
 
-            return zipFilePath;
+    public ExportFormat getExportFormat() {
+        return exportFormat;
+    }
+
+    /**
+     * 设置导出文件格式，CSV、TSV时不分区、不压缩，导出的文件名为 fileName.csv | fileName.tsv
+     *
+     * @param exportFormat
+     * @see ExportFormat
+     */
+    public void setExportFormat(ExportFormat exportFormat) {
+        this.exportFormat = exportFormat == null ? ExportFormat.XLSX : exportFormat;
+    }
+
+    public ExcelTemplate getExcelTemplate() {
+        return excelTemplate;
+    }
+
+    /**
+     * 设置工作簿模板，每个Excel从模板创建
+     *
+     * @param excelTemplate
+     * @see ExcelTemplate
+     */
+    public void setExcelTemplate(ExcelTemplate excelTemplate) {
+        this.excelTemplate = excelTemplate;
+    }
+
+    public ExportListener getExportListener() {
+        return exportListener;
+    }
+
+    /**
+     * 设置导出过程监听器，并行导出时会在多个线程中同时回调
+     *
+     * @param exportListener 为null时不监听
+     * @see ExportListener
+     */
+    public void setExportListener(ExportListener exportListener) {
+        this.exportListener = exportListener == null ? ExportListener.NONE : exportListener;
+    }
+
+    /**
+     * 获取最近一次导出的汇总指标
+     *
+     * @return
+     */
+    public ExportMetrics getExportMetrics() {
+        return exportMetrics;
+    }
+
+    public Integer getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * 设置同时绘制的Excel数，大于1时多个Excel并行导出
+     * 每个Excel在各自的线程中绘制并写出至临时文件（见<method>setSpillDir</method>），只有复制至压缩包时依次进行；
+     * 任何一个Excel失败时停止拉取数据，取消其他Excel并等待正在执行的Excel结束
+     *
+     * @param parallelism
+     */
+    public void setParallelism(Integer parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * 设置并行导出使用的线程池，由调用方负责关闭
+     *
+     * @param executor
+     */
+    public void setExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    public File getSpillDir() {
+        return spillDir;
+    }
+
+    /**
+     * 设置并行导出时Excel的临时文件目录，不设置时使用系统的临时目录
+     * 同时最多有parallelism个临时文件，每个的大小与导出的Excel相同
+     *
+     * @param spillDir
+     */
+    public void setSpillDir(File spillDir) {
+        this.spillDir = spillDir;
+    }
+
+    /**
+     * 导出至本地目录，按导出的文件名创建文件
+     */
+    private static class FileOutputProvider implements ExcelOutputProvider, Closeable {
+        private final File exportDir;
+        private File file;
+        private OutputStream outputStream;
+
+        private FileOutputProvider(File exportDir) {
+            this.exportDir = exportDir;
+        }
+
+        @Override
+        public OutputStream open(String outputFileName) throws IOException {
+            this.file = new File(this.exportDir, outputFileName);
+            this.outputStream = new BufferedOutputStream(new FileOutputStream(this.file));
+            return this.outputStream;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (this.outputStream != null) {
+                this.outputStream.close();
+            }
+        }
+
+        private void deleteFile() {
+            if (this.file != null) {
+                this.file.delete();
+            }
         }
-        return xlsxFilePath;
     }
 }
@@ -0,0 +1,193 @@
+package export.excel;
+
+/**
+ * @author deng-zj
+ * @date 2026-10-17
+ * @description 导出数据的分Sheet、分Excel策略
+ *
+ * 提供了三种策略：
+ * 1、<method>byRowCount</method> 按行数拆分：每个Sheet固定行数，每个Excel固定Sheet数
+ * 2、<method>byExcelRowLimit</method> 按xlsx单个Sheet的行数上限（1048576行，包含表头）拆分Sheet，只导出一个Excel
+ * 3、<method>byEstimatedBytes</method> 按Excel的预估大小拆分Excel：根据每个单元格的平均字节数预估每个Excel的行数，
+ * 每写完一个Excel就用实际大小修正单元格的平均字节数（自适应）
+ * 注：策略对象不可变，可以在多次导出、多个导出对象之间共用；自适应修正的平均字节数只在一次导出内有效，保存在每次导出创建的<class>Estimator</class>中
+ * @since JDK1.8
+ */
+public class PartitionPolicy {
+
+    /**
+     * xlsx单个Sheet的最大行数
+     */
+    public static final int EXCEL_MAX_ROWS = 1048576;
+
+    /**
+     * 预估时每个单元格的默认字节数（xlsx压缩后）
+     */
+    private static final double DEFAULT_BYTES_PER_CELL = 10;
+
+    /**
+     * 每个Sheet的数据行数
+     */
+    private final int sheetMaxRows;
+
+    /**
+     * 每个Excel的Sheet数，小于等于0时不限制
+     */
+    private final int excelMaxSheets;
+
+    /**
+     * 每个Excel的预估最大字节数，小于等于0时不限制
+     */
+    private final long excelMaxBytes;
+
+    private PartitionPolicy(int sheetMaxRows, int excelMaxSheets, long excelMaxBytes) {
+        if (sheetMaxRows <= 0) {
+            throw new IllegalArgumentException("每个Sheet的数据行数必须大于0");
+        }
+        this.sheetMaxRows = sheetMaxRows;
+        this.excelMaxSheets = excelMaxSheets;
+        this.excelMaxBytes = excelMaxBytes;
+    }
+
+    /**
+     * 按行数拆分
+     *
+     * @param sheetMaxRows   每个Sheet的数据行数
+     * @param excelMaxSheets 每个Excel的Sheet数，小于等于0时不限制
+     * @return
+     */
+    public static PartitionPolicy byRowCount(int sheetMaxRows, int excelMaxSheets) {
+        return new PartitionPolicy(sheetMaxRows, excelMaxSheets, -1);
+    }
+
+    /**
+     * 按xlsx单个Sheet的行数上限拆分Sheet，只导出一个Excel
+     * 数据量大时建议同时开启流式导出
+     *
+     * @return
+     */
+    public static PartitionPolicy byExcelRowLimit() {
+        return new PartitionPolicy(EXCEL_MAX_ROWS, -1, -1);
+    }
+
+    /**
+     * 按Excel的预估大小拆分Excel，Sheet按xlsx的行数上限拆分
+     *
+     * @param excelMaxBytes 每个Excel的预估最大字节数
+     * @return
+     */
+    public static PartitionPolicy byEstimatedBytes(long excelMaxBytes) {
+        return byEstimatedBytes(excelMaxBytes, EXCEL_MAX_ROWS);
+    }
+
+    /**
+     * 按Excel的预估大小拆分Excel
+     *
+     * @param excelMaxBytes 每个Excel的预估最大字节数
+     * @param sheetMaxRows  每个Sheet的数据行数
+     * @return
+     */
+    public static PartitionPolicy byEstimatedBytes(long excelMaxBytes, int sheetMaxRows) {
+        if (excelMaxBytes <= 0) {
+            throw new IllegalArgumentException("每个Excel的预估最大字节数必须大于0");
+        }
+        return new PartitionPolicy(sheetMaxRows, -1, excelMaxBytes);
+    }
+
+    /**
+     * 获取每个Sheet的数据行数，不超过xlsx的行数上限
+     *
+     * @param tableHeaderRowNum 表头总行数
+     * @return
+     */
+    public int getSheetMaxRows(int tableHeaderRowNum) {
+        return Math.min(this.sheetMaxRows, EXCEL_MAX_ROWS - tableHeaderRowNum);
+    }
+
+    /**
+     * 获取每个Excel的数据行数，按预估大小拆分时使用每个单元格的默认字节数预估
+     *
+     * @param tableHeaderRowNum 表头总行数
+     * @param columnNum         表格总列数
+     * @return
+     */
+    public long getExcelMaxRows(int tableHeaderRowNum, int columnNum) {
+        return this.getExcelMaxRows(tableHeaderRowNum, columnNum, DEFAULT_BYTES_PER_CELL);
+    }
+
+    /**
+     * 创建一次导出使用的预估器
+     *
+     * @return
+     */
+    Estimator newEstimator() {
+        return new Estimator(this);
+    }
+
+    private long getExcelMaxRows(int tableHeaderRowNum, int columnNum, double bytesPerCell) {
+        long excelMaxRows = Long.MAX_VALUE;
+        if (this.excelMaxSheets > 0) {
+            excelMaxRows = (long) this.getSheetMaxRows(tableHeaderRowNum) * this.excelMaxSheets;
+        }
+        if (this.excelMaxBytes > 0) {
+            long estimatedRows = (long) (this.excelMaxBytes / (bytesPerCell * Math.max(columnNum, 1)));
+            excelMaxRows = Math.min(excelMaxRows, Math.max(estimatedRows, 1));
+        }
+        return excelMaxRows;
+    }
+
+    @Override
+    public String toString() {
+        return "PartitionPolicy{" +
+                "sheetMaxRows=" + sheetMaxRows +
+                ", excelMaxSheets=" + excelMaxSheets +
+                ", excelMaxBytes=" + excelMaxBytes +
+                '}';
+    }
+
+    /**
+     * 一次导出的分Excel预估：用已经写出的Excel的实际大小修正每个单元格的平均字节数，导出结束后丢弃
+     * 并行导出时多个线程会同时修正，取最近一次写出的结果
+     */
+    static final class Estimator {
+
+        private final PartitionPolicy partitionPolicy;
+
+        /**
+         * 每个单元格的平均字节数，根据本次导出已经写出的Excel修正
+         */
+        private volatile double bytesPerCell = DEFAULT_BYTES_PER_CELL;
+
+        private Estimator(PartitionPolicy partitionPolicy) {
+            this.partitionPolicy = partitionPolicy;
+        }
+
+        /**
+         * 获取下一个Excel的数据行数
+         *
+         * @param tableHeaderRowNum 表头总行数
+         * @param columnNum         表格总列数
+         * @return
+         */
+        long getExcelMaxRows(int tableHeaderRowNum, int columnNum) {
+            return this.partitionPolicy.getExcelMaxRows(tableHeaderRowNum, columnNum, this.bytesPerCell);
+        }
+
+        /**
+         * 一个Excel写出完成后，用实际大小修正每个单元格的平均字节数
+         *
+         * @param rowNum    Excel的数据行数
+         * @param columnNum 表格总列数
+         * @param byteNum   Excel的实际字节数
+         */
+        void onExcelWritten(long rowNum, int columnNum, long byteNum) {
+            if (rowNum > 0 && columnNum > 0 && byteNum > 0) {
+                this.bytesPerCell = (double) byteNum / (rowNum * columnNum);
+            }
+        }
+
+        double getBytesPerCell() {
+            return bytesPerCell;
+        }
+    }
+}
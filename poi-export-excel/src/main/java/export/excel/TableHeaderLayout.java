@@ -0,0 +1,172 @@
+package export.excel;
+
+import export.entity.TableHeader;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author deng-zj
+ * @date 2026-10-17
+ * @description 表头布局，遍历一次表头树直接计算出每个表头单元格的位置和合并区域
+ * 有子表头的单元格：横跨的列数 = 子孙中叶子表头的个数，只占一行
+ * 叶子表头：只占一列，从所在层级一直合并到表头最后一行
+ * 坐标都是相对于表格左上角的偏移量
+ * @since JDK1.8
+ */
+final class TableHeaderLayout {
+
+    /**
+     * 所有表头单元格，按先序遍历的顺序排列
+     */
+    private final List<HeaderCell> headerCellList = new ArrayList<>();
+
+    /**
+     * 叶子表头，即需要取值的列，按列的先后顺序排列
+     */
+    private final List<TableHeader> columnList = new ArrayList<>();
+
+    /**
+     * 表头总行数
+     */
+    private int rowNum = 0;
+
+    private TableHeaderLayout() {
+    }
+
+    /**
+     * 计算表头布局
+     *
+     * @param tableHeaderList 表头数据
+     * @return
+     */
+    static TableHeaderLayout of(List<TableHeader> tableHeaderList) {
+        TableHeaderLayout tableHeaderLayout = new TableHeaderLayout();
+        tableHeaderLayout.layout(tableHeaderList, 0, 0);
+
+        /**
+         * 表头总行数在遍历完成后才能确定，最后补上叶子表头的合并行数
+         */
+        for (HeaderCell headerCell : tableHeaderLayout.headerCellList) {
+            if (headerCell.tableHeader.getChildren() == null) {
+                headerCell.rowSpan = tableHeaderLayout.rowNum - headerCell.rowIndex;
+            }
+        }
+        return tableHeaderLayout;
+    }
+
+    /**
+     * 布局一层表头
+     *
+     * @param tableHeaderList 同一层级的表头
+     * @param rowIndex        层级
+     * @param colIndex        开始列
+     * @return 这一层表头横跨的列数
+     */
+    private int layout(List<TableHeader> tableHeaderList, int rowIndex, int colIndex) {
+        int colSpan = 0;
+        for (TableHeader tableHeader : tableHeaderList) {
+            this.rowNum = Math.max(this.rowNum, rowIndex + 1);
+            HeaderCell headerCell = new HeaderCell(tableHeader, rowIndex, colIndex + colSpan);
+            this.headerCellList.add(headerCell);
+
+            if (tableHeader.getChildren() != null) {
+                headerCell.colSpan = this.layout(tableHeader.getChildren(), rowIndex + 1, headerCell.colIndex);
+            } else {
+                headerCell.colSpan = 1;
+                this.columnList.add(tableHeader);
+            }
+            colSpan += headerCell.colSpan;
+        }
+        return colSpan;
+    }
+
+    List<HeaderCell> getHeaderCellList() {
+        return Collections.unmodifiableList(headerCellList);
+    }
+
+    List<TableHeader> getColumnList() {
+        return Collections.unmodifiableList(columnList);
+    }
+
+    int getRowNum() {
+        return rowNum;
+    }
+
+    int getColNum() {
+        return columnList.size();
+    }
+
+    /**
+     * 是否与另一个表头布局相同：同一组表头对象，位置和合并区域都相同
+     * 同一个表头列表每次计算出的布局对象不同，但是绘制出的表头块可以共用
+     *
+     * @param other
+     * @return
+     */
+    boolean isSameAs(TableHeaderLayout other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || this.rowNum != other.rowNum || this.headerCellList.size() != other.headerCellList.size()) {
+            return false;
+        }
+        for (int i = 0; i < this.headerCellList.size(); i++) {
+            HeaderCell headerCell = this.headerCellList.get(i);
+            HeaderCell otherHeaderCell = other.headerCellList.get(i);
+            if (headerCell.tableHeader != otherHeaderCell.tableHeader || headerCell.rowIndex != otherHeaderCell.rowIndex
+                    || headerCell.colIndex != otherHeaderCell.colIndex || headerCell.rowSpan != otherHeaderCell.rowSpan
+                    || headerCell.colSpan != otherHeaderCell.colSpan) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 一个表头单元格的位置和合并区域
+     */
+    static final class HeaderCell {
+        private final TableHeader tableHeader;
+        private final int rowIndex;
+        private final int colIndex;
+        private int rowSpan = 1;
+        private int colSpan;
+
+        private HeaderCell(TableHeader tableHeader, int rowIndex, int colIndex) {
+            this.tableHeader = tableHeader;
+            this.rowIndex = rowIndex;
+            this.colIndex = colIndex;
+        }
+
+        TableHeader getTableHeader() {
+            return tableHeader;
+        }
+
+        int getRowIndex() {
+            return rowIndex;
+        }
+
+        int getColIndex() {
+            return colIndex;
+        }
+
+        int getRowSpan() {
+            return rowSpan;
+        }
+
+        int getColSpan() {
+            return colSpan;
+        }
+
+        /**
+         * 是否需要合并
+         *
+         * @return
+         */
+        boolean isMerged() {
+            return rowSpan > 1 || colSpan > 1;
+        }
+    }
+}
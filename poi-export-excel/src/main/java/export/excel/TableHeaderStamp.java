@@ -0,0 +1,157 @@
+package export.excel;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.CellRangeAddress;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author deng-zj
+ * @date 2026-10-17
+ * @description 绘制好的表头块：每个表头单元格的内容和样式、列宽、合并区域都只计算一次，之后直接复制到每个Sheet
+ * 样式属于工作簿，所以一个表头块只能在创建它的工作簿中使用；从模板创建的工作簿样式下标与模板相同，可以用<method>copyTo</method>复制模板的表头块
+ * 坐标都是相对于表格左上角的偏移量
+ * @since JDK1.8
+ */
+final class TableHeaderStamp {
+
+    private final TableHeaderLayout tableHeaderLayout;
+
+    /**
+     * 合并区域内被覆盖单元格的样式，表头不添加边框时为null
+     */
+    private final CellStyle mergedBorderCellStyle;
+
+    private final List<StampCell> stampCellList = new ArrayList<>();
+    private final List<int[]> columnWidthList = new ArrayList<>();
+    private final List<CellRangeAddress> mergedRegionList = new ArrayList<>();
+
+    TableHeaderStamp(TableHeaderLayout tableHeaderLayout, CellStyle mergedBorderCellStyle) {
+        this.tableHeaderLayout = tableHeaderLayout;
+        this.mergedBorderCellStyle = mergedBorderCellStyle;
+    }
+
+    void addCell(int rowIndex, int colIndex, String headerText, CellStyle cellStyle) {
+        this.stampCellList.add(new StampCell(rowIndex, colIndex, headerText, cellStyle));
+    }
+
+    void addColumnWidth(int colIndex, int width) {
+        this.columnWidthList.add(new int[]{colIndex, width});
+    }
+
+    void addMergedRegion(int rowIndex, int rowSpan, int colIndex, int colSpan) {
+        this.mergedRegionList.add(new CellRangeAddress(rowIndex, rowIndex + rowSpan - 1, colIndex, colIndex + colSpan - 1));
+    }
+
+    /**
+     * 将表头单元格、列宽复制到Sheet
+     *
+     * @param sheet
+     * @param rowIndex 开始<行>下标
+     * @param colIndex 开始<列>下标
+     * @return 复制的单元格数
+     */
+    int drawCells(Sheet sheet, int rowIndex, int colIndex) {
+        for (StampCell stampCell : this.stampCellList) {
+            Cell cell = getOrCreateCell(sheet, rowIndex + stampCell.rowIndex, colIndex + stampCell.colIndex);
+            cell.setCellValue(stampCell.headerText);
+            cell.setCellStyle(stampCell.cellStyle);
+        }
+        for (int[] columnWidth : this.columnWidthList) {
+            sheet.setColumnWidth(colIndex + columnWidth[0], columnWidth[1]);
+        }
+        return this.stampCellList.size();
+    }
+
+    /**
+     * 将合并区域复制到Sheet
+     * 同一个表头的合并区域由表头树计算得出，互不重叠；表格绘制在Sheet中已有表格的下方时不需要再逐个校验，一次性添加。
+     * 表格绘制在调用方指定的位置时可能与已有的合并区域重叠，需要逐个校验，重叠时抛出<class>IllegalStateException</class>
+     *
+     * @param sheet
+     * @param rowIndex 开始<行>下标
+     * @param colIndex 开始<列>下标
+     * @param validate 是否校验与Sheet中已有的合并区域重叠
+     */
+    void merge(Sheet sheet, int rowIndex, int colIndex, boolean validate) {
+        for (CellRangeAddress relativeRegion : this.mergedRegionList) {
+            CellRangeAddress mergedRegion = new CellRangeAddress(rowIndex + relativeRegion.getFirstRow(), rowIndex + relativeRegion.getLastRow(),
+                    colIndex + relativeRegion.getFirstColumn(), colIndex + relativeRegion.getLastColumn());
+            if (validate) {
+                sheet.addMergedRegion(mergedRegion);
+            } else {
+                sheet.addMergedRegionUnsafe(mergedRegion);
+            }
+            if (this.mergedBorderCellStyle == null) {
+                continue;
+            }
+
+            /**
+             * 合并区域内被覆盖的单元格只需要边框，保证合并后的单元格四周都有边框
+             */
+            for (int i = mergedRegion.getFirstRow(); i <= mergedRegion.getLastRow(); i++) {
+                for (int j = mergedRegion.getFirstColumn(); j <= mergedRegion.getLastColumn(); j++) {
+                    if (i != mergedRegion.getFirstRow() || j != mergedRegion.getFirstColumn()) {
+                        getOrCreateCell(sheet, i, j).setCellStyle(this.mergedBorderCellStyle);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 将表头块复制给另一个工作簿使用，样式按下标从该工作簿中取得
+     * 只用于从模板创建的工作簿：工作簿是模板的字节副本，样式下标与模板相同
+     *
+     * @param workbook
+     * @return
+     */
+    TableHeaderStamp copyTo(Workbook workbook) {
+        TableHeaderStamp tableHeaderStamp = new TableHeaderStamp(this.tableHeaderLayout,
+                this.mergedBorderCellStyle == null ? null : workbook.getCellStyleAt(this.mergedBorderCellStyle.getIndex()));
+        for (StampCell stampCell : this.stampCellList) {
+            tableHeaderStamp.addCell(stampCell.rowIndex, stampCell.colIndex, stampCell.headerText, workbook.getCellStyleAt(stampCell.cellStyle.getIndex()));
+        }
+        tableHeaderStamp.columnWidthList.addAll(this.columnWidthList);
+        tableHeaderStamp.mergedRegionList.addAll(this.mergedRegionList);
+        return tableHeaderStamp;
+    }
+
+    TableHeaderLayout getTableHeaderLayout() {
+        return tableHeaderLayout;
+    }
+
+    private static Cell getOrCreateCell(Sheet sheet, int rowIndex, int colIndex) {
+        Row row = sheet.getRow(rowIndex);
+        if (row == null) {
+            row = sheet.createRow(rowIndex);
+        }
+        Cell cell = row.getCell(colIndex);
+        if (cell == null) {
+            cell = row.createCell(colIndex);
+        }
+        return cell;
+    }
+
+    /**
+     * 一个表头单元格
+     */
+    private static final class StampCell {
+        private final int rowIndex;
+        private final int colIndex;
+        private final String headerText;
+        private final CellStyle cellStyle;
+
+        private StampCell(int rowIndex, int colIndex, String headerText, CellStyle cellStyle) {
+            this.rowIndex = rowIndex;
+            this.colIndex = colIndex;
+            this.headerText = headerText;
+            this.cellStyle = cellStyle;
+        }
+    }
+}
@@ -1,17 +1,1433 @@
+import export.entity.CellStyleRule;
 import export.entity.TableHeader;
+import export.entity.TableHeaderBuilder;
+import export.excel.ColumnWidthPolicy;
+import export.excel.ExcelOutputProvider;
+import export.excel.ExcelTemplate;
 import export.excel.ExportExcel;
+import export.excel.ExportFormat;
+import export.excel.ExportFuture;
+import export.excel.ExportListener;
+import export.excel.ExportMetrics;
+import export.excel.ExportPhase;
+import export.excel.ExportScheduler;
+import export.excel.FastExportExcel;
 import export.excel.NomalExportExcel;
+import export.excel.PartitionPolicy;
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.util.DefaultTempFileCreationStrategy;
+import org.apache.poi.util.TempFile;
 import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.ZipInputStream;
 
 public class TestExportExcel {
 
+    @Test
+    public void test03() throws IOException {
+        List<TableHeader> tableHeaderList = new ArrayList<>();
+        for (int j = 0; j < 2; j++) {
+            TableHeader tableHeader = new TableHeader();
+            tableHeader.setHeaderText("第" + j + "组");
+
+            List<TableHeader> children = new ArrayList<>();
+            for (int k = 0; k < 3; k++) {
+                TableHeader child = new TableHeader();
+                child.setHeaderText("第" + j + "," + k + "列");
+                child.setField("field" + j + k);
+                children.add(child);
+            }
+            tableHeader.setChildren(children);
+            tableHeaderList.add(tableHeader);
+        }
+
+        List<Map<String, String>> tableData = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Map<String, String> rowData = new HashMap<>();
+            for (int j = 0; j < 2; j++) {
+                for (int k = 0; k < 3; k++) {
+                    rowData.put("field" + j + k, i + "," + j + k);
+                }
+            }
+            tableData.add(rowData);
+        }
+
+        /**
+         * 流式导出：内存中只保留50行，追加两个表格，再在已写出的行之后指定下标绘制一个表格
+         */
+        ExportExcel exportExcel = new ExportExcel(50);
+        XSSFWorkbook xssfWorkbook = exportExcel.createExcel("streaming");
+        Assert.assertTrue(exportExcel.getWorkbook() instanceof SXSSFWorkbook);
+        Assert.assertSame(((SXSSFWorkbook) exportExcel.getWorkbook()).getXSSFWorkbook(), xssfWorkbook);
+        exportExcel.drawTable(tableHeaderList, tableData);
+        exportExcel.drawTable(tableHeaderList, tableData);
+        exportExcel.drawTable(tableHeaderList, tableData, exportExcel.getNowMaxRowNums() + 1, 2);
+
+        /**
+         * 相同样式的单元格共用同一个样式
+         */
+        Assert.assertTrue(exportExcel.getCellStyleCount() < 20);
+
+        File file = new File(System.getProperty("java.io.tmpdir"), "test03.xlsx");
+        exportExcel.write(file.getPath());
+
+        XSSFWorkbook workbook = new XSSFWorkbook(new FileInputStream(file));
+        XSSFSheet sheet = workbook.getSheetAt(0);
+        Assert.assertEquals("第0组", sheet.getRow(0).getCell(0).getStringCellValue());
+        Assert.assertEquals("999,12", sheet.getRow(1001).getCell(5).getStringCellValue());
+        Assert.assertEquals("0,00", sheet.getRow(1006).getCell(0).getStringCellValue());
+        Assert.assertEquals("999,12", sheet.getRow(3008).getCell(7).getStringCellValue());
+        Assert.assertEquals(6, sheet.getNumMergedRegions());
+        workbook.close();
+        file.delete();
+    }
+
+    @Test
+    public void test04() throws IOException {
+        String[] fields = new String[]{"a.name", "list[1].name", "count", "b.data[0].field_1_1_1.name"};
+        List<TableHeader> tableHeaderList = new ArrayList<>();
+        for (String field : fields) {
+            TableHeader tableHeader = new TableHeader();
+            tableHeader.setHeaderText(field);
+            tableHeader.setField(field);
+            tableHeaderList.add(tableHeader);
+        }
+
+        Map<String, String> nameMap = new HashMap<>();
+        nameMap.put("name", "name是谁");
+        Map<String, Map<String, String>> dataMap = new HashMap<>();
+        dataMap.put("field_1_1_1", nameMap);
+        List<Map<String, Map<String, String>>> dataList = new ArrayList<>();
+        dataList.add(dataMap);
+
+        List<C> tableData = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            A a = new A();
+            a.setName("name" + i);
+            List<A> list = new ArrayList<>();
+            list.add(new A());
+            list.add(a);
+            B b = new B();
+            b.setData(dataList);
+
+            C c = new C();
+            c.setA(a);
+            c.setList(list);
+            c.setCount(i);
+            c.setB(i % 2 == 0 ? b : null);
+            tableData.add(c);
+        }
+
+        ExportExcel exportExcel = new ExportExcel();
+        exportExcel.createExcel("bean");
+        exportExcel.drawTable(tableHeaderList, tableData);
+
+        File file = new File(System.getProperty("java.io.tmpdir"), "test04.xlsx");
+        exportExcel.write(file.getPath());
+
+        XSSFWorkbook workbook = new XSSFWorkbook(new FileInputStream(file));
+        XSSFSheet sheet = workbook.getSheetAt(0);
+        Assert.assertEquals("name7", sheet.getRow(8).getCell(0).getStringCellValue());
+        Assert.assertEquals("name7", sheet.getRow(8).getCell(1).getStringCellValue());
+        Assert.assertEquals("7", sheet.getRow(8).getCell(2).getStringCellValue());
+        Assert.assertEquals("", sheet.getRow(8).getCell(3).getStringCellValue());
+        Assert.assertEquals("name是谁", sheet.getRow(9).getCell(3).getStringCellValue());
+        workbook.close();
+        file.delete();
+    }
+
+    @Test
+    public void test05() throws IOException {
+        List<TableHeader> tableHeaderList = new TableHeaderBuilder<C>()
+                .column("名称", c -> c.getA().getName(), 20)
+                .group("明细", new TableHeaderBuilder<C>()
+                        .column("第二个名称", c -> c.getList().get(1).getName())
+                        .column("数量", C::getCount))
+                .build();
+
+        List<C> tableData = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            A a = new A();
+            a.setName("name" + i);
+            List<A> list = new ArrayList<>();
+            list.add(new A());
+            list.add(a);
+
+            C c = new C();
+            c.setA(a);
+            c.setList(list);
+            c.setCount(i);
+            tableData.add(c);
+        }
+
+        ExportExcel<C> exportExcel = new ExportExcel<>();
+        exportExcel.createExcel("extractor");
+        exportExcel.drawTable(tableHeaderList, tableData);
+
+        File file = new File(System.getProperty("java.io.tmpdir"), "test05.xlsx");
+        exportExcel.write(file.getPath());
+
+        XSSFWorkbook workbook = new XSSFWorkbook(new FileInputStream(file));
+        XSSFSheet sheet = workbook.getSheetAt(0);
+        Assert.assertEquals("明细", sheet.getRow(0).getCell(1).getStringCellValue());
+        Assert.assertEquals("数量", sheet.getRow(1).getCell(2).getStringCellValue());
+        Assert.assertEquals("name7", sheet.getRow(9).getCell(0).getStringCellValue());
+        Assert.assertEquals("name7", sheet.getRow(9).getCell(1).getStringCellValue());
+        Assert.assertEquals("7", sheet.getRow(9).getCell(2).getStringCellValue());
+        workbook.close();
+        file.delete();
+    }
+
+    @Test
+    public void test06() throws IOException {
+        List<TableHeader> tableHeaderList = new ArrayList<>();
+        for (int j = 0; j < 5; j++) {
+            TableHeader tableHeader = new TableHeader();
+            tableHeader.setHeaderText("第" + j + "列");
+            tableHeaderList.add(tableHeader);
+        }
+
+        File exportDir = new File(System.getProperty("java.io.tmpdir"), "test06");
+
+        /**
+         * 数据从Stream中拉取，2050行数据分成3个Excel压缩至一个压缩包
+         */
+        Stream<List<String>> tableData = IntStream.range(0, 2050).mapToObj(i -> Arrays.asList(i + ",0", i + ",1", i + ",2", i + ",3", i + ",4"));
+        NomalExportExcel<List<String>> nomalExportExcel = new NomalExportExcel<>(tableHeaderList, tableData);
+        String zipFilePath = nomalExportExcel.export(exportDir.getPath(), "stream");
+        Assert.assertTrue(zipFilePath.endsWith("stream.zip"));
+        java.util.zip.ZipFile zipFile = new java.util.zip.ZipFile(zipFilePath);
+        Assert.assertEquals(3, zipFile.size());
+        zipFile.close();
+
+        /**
+         * 数据从迭代器中拉取，150行数据只有一个Excel，分成两个Sheet
+         */
+        Iterator<List<String>> tableDataIterator = IntStream.range(0, 150).mapToObj(i -> Arrays.asList(i + ",0", i + ",1", i + ",2", i + ",3", i + ",4")).iterator();
+        nomalExportExcel = new NomalExportExcel<>(tableHeaderList, tableDataIterator);
+        String xlsxFilePath = nomalExportExcel.export(exportDir.getPath(), "iterator");
+        Assert.assertTrue(xlsxFilePath.endsWith("iterator.xlsx"));
+
+        XSSFWorkbook workbook = new XSSFWorkbook(new FileInputStream(xlsxFilePath));
+        Assert.assertEquals(2, workbook.getNumberOfSheets());
+        Assert.assertEquals("149,4", workbook.getSheetAt(1).getRow(50).getCell(4).getStringCellValue());
+        Assert.assertNull(workbook.getSheetAt(1).getRow(51));
+        workbook.close();
+
+        for (File file : exportDir.listFiles()) {
+            file.delete();
+        }
+        exportDir.delete();
+    }
+
+    @Test
+    public void test07() throws IOException {
+        List<TableHeader> tableHeaderList = new ArrayList<>();
+        for (int j = 0; j < 5; j++) {
+            TableHeader tableHeader = new TableHeader();
+            tableHeader.setHeaderText("第" + j + "列");
+            tableHeaderList.add(tableHeader);
+        }
+
+        List<List<String>> tableData = new ArrayList<>();
+        for (int i = 0; i < 5500; i++) {
+            tableData.add(Arrays.asList(i + ",0", i + ",1", i + ",2", i + ",3", i + ",4"));
+        }
+
+        /**
+         * 6个Excel，同时绘制4个
+         */
+        File exportDir = new File(System.getProperty("java.io.tmpdir"), "test07");
+        NomalExportExcel<List<String>> nomalExportExcel = new NomalExportExcel<>(tableHeaderList, tableData);
+        nomalExportExcel.setParallelism(4);
+        String zipFilePath = nomalExportExcel.export(exportDir.getPath(), "parallel");
+
+        /**
+         * 导出目录中只有压缩包，并行写出使用的临时文件已经删除
+         */
+        Assert.assertEquals(1, exportDir.listFiles().length);
+
+        java.util.zip.ZipFile zipFile = new java.util.zip.ZipFile(zipFilePath);
+        Assert.assertEquals(6, zipFile.size());
+        XSSFWorkbook workbook = new XSSFWorkbook(zipFile.getInputStream(zipFile.getEntry("parallel(6).xlsx")));
+        Assert.assertEquals("5499,4", workbook.getSheetAt(4).getRow(100).getCell(4).getStringCellValue());
+        workbook.close();
+        zipFile.close();
+
+        /**
+         * 一个Excel写入压缩包失败时，停止拉取剩余的数据
+         */
+        int[] pulledRowNum = {0};
+        Iterator<List<String>> countingIterator = new Iterator<List<String>>() {
+            @Override
+            public boolean hasNext() {
+                return pulledRowNum[0] < tableData.size();
+            }
+
+            @Override
+            public List<String> next() {
+                return tableData.get(pulledRowNum[0]++);
+            }
+        };
+        File spillDir = new File(System.getProperty("java.io.tmpdir"), "test07-spill");
+        spillDir.mkdirs();
+        NomalExportExcel<List<String>> failedExportExcel = new NomalExportExcel<>(tableHeaderList, countingIterator);
+        failedExportExcel.setParallelism(2);
+        failedExportExcel.setSpillDir(spillDir);
+        failedExportExcel.setExportListener(new ExportListener() {
+            @Override
+            public void onPhaseStart(ExportPhase phase) {
+                if (phase == ExportPhase.ZIP) {
+                    throw new IllegalStateException("客户端已断开");
+                }
+            }
+        });
+        try {
+            failedExportExcel.export(exportDir.getPath(), "failed");
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("客户端已断开", e.getMessage());
+        }
+        Assert.assertTrue(pulledRowNum[0] < tableData.size());
+
+        /**
+         * 返回之前等待所有Excel结束，临时文件都已经删除
+         */
+        Assert.assertEquals(0, spillDir.listFiles().length);
+        spillDir.delete();
+
+        for (File file : exportDir.listFiles()) {
+            file.delete();
+        }
+        exportDir.delete();
+    }
+
+    @Test
+    public void test08() throws IOException {
+        List<TableHeader> tableHeaderList = new ArrayList<>();
+        for (int j = 0; j < 5; j++) {
+            TableHeader tableHeader = new TableHeader();
+            tableHeader.setHeaderText("第" + j + "列");
+            tableHeaderList.add(tableHeader);
+        }
+
+        List<List<String>> tableData = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            tableData.add(Arrays.asList(i + ",0", i + ",1", i + ",2", i + ",3", i + ",4"));
+        }
+        File exportDir = new File(System.getProperty("java.io.tmpdir"), "test08");
+
+        /**
+         * 每个Sheet500行，每个Excel2个Sheet：3个Excel
+         */
+        NomalExportExcel<List<String>> nomalExportExcel = new NomalExportExcel<>(tableHeaderList, tableData);
+        nomalExportExcel.setPartitionPolicy(PartitionPolicy.byRowCount(500, 2));
+        java.util.zip.ZipFile zipFile = new java.util.zip.ZipFile(nomalExportExcel.export(exportDir.getPath(), "rowCount"));
+        Assert.assertEquals(3, zipFile.size());
+        zipFile.close();
+
+        /**
+         * 按xlsx的行数上限拆分：只有一个Excel、一个Sheet
+         */
+        nomalExportExcel.setPartitionPolicy(PartitionPolicy.byExcelRowLimit());
+        XSSFWorkbook workbook = new XSSFWorkbook(new FileInputStream(nomalExportExcel.export(exportDir.getPath(), "rowLimit")));
+        Assert.assertEquals(1, workbook.getNumberOfSheets());
+        Assert.assertEquals("2499,4", workbook.getSheetAt(0).getRow(2500).getCell(4).getStringCellValue());
+        workbook.close();
+
+        /**
+         * 按预估大小拆分，并行导出
+         */
+        PartitionPolicy bytesPolicy = PartitionPolicy.byEstimatedBytes(20 * 1024);
+        long defaultExcelMaxRows = bytesPolicy.getExcelMaxRows(1, 5);
+        nomalExportExcel.setPartitionPolicy(bytesPolicy);
+        nomalExportExcel.setParallelism(2);
+        zipFile = new java.util.zip.ZipFile(nomalExportExcel.export(exportDir.getPath(), "bytes"));
+        Assert.assertTrue(zipFile.size() > 1);
+        zipFile.close();
+
+        /**
+         * 自适应修正只在一次导出内有效：策略不变，其他导出对象共用策略、再次导出的结果相同
+         */
+        Assert.assertEquals(defaultExcelMaxRows, bytesPolicy.getExcelMaxRows(1, 5));
+        NomalExportExcel<List<String>> otherExportExcel = new NomalExportExcel<>(tableHeaderList, tableData);
+        otherExportExcel.setPartitionPolicy(bytesPolicy);
+        zipFile = new java.util.zip.ZipFile(otherExportExcel.export(exportDir.getPath(), "bytesFirst"));
+        int firstExcelCount = zipFile.size();
+        zipFile.close();
+        zipFile = new java.util.zip.ZipFile(otherExportExcel.export(exportDir.getPath(), "bytesAgain"));
+        Assert.assertEquals(firstExcelCount, zipFile.size());
+        zipFile.close();
+
+        for (File file : exportDir.listFiles()) {
+            file.delete();
+        }
+        exportDir.delete();
+    }
+
+    @Test
+    public void test09() throws IOException {
+        List<TableHeader> tableHeaderList = new ArrayList<>();
+        for (int j = 0; j < 5; j++) {
+            TableHeader tableHeader = new TableHeader();
+            tableHeader.setHeaderText("第" + j + "列");
+            tableHeaderList.add(tableHeader);
+        }
+
+        List<List<String>> tableData = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) {
+            tableData.add(Arrays.asList(i + ",0", i + ",1", i + ",2", i + ",3", i + ",4"));
+        }
+
+        /**
+         * 只有一个Excel：直接写出xlsx
+         */
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        NomalExportExcel<List<String>> nomalExportExcel = new NomalExportExcel<>(tableHeaderList, tableData.subList(0, 500));
+        Assert.assertEquals("single.xlsx", nomalExportExcel.export(outputStream, "single"));
+        XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()));
+        Assert.assertEquals("499,4", workbook.getSheetAt(4).getRow(100).getCell(4).getStringCellValue());
+        workbook.close();
+
+        /**
+         * 多个Excel：写出压缩包，输出流不会被关闭
+         */
+        outputStream = new ByteArrayOutputStream();
+        WritableByteChannel channel = Channels.newChannel(outputStream);
+        nomalExportExcel = new NomalExportExcel<>(tableHeaderList, tableData);
+        Assert.assertEquals("multiple.zip", nomalExportExcel.export(channel, "multiple"));
+        Assert.assertTrue(channel.isOpen());
+
+        int entryCount = 0;
+        try (ZipInputStream zipInputStream = new ZipInputStream(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            while (zipInputStream.getNextEntry() != null) {
+                entryCount++;
+            }
+        }
+        Assert.assertEquals(2, entryCount);
+    }
+
+    @Test
+    public void test10() throws IOException {
+        /**
+         * | 分组(0,0-2)          | 单列(0-2,3) |
+         * | 子分组(1,0-1) | 空(1-2,2) |        |
+         * | a   | b     |         |          |
+         */
+        TableHeaderBuilder<Map<String, Object>> group = new TableHeaderBuilder<Map<String, Object>>()
+                .column("a", row -> row.get("a"))
+                .column("b", row -> row.get("b"));
+        List<TableHeader> tableHeaderList = new TableHeaderBuilder<Map<String, Object>>()
+                .group("分组", new TableHeaderBuilder<Map<String, Object>>()
+                        .group("子分组", group)
+                        .column("", row -> row.get("c")))
+                .column("单列", row -> row.get("d"))
+                .build();
+
+        Map<String, Object> rowData = new HashMap<>();
+        rowData.put("a", "1");
+        rowData.put("b", "2");
+        rowData.put("c", "3");
+        rowData.put("d", "4");
+
+        ExportExcel<Map<String, Object>> exportExcel = new ExportExcel<>();
+        Workbook workbook = exportExcel.createExcel("表头");
+        exportExcel.drawTable(tableHeaderList, Arrays.asList(rowData));
+
+        XSSFSheet sheet = (XSSFSheet) exportExcel.getSheet();
+        List<String> mergedRegionList = new ArrayList<>();
+        sheet.getMergedRegions().forEach(mergedRegion -> mergedRegionList.add(mergedRegion.formatAsString()));
+        mergedRegionList.sort(String::compareTo);
+        Assert.assertEquals(Arrays.asList("A1:C1", "A2:B2", "C2:C3", "D1:D3"), mergedRegionList);
+        Assert.assertEquals("4", sheet.getRow(3).getCell(3).getStringCellValue());
+
+        /**
+         * 边框在创建单元格时添加：数据单元格、合并区域内被覆盖的单元格都有边框
+         */
+        Assert.assertEquals(BorderStyle.THIN, sheet.getRow(3).getCell(0).getCellStyle().getBorderBottom());
+        Assert.assertEquals(BorderStyle.THIN, sheet.getRow(2).getCell(3).getCellStyle().getBorderBottom());
+
+        /**
+         * 在指定位置绘制表格时校验合并区域，与已有的合并区域重叠时抛出异常，不会写出损坏的Excel
+         */
+        try {
+            exportExcel.drawTable(tableHeaderList, Arrays.asList(rowData), 1, 1);
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertEquals(4, sheet.getNumMergedRegions());
+        }
+        workbook.close();
+    }
+
+    @Test
+    public void test11() throws IOException {
+        List<TableHeader> wideTableHeaderList = new ArrayList<>();
+        for (int j = 0; j < 10; j++) {
+            TableHeader tableHeader = new TableHeader();
+            tableHeader.setHeaderText("第" + j + "列");
+            wideTableHeaderList.add(tableHeader);
+        }
+        List<TableHeader> narrowTableHeaderList = wideTableHeaderList.subList(0, 2);
+
+        ExportExcel<List<String>> exportExcel = new ExportExcel<>();
+        Workbook workbook = exportExcel.createExcel("布局");
+        exportExcel.drawTable(narrowTableHeaderList, Arrays.asList(Arrays.asList("0,0", "0,1")));
+        exportExcel.drawTable(wideTableHeaderList, Arrays.asList(Arrays.asList("0,0", "0,1", "0,2", "0,3", "0,4", "0,5", "0,6", "0,7", "0,8", "0,9")));
+        exportExcel.drawTable(narrowTableHeaderList, Arrays.asList(Arrays.asList("0,0", "0,1")), 0, 12);
+
+        /**
+         * 不创建空的单元格：较宽的表格不会让之前的行变宽，表格之间的间隔行不存在
+         */
+        Sheet sheet = exportExcel.getSheet();
+        Assert.assertEquals(4, sheet.getRow(1).getPhysicalNumberOfCells());
+        Assert.assertNull(sheet.getRow(1).getCell(5));
+        Assert.assertNull(sheet.getRow(2));
+        Assert.assertEquals(10, sheet.getRow(5).getPhysicalNumberOfCells());
+        Assert.assertEquals(6, (int) exportExcel.getNowMaxRowNums());
+        Assert.assertEquals(14, (int) exportExcel.getNowMaxColNums());
+        workbook.close();
+    }
+
+    @Test
+    public void test12() throws IOException {
+        List<TableHeader> tableHeaderList = new TableHeaderBuilder<Map<String, Object>>()
+                .column("金额", row -> row.get("amount"), "number", "#,##0.00")
+                .column("日期", row -> row.get("date"), "date", "")
+                .column("是否有效", row -> row.get("valid"), "boolean", "")
+                .column("自动", row -> row.get("auto"), "auto", "")
+                .column("备注", row -> row.get("remark"))
+                .build();
+
+        List<Map<String, Object>> tableData = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Map<String, Object> rowData = new HashMap<>();
+            rowData.put("amount", i == 0 ? "1234.5" : new java.math.BigDecimal(i));
+            rowData.put("date", java.time.LocalDate.of(2020, 4, 23 + i));
+            rowData.put("valid", i % 2 == 0);
+            rowData.put("auto", i);
+            rowData.put("remark", "备注" + i + "$bg#FF0000");
+            tableData.add(rowData);
+        }
+
+        ExportExcel<Map<String, Object>> exportExcel = new ExportExcel<>();
+        Workbook workbook = exportExcel.createExcel("类型");
+        exportExcel.drawTable(tableHeaderList, tableData);
+
+        /**
+         * 数字、日期、布尔写入原生单元格，只有备注进入共享字符串表
+         */
+        Sheet sheet = exportExcel.getSheet();
+        Assert.assertEquals(1234.5, sheet.getRow(1).getCell(0).getNumericCellValue(), 0);
+        Assert.assertEquals("#,##0.00", sheet.getRow(1).getCell(0).getCellStyle().getDataFormatString());
+        Assert.assertEquals(java.time.LocalDateTime.of(2020, 4, 24, 0, 0), sheet.getRow(2).getCell(1).getLocalDateTimeCellValue());
+        Assert.assertEquals("yyyy-MM-dd", sheet.getRow(2).getCell(1).getCellStyle().getDataFormatString());
+        Assert.assertTrue(sheet.getRow(1).getCell(2).getBooleanCellValue());
+        Assert.assertEquals(2, sheet.getRow(3).getCell(3).getNumericCellValue(), 0);
+        Assert.assertEquals("备注2", sheet.getRow(3).getCell(4).getStringCellValue());
+        Assert.assertEquals(5 + 3, ((XSSFWorkbook) workbook).getSharedStringSource().getUniqueCount());
+
+        /**
+         * 不是数字或者超过15位有效数字时按字符串写入，不会变成NaN或者丢失精度
+         */
+        List<TableHeader> numberTableHeaderList = new TableHeaderBuilder<List<Object>>()
+                .column("数字", row -> row.get(0), "number", "")
+                .build();
+        List<Object> numbers = Arrays.asList("12f", "NaN", Double.POSITIVE_INFINITY, new java.math.BigDecimal("12345678901234567.89"),
+                9007199254740993L, "1e3", 1.5, new java.math.BigDecimal("0.10"));
+        List<List<Object>> numberData = new ArrayList<>();
+        for (Object number : numbers) {
+            numberData.add(Collections.singletonList(number));
+        }
+        ExportExcel<List<Object>> numberExportExcel = new ExportExcel<>();
+        numberExportExcel.createExcel("数字");
+        numberExportExcel.drawTable(numberTableHeaderList, numberData);
+        Sheet numberSheet = numberExportExcel.getSheet();
+        Assert.assertEquals("12f", numberSheet.getRow(1).getCell(0).getStringCellValue());
+        Assert.assertEquals("NaN", numberSheet.getRow(2).getCell(0).getStringCellValue());
+        Assert.assertEquals("Infinity", numberSheet.getRow(3).getCell(0).getStringCellValue());
+        Assert.assertEquals("12345678901234567.89", numberSheet.getRow(4).getCell(0).getStringCellValue());
+        Assert.assertEquals("9007199254740993", numberSheet.getRow(5).getCell(0).getStringCellValue());
+        Assert.assertEquals(1000, numberSheet.getRow(6).getCell(0).getNumericCellValue(), 0);
+        Assert.assertEquals(1.5, numberSheet.getRow(7).getCell(0).getNumericCellValue(), 0);
+        Assert.assertEquals(0.1, numberSheet.getRow(8).getCell(0).getNumericCellValue(), 0);
+        numberExportExcel.getWorkbook().close();
+        workbook.close();
+    }
+
+    @Test
+    public void test13() throws IOException {
+        TableHeader amount = new TableHeader();
+        amount.setHeaderText("金额");
+        amount.setValueType("number");
+        amount.addStyleRule(CellStyleRule.ofRange(null, 0, "#FF0000"))
+                .addStyleRule(CellStyleRule.ofRange(100, null, "0,255,0"));
+
+        TableHeader status = new TableHeader();
+        status.setHeaderText("状态");
+        status.addStyleRule(CellStyleRule.<List<Object>>ofRow(row -> "已取消".equals(row.get(1)), "200,200,200"));
+
+        List<List<Object>> tableData = new ArrayList<>();
+        tableData.add(Arrays.asList(-5, "正常"));
+        tableData.add(Arrays.asList(50, "已取消"));
+        tableData.add(Arrays.asList(500, "正常$bg#0000FF"));
+
+        ExportExcel<List<Object>> exportExcel = new ExportExcel<>();
+        Workbook workbook = exportExcel.createExcel("规则");
+        exportExcel.drawTable(Arrays.asList(amount, status), tableData);
+
+        Sheet sheet = exportExcel.getSheet();
+        Assert.assertEquals("FFFF0000", ((XSSFCellStyle) sheet.getRow(1).getCell(0).getCellStyle()).getFillForegroundXSSFColor().getARGBHex());
+        Assert.assertNull(((XSSFCellStyle) sheet.getRow(2).getCell(0).getCellStyle()).getFillForegroundXSSFColor());
+        Assert.assertEquals("FF00FF00", ((XSSFCellStyle) sheet.getRow(3).getCell(0).getCellStyle()).getFillForegroundXSSFColor().getARGBHex());
+        Assert.assertEquals("FFC8C8C8", ((XSSFCellStyle) sheet.getRow(2).getCell(1).getCellStyle()).getFillForegroundXSSFColor().getARGBHex());
+
+        /**
+         * 兼容 内容$bg颜色
+         */
+        Assert.assertEquals("正常", sheet.getRow(3).getCell(1).getStringCellValue());
+        Assert.assertEquals("FF0000FF", ((XSSFCellStyle) sheet.getRow(3).getCell(1).getCellStyle()).getFillForegroundXSSFColor().getARGBHex());
+        workbook.close();
+
+        /**
+         * 字符串列的规则收到的是原始数据，不是转换后的字符串
+         */
+        TableHeader quantity = new TableHeader();
+        quantity.setHeaderText("数量");
+        quantity.addStyleRule(CellStyleRule.ofValue(value -> (Integer) value < 0, "#FF0000"));
+        ExportExcel<List<Object>> quantityExportExcel = new ExportExcel<>();
+        Workbook quantityWorkbook = quantityExportExcel.createExcel("数量");
+        quantityExportExcel.drawTable(Collections.singletonList(quantity), Arrays.asList(Collections.singletonList(-1), Collections.singletonList(1)));
+        Sheet quantitySheet = quantityExportExcel.getSheet();
+        Assert.assertEquals("-1", quantitySheet.getRow(1).getCell(0).getStringCellValue());
+        Assert.assertEquals("FFFF0000", ((XSSFCellStyle) quantitySheet.getRow(1).getCell(0).getCellStyle()).getFillForegroundXSSFColor().getARGBHex());
+        Assert.assertNull(((XSSFCellStyle) quantitySheet.getRow(2).getCell(0).getCellStyle()).getFillForegroundXSSFColor());
+
+        /**
+         * 规则自身抛出的异常直接抛出，不会被当作数据格式异常忽略
+         */
+        TableHeader broken = new TableHeader();
+        broken.setHeaderText("错误");
+        broken.addStyleRule(CellStyleRule.ofValue(value -> ((String) value).isEmpty(), "#FF0000"));
+        try {
+            quantityExportExcel.drawTable(Collections.singletonList(broken), Collections.singletonList(Collections.singletonList(1)));
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertTrue(e.getCause() instanceof ClassCastException);
+        }
+        quantityWorkbook.close();
+    }
+
+    @Test
+    public void test14() throws IOException {
+        List<TableHeader> tableHeaderList = new ArrayList<>();
+        for (int j = 0; j < 3; j++) {
+            TableHeader tableHeader = new TableHeader();
+            tableHeader.setHeaderText("第" + j + "列");
+            tableHeaderList.add(tableHeader);
+        }
+
+        List<List<String>> tableData = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            tableData.add(Arrays.asList(i + ",0", i + ",1", i + ",2"));
+        }
+
+        Set<ExportPhase> phaseSet = Collections.synchronizedSet(EnumSet.noneOf(ExportPhase.class));
+        AtomicInteger excelWrittenCount = new AtomicInteger();
+        ExportMetrics[] finishedMetrics = new ExportMetrics[1];
+        NomalExportExcel<List<String>> nomalExportExcel = new NomalExportExcel<>(tableHeaderList, tableData);
+        nomalExportExcel.setPartitionPolicy(PartitionPolicy.byRowCount(100, 1));
+        nomalExportExcel.setExportListener(new ExportListener() {
+            @Override
+            public void onPhaseEnd(ExportPhase phase, long durationNanos, ExportMetrics metrics) {
+                phaseSet.add(phase);
+            }
+
+            @Override
+            public void onExcelWritten(ExportMetrics metrics) {
+                excelWrittenCount.incrementAndGet();
+            }
+
+            @Override
+            public void onExportFinished(ExportMetrics metrics) {
+                finishedMetrics[0] = metrics;
+            }
+        });
+        nomalExportExcel.export(new ByteArrayOutputStream(), "指标");
+
+        Assert.assertEquals(EnumSet.allOf(ExportPhase.class), phaseSet);
+        Assert.assertEquals(3, excelWrittenCount.get());
+
+        ExportMetrics metrics = nomalExportExcel.getExportMetrics();
+        Assert.assertSame(metrics, finishedMetrics[0]);
+        Assert.assertEquals(3, metrics.getExcelCount());
+        Assert.assertEquals(250, metrics.getRowCount());
+        Assert.assertEquals((250 + 3) * 3, metrics.getCellCount());
+        Assert.assertTrue(metrics.getByteCount() > 0);
+        Assert.assertTrue(metrics.getRowsPerSecond() > 0);
+    }
+
+    @Test
+    public void test15() throws Exception {
+        List<TableHeader> tableHeaderList = new ArrayList<>();
+        for (int j = 0; j < 3; j++) {
+            TableHeader tableHeader = new TableHeader();
+            tableHeader.setHeaderText("第" + j + "列");
+            tableHeaderList.add(tableHeader);
+        }
+        File exportDir = java.nio.file.Files.createTempDirectory("export").toFile();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        /**
+         * 正常完成：进度为100%
+         */
+        List<List<String>> tableData = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            tableData.add(Arrays.asList(i + ",0", i + ",1", i + ",2"));
+        }
+        ExportFuture exportFuture = new NomalExportExcel<>(tableHeaderList, tableData).exportAsync(exportDir.getPath(), "async", executor);
+        Assert.assertTrue(new File(exportFuture.get(1, TimeUnit.MINUTES)).exists());
+        Assert.assertEquals(250, exportFuture.getProgress().getRowCount());
+        Assert.assertEquals(100, exportFuture.getProgress().getPercent(), 0);
+
+        /**
+         * 取消：数据源没有尽头，只能取消结束，取消后删除不完整的文件
+         */
+        Iterator<List<String>> endlessData = Stream.iterate(0, i -> i + 1).map(i -> Arrays.asList(i + ",0", i + ",1", i + ",2")).iterator();
+        ExportFuture cancelledFuture = new NomalExportExcel<>(tableHeaderList, endlessData).exportAsync(exportDir.getPath(), "cancelled", executor);
+        while (cancelledFuture.getProgress().getRowCount() < 1000) {
+            Thread.sleep(10);
+        }
+        Assert.assertTrue(cancelledFuture.cancel(true));
+        Assert.assertTrue(cancelledFuture.isCancelled());
+        Assert.assertEquals(-1, cancelledFuture.getProgress().getPercent(), 0);
+
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        Assert.assertFalse(new File(exportDir, "cancelled.zip").exists());
+        Assert.assertFalse(new File(exportDir, "cancelled.xlsx").exists());
+        new File(exportDir, "async.xlsx").delete();
+        exportDir.delete();
+    }
+
+    @Test
+    public void test16() throws Exception {
+        TableHeader tableHeader = new TableHeader();
+        tableHeader.setHeaderText("列");
+        List<List<String>> tableData = Arrays.asList(Arrays.asList("1"), Arrays.asList("2"));
+
+        /**
+         * 第一个任务阻塞住唯一的并发数，其余任务排队，按调度规则依次导出
+         */
+        CountDownLatch latch = new CountDownLatch(1);
+        List<String> exportOrder = Collections.synchronizedList(new ArrayList<>());
+        ExcelOutputProvider outputProvider = outputFileName -> {
+            exportOrder.add(outputFileName);
+            if (outputFileName.startsWith("A1")) {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return new ByteArrayOutputStream();
+        };
+
+        ExportScheduler exportScheduler = new ExportScheduler(1, 1000);
+        List<ExportFuture> exportFutureList = new ArrayList<>();
+        exportFutureList.add(exportScheduler.submit("A", 0, -1, new NomalExportExcel<>(Arrays.asList(tableHeader), tableData), outputProvider, "A1"));
+        while (exportScheduler.getRunningJobCount() == 0 || exportOrder.isEmpty()) {
+            Thread.sleep(10);
+        }
+        exportFutureList.add(exportScheduler.submit("A", 0, -1, new NomalExportExcel<>(Arrays.asList(tableHeader), tableData), outputProvider, "A2"));
+        exportFutureList.add(exportScheduler.submit("A", 0, -1, new NomalExportExcel<>(Arrays.asList(tableHeader), tableData), outputProvider, "A3"));
+        exportFutureList.add(exportScheduler.submit("B", 0, -1, new NomalExportExcel<>(Arrays.asList(tableHeader), tableData), outputProvider, "B1"));
+        exportFutureList.add(exportScheduler.submit("A", 10, -1, new NomalExportExcel<>(Arrays.asList(tableHeader), tableData), outputProvider, "A4"));
+        ExportFuture cancelledFuture = exportScheduler.submit("B", 0, -1, new NomalExportExcel<>(Arrays.asList(tableHeader), tableData), outputProvider, "B2");
+        Assert.assertEquals(5, exportScheduler.getQueuedJobCount());
+        Assert.assertEquals(3, exportScheduler.getCellsInFlight());
+        Assert.assertTrue(cancelledFuture.cancel(false));
+        Assert.assertEquals(4, exportScheduler.getQueuedJobCount());
+
+        latch.countDown();
+        for (ExportFuture exportFuture : exportFutureList) {
+            exportFuture.get(1, TimeUnit.MINUTES);
+        }
+        exportScheduler.shutdown();
+        Assert.assertTrue(exportScheduler.awaitTermination(1, TimeUnit.MINUTES));
+
+        /**
+         * 优先级高的先导出，优先级相同时轮流导出每个租户的任务，已取消的任务不再导出
+         */
+        Assert.assertEquals(Arrays.asList("A1.xlsx", "A4.xlsx", "B1.xlsx", "A2.xlsx", "A3.xlsx"), exportOrder);
+        Assert.assertEquals(0, exportScheduler.getCellsInFlight());
+
+        /**
+         * 关闭后取消排队中的任务：立即移出队列，正在导出的任务结束后线程池关闭，不会一直等待
+         */
+        CountDownLatch blockLatch = new CountDownLatch(1);
+        ExcelOutputProvider blockOutputProvider = outputFileName -> {
+            try {
+                blockLatch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new ByteArrayOutputStream();
+        };
+        ExportScheduler shutdownScheduler = new ExportScheduler(1, 1000);
+        ExportFuture runningFuture = shutdownScheduler.submit("A", 0, -1, new NomalExportExcel<>(Arrays.asList(tableHeader), tableData), blockOutputProvider, "running");
+        ExportFuture queuedFuture = shutdownScheduler.submit("B", 0, -1, new NomalExportExcel<>(Arrays.asList(tableHeader), tableData), blockOutputProvider, "queued");
+        Assert.assertEquals(1, shutdownScheduler.getQueuedJobCount());
+        shutdownScheduler.shutdown();
+        Assert.assertTrue(queuedFuture.cancel(false));
+        Assert.assertEquals(0, shutdownScheduler.getQueuedJobCount());
+        blockLatch.countDown();
+        runningFuture.get(1, TimeUnit.MINUTES);
+        Assert.assertTrue(shutdownScheduler.awaitTermination(1, TimeUnit.MINUTES));
+    }
+
+    @Test
+    public void test17() throws IOException {
+        List<TableHeader> tableHeaderList = new TableHeaderBuilder<List<String>>()
+                .group("分组", new TableHeaderBuilder<List<String>>()
+                        .column("第0列", row -> row.get(0), 10)
+                        .column("第1列", row -> row.get(1), 30))
+                .column("第2列", row -> row.get(2))
+                .build();
+        List<List<String>> tableData = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            tableData.add(Arrays.asList(i + ",0", i + ",1", i + ",2"));
+        }
+
+        NomalExportExcel<List<String>> nomalExportExcel = new NomalExportExcel<>(tableHeaderList, tableData);
+        nomalExportExcel.setPartitionPolicy(PartitionPolicy.byRowCount(10, 5));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        nomalExportExcel.export(outputStream, "表头");
+
+        /**
+         * 表头只计算一次，每个Sheet的表头单元格、列宽、合并区域都相同
+         */
+        XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()));
+        Assert.assertEquals(3, workbook.getNumberOfSheets());
+        for (Sheet sheet : workbook) {
+            Assert.assertEquals("分组", sheet.getRow(0).getCell(0).getStringCellValue());
+            Assert.assertEquals("第1列", sheet.getRow(1).getCell(1).getStringCellValue());
+            Assert.assertEquals(30 * 255, sheet.getColumnWidth(1));
+            Assert.assertEquals(Arrays.asList("A1:B1", "C1:C2"), Arrays.asList(sheet.getMergedRegion(0).formatAsString(), sheet.getMergedRegion(1).formatAsString()));
+            Assert.assertEquals(workbook.getSheetAt(0).getRow(0).getCell(0).getCellStyle().getIndex(), sheet.getRow(0).getCell(0).getCellStyle().getIndex());
+            Assert.assertEquals(12, sheet.getPhysicalNumberOfRows());
+        }
+        workbook.close();
+    }
+
+    @Test
+    public void test18() throws IOException {
+        List<TableHeader> tableHeaderList = new TableHeaderBuilder<List<Object>>()
+                .column("名称", row -> row.get(0))
+                .column("金额", row -> row.get(1), "number", "#,##0.00")
+                .build();
+        List<List<Object>> tableData = Arrays.asList(Arrays.asList("a", 1), Arrays.asList("b", 2));
+
+        XSSFWorkbook baseWorkbook = new XSSFWorkbook();
+        baseWorkbook.createSheet("说明").createRow(0).createCell(0).setCellValue("公司名称");
+        ByteArrayOutputStream baseOutputStream = new ByteArrayOutputStream();
+        baseWorkbook.write(baseOutputStream);
+        baseWorkbook.close();
+
+        ExcelTemplate excelTemplate = ExcelTemplate.of(tableHeaderList, new ByteArrayInputStream(baseOutputStream.toByteArray()),
+                exportExcel -> exportExcel.createTableBodyFont().setItalic(true));
+
+        /**
+         * 同一个模板导出多次：说明页保留在最前面，样式全部来自模板，不再创建新的样式
+         */
+        for (int k = 0; k < 2; k++) {
+            NomalExportExcel<List<Object>> nomalExportExcel = new NomalExportExcel<>(tableHeaderList, tableData);
+            nomalExportExcel.setExcelTemplate(excelTemplate);
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            nomalExportExcel.export(outputStream, "模板");
+
+            XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()));
+            Assert.assertEquals(2, workbook.getNumberOfSheets());
+            Assert.assertEquals("公司名称", workbook.getSheetAt(0).getRow(0).getCell(0).getStringCellValue());
+
+            Sheet sheet = workbook.getSheetAt(1);
+            Assert.assertEquals("金额", sheet.getRow(0).getCell(1).getStringCellValue());
+            Assert.assertEquals("#,##0.00", sheet.getRow(2).getCell(1).getCellStyle().getDataFormatString());
+            Assert.assertTrue(workbook.getFontAt(sheet.getRow(1).getCell(0).getCellStyle().getFontIndexAsInt()).getItalic());
+            Assert.assertEquals(1 + excelTemplate.getCellStyleCount(), workbook.getNumCellStyles());
+            workbook.close();
+        }
+
+        /**
+         * 表头块保留在模板中：多级表头的单元格、列宽、合并区域直接复制到每个Sheet
+         */
+        List<TableHeader> groupTableHeaderList = new TableHeaderBuilder<List<Object>>()
+                .group("订单", new TableHeaderBuilder<List<Object>>()
+                        .column("名称", row -> row.get(0), 25)
+                        .column("金额", row -> row.get(1), "number", "#,##0.00"))
+                .build();
+        ExcelTemplate groupExcelTemplate = ExcelTemplate.of(groupTableHeaderList);
+        NomalExportExcel<List<Object>> groupExportExcel = new NomalExportExcel<>(groupTableHeaderList, tableData);
+        groupExportExcel.setExcelTemplate(groupExcelTemplate);
+        groupExportExcel.setPartitionPolicy(PartitionPolicy.byRowCount(1, 2));
+        ByteArrayOutputStream groupOutputStream = new ByteArrayOutputStream();
+        groupExportExcel.export(groupOutputStream, "分组");
+        XSSFWorkbook groupWorkbook = new XSSFWorkbook(new ByteArrayInputStream(groupOutputStream.toByteArray()));
+        Assert.assertEquals(2, groupWorkbook.getNumberOfSheets());
+        for (Sheet sheet : groupWorkbook) {
+            Assert.assertEquals("订单", sheet.getRow(0).getCell(0).getStringCellValue());
+            Assert.assertEquals("金额", sheet.getRow(1).getCell(1).getStringCellValue());
+            Assert.assertEquals("A1:B1", sheet.getMergedRegion(0).formatAsString());
+            Assert.assertEquals(25 * 255, sheet.getColumnWidth(0));
+            Assert.assertTrue(groupWorkbook.getFontAt(sheet.getRow(1).getCell(0).getCellStyle().getFontIndexAsInt()).getBold());
+        }
+        Assert.assertEquals(1 + groupExcelTemplate.getCellStyleCount(), groupWorkbook.getNumCellStyles());
+        groupWorkbook.close();
+    }
+
+    @Test
+    public void test19() throws IOException {
+        List<TableHeader> tableHeaderList = new TableHeaderBuilder<Map<String, Object>>()
+                .group("订单", new TableHeaderBuilder<Map<String, Object>>()
+                        .column("名称", row -> row.get("name"))
+                        .column("金额", row -> row.get("amount"), "number", "#,##0.00"))
+                .column("日期", row -> row.get("date"), "date", "")
+                .column("有效", row -> row.get("valid"), "boolean", "")
+                .build();
+        List<Map<String, Object>> tableData = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Map<String, Object> rowData = new HashMap<>();
+            rowData.put("name", "<A&B>\"" + i + "$bg#FF0000");
+            rowData.put("amount", i * 1.5);
+            rowData.put("date", java.time.LocalDate.of(2020, 4, 23 + i));
+            rowData.put("valid", i % 2 == 0);
+            tableData.add(rowData);
+        }
+
+        /**
+         * 每个Sheet最多5行（包含2行表头），5行数据分成2个Sheet
+         */
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (FastExportExcel<Map<String, Object>> fastExportExcel = new FastExportExcel<>(outputStream)) {
+            fastExportExcel.setSheetMaxRows(5);
+            fastExportExcel.drawTable("快速", tableHeaderList, tableData);
+            Assert.assertEquals(5, fastExportExcel.getDataRowCount());
+        }
+
+        XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()));
+        Assert.assertEquals(2, workbook.getNumberOfSheets());
+        Assert.assertEquals("快速(2)", workbook.getSheetName(1));
+
+        XSSFSheet sheet = workbook.getSheetAt(0);
+        List<String> mergedRegionList = new ArrayList<>();
+        sheet.getMergedRegions().forEach(mergedRegion -> mergedRegionList.add(mergedRegion.formatAsString()));
+        Assert.assertEquals(Arrays.asList("A1:B1", "C1:C2", "D1:D2"), mergedRegionList);
+        Assert.assertEquals("订单", sheet.getRow(0).getCell(0).getStringCellValue());
+        Assert.assertTrue(workbook.getFontAt(sheet.getRow(1).getCell(1).getCellStyle().getFontIndexAsInt()).getBold());
+        Assert.assertEquals(BorderStyle.THIN, sheet.getRow(1).getCell(2).getCellStyle().getBorderBottom());
+
+        Assert.assertEquals("<A&B>\"1", sheet.getRow(3).getCell(0).getStringCellValue());
+        Assert.assertEquals(1.5, sheet.getRow(3).getCell(1).getNumericCellValue(), 0);
+        Assert.assertEquals("#,##0.00", sheet.getRow(3).getCell(1).getCellStyle().getDataFormatString());
+        Assert.assertEquals(java.time.LocalDateTime.of(2020, 4, 24, 0, 0), sheet.getRow(3).getCell(2).getLocalDateTimeCellValue());
+        Assert.assertEquals("yyyy-mm-dd", sheet.getRow(3).getCell(2).getCellStyle().getDataFormatString());
+        Assert.assertFalse(sheet.getRow(3).getCell(3).getBooleanCellValue());
+        Assert.assertEquals("<A&B>\"4", workbook.getSheetAt(1).getRow(3).getCell(0).getStringCellValue());
+        workbook.close();
+
+        /**
+         * Sheet名称按Excel的规则校验，不区分大小写不能重名；自动分Sheet的名称超过31个字符时截短
+         */
+        String longSheetName = "012345678901234567890123456789";
+        ByteArrayOutputStream nameOutputStream = new ByteArrayOutputStream();
+        try (FastExportExcel<Map<String, Object>> fastExportExcel = new FastExportExcel<>(nameOutputStream)) {
+            fastExportExcel.setSheetMaxRows(5);
+            fastExportExcel.drawTable("Sheet", tableHeaderList, tableData.subList(0, 1));
+            for (String sheetName : Arrays.asList("SHEET", "a/b", "", longSheetName + "01")) {
+                try {
+                    fastExportExcel.drawTable(sheetName, tableHeaderList, tableData.subList(0, 1));
+                    Assert.fail();
+                } catch (IllegalArgumentException e) {
+                    Assert.assertNotNull(e.getMessage());
+                }
+            }
+            fastExportExcel.drawTable(longSheetName, tableHeaderList, tableData);
+        }
+        workbook = new XSSFWorkbook(new ByteArrayInputStream(nameOutputStream.toByteArray()));
+        Assert.assertEquals(Arrays.asList("Sheet", longSheetName, "0123456789012345678901234567(2)"),
+                Arrays.asList(workbook.getSheetName(0), workbook.getSheetName(1), workbook.getSheetName(2)));
+        workbook.close();
+
+        /**
+         * 绘制表格失败时不再写出工作簿等其余部分，关闭时抛出异常
+         */
+        Iterator<Map<String, Object>> failedIterator = new Iterator<Map<String, Object>>() {
+            private int count = 0;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Map<String, Object> next() {
+                if (count++ == 2) {
+                    throw new IllegalStateException("读取数据失败");
+                }
+                return tableData.get(0);
+            }
+        };
+        ByteArrayOutputStream failedOutputStream = new ByteArrayOutputStream();
+        FastExportExcel<Map<String, Object>> failedExportExcel = new FastExportExcel<>(failedOutputStream);
+        try {
+            failedExportExcel.drawTable("失败", tableHeaderList, failedIterator);
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("读取数据失败", e.getMessage());
+        }
+        try {
+            failedExportExcel.close();
+            Assert.fail();
+        } catch (IOException e) {
+            Assert.assertFalse(new String(failedOutputStream.toByteArray(), java.nio.charset.StandardCharsets.ISO_8859_1).contains("xl/workbook.xml"));
+        }
+
+        /**
+         * 没有绘制任何表格时不写出没有Sheet的工作簿
+         */
+        ByteArrayOutputStream emptyOutputStream = new ByteArrayOutputStream();
+        FastExportExcel<Map<String, Object>> emptyExportExcel = new FastExportExcel<>(emptyOutputStream);
+        try {
+            emptyExportExcel.close();
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertFalse(new String(emptyOutputStream.toByteArray(), java.nio.charset.StandardCharsets.ISO_8859_1).contains("xl/workbook.xml"));
+        }
+        emptyExportExcel.close();
+    }
+
+    @Test
+    public void test20() throws IOException {
+        List<TableHeader> tableHeaderList = new TableHeaderBuilder<Map<String, Object>>()
+                .group("订单", new TableHeaderBuilder<Map<String, Object>>()
+                        .column("名称", row -> row.get("name"))
+                        .column("金额", row -> row.get("amount"), "number", ""))
+                .column("日期", row -> row.get("date"), "date", "")
+                .build();
+        List<Map<String, Object>> tableData = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Map<String, Object> rowData = new HashMap<>();
+            rowData.put("name", i == 1 ? "a,\"b\"" : "名称" + i + "$bg#FF0000");
+            rowData.put("amount", new java.math.BigDecimal("1.10").add(java.math.BigDecimal.valueOf(i)));
+            rowData.put("date", java.time.LocalDateTime.of(2020, 4, 23 + i, 10, 15, 30));
+            tableData.add(rowData);
+        }
+
+        /**
+         * 多级表头展开为一行，字段按RFC 4180加双引号，不分区、不压缩
+         */
+        NomalExportExcel<Map<String, Object>> nomalExportExcel = new NomalExportExcel<>(tableHeaderList, tableData);
+        nomalExportExcel.setExportFormat(ExportFormat.CSV);
+        nomalExportExcel.setPartitionPolicy(PartitionPolicy.byRowCount(1, 1));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        Assert.assertEquals("订单.csv", nomalExportExcel.export(outputStream, "订单"));
+        Assert.assertEquals("\uFEFF订单-名称,订单-金额,日期\r\n"
+                        + "名称0,1.10,2020-04-23 10:15:30\r\n"
+                        + "\"a,\"\"b\"\"\",2.10,2020-04-24 10:15:30\r\n"
+                        + "名称2,3.10,2020-04-25 10:15:30\r\n",
+                new String(outputStream.toByteArray(), java.nio.charset.StandardCharsets.UTF_8));
+        Assert.assertEquals(3, nomalExportExcel.getExportMetrics().getRowCount());
+
+        nomalExportExcel.setExportFormat(ExportFormat.TSV);
+        ByteArrayOutputStream tsvOutputStream = new ByteArrayOutputStream();
+        Assert.assertEquals("订单.tsv", nomalExportExcel.export(tsvOutputStream, "订单"));
+        Assert.assertTrue(new String(tsvOutputStream.toByteArray(), java.nio.charset.StandardCharsets.UTF_8).startsWith("\uFEFF订单-名称\t订单-金额\t日期\r\n"));
+
+        /**
+         * 浮点数不使用科学计数法，去掉末尾的0
+         */
+        Object[] amounts = {1.2e7, 12.0, 0.1f, 1.5e-7, "3.50"};
+        List<Map<String, Object>> numberData = new ArrayList<>();
+        for (Object amount : amounts) {
+            Map<String, Object> rowData = new HashMap<>();
+            rowData.put("amount", amount);
+            numberData.add(rowData);
+        }
+        NomalExportExcel<Map<String, Object>> numberExportExcel = new NomalExportExcel<>(tableHeaderList, numberData);
+        numberExportExcel.setExportFormat(ExportFormat.CSV);
+        ByteArrayOutputStream numberOutputStream = new ByteArrayOutputStream();
+        numberExportExcel.export(numberOutputStream, "金额");
+        Assert.assertEquals("\uFEFF订单-名称,订单-金额,日期\r\n"
+                        + ",12000000,\r\n"
+                        + ",12,\r\n"
+                        + ",0.1,\r\n"
+                        + ",0.00000015,\r\n"
+                        + ",3.5,\r\n",
+                new String(numberOutputStream.toByteArray(), java.nio.charset.StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void test21() throws IOException {
+        List<TableHeader> tableHeaderList = new TableHeaderBuilder<List<String>>()
+                .column("编号", row -> row.get(0))
+                .column("名称", row -> row.get(1))
+                .column("备注", row -> row.get(2))
+                .build();
+        List<List<String>> tableData = new ArrayList<>();
+        StringBuilder remark = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            remark.append('x');
+        }
+        for (int i = 0; i < 1000; i++) {
+            tableData.add(Arrays.asList(String.valueOf(i), "名称名称名称", i == 0 ? remark.toString() : "备注"));
+        }
+
+        /**
+         * 流式导出时按前10行和抽样的10行估算列宽：中文按两个字符计算，表头文字为最小宽度，超过60个字符时截断
+         */
+        ExportExcel<List<String>> exportExcel = new ExportExcel<>(10);
+        exportExcel.setColumnWidthPolicy(ColumnWidthPolicy.sampling(10, 10, 60));
+        exportExcel.createExcel("sheet");
+        exportExcel.drawTable(tableHeaderList, tableData);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        exportExcel.write(outputStream);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            XSSFSheet sheet = workbook.getSheetAt(0);
+            Assert.assertEquals((4 + 2) * 256, sheet.getColumnWidth(0));
+            Assert.assertEquals((12 + 2) * 256, sheet.getColumnWidth(1));
+            Assert.assertEquals(60 * 256, sheet.getColumnWidth(2));
+        }
+    }
+
+    @Test
+    public void test22() throws IOException {
+        List<TableHeader> tableHeaderList = new TableHeaderBuilder<List<Object>>()
+                .group("订单", new TableHeaderBuilder<List<Object>>()
+                        .column("编号", row -> row.get(0), "number", "")
+                        .column("名称", row -> row.get(1)))
+                .build();
+        File exportDir = new File(System.getProperty("java.io.tmpdir"), "append-" + System.nanoTime());
+
+        /**
+         * 每个Sheet5行，每个Excel2个Sheet：3行 -> 追加4行（第一个Sheet追加2行，新建第二个Sheet）-> 追加6行（第一个Excel满了之后新建第二个Excel）
+         */
+        int[] appendRowNums = {3, 4, 6};
+        int rowIndex = 0;
+        List<List<String>> appendedFileList = new ArrayList<>();
+        int cellStyleCount = 0;
+        for (int k = 0; k < appendRowNums.length; k++) {
+            List<List<Object>> tableData = new ArrayList<>();
+            for (int i = 0; i < appendRowNums[k]; i++, rowIndex++) {
+                tableData.add(Arrays.asList(rowIndex, "名称" + rowIndex));
+            }
+            NomalExportExcel<List<Object>> nomalExportExcel = new NomalExportExcel<>(tableHeaderList, tableData);
+            nomalExportExcel.setPartitionPolicy(PartitionPolicy.byRowCount(5, 2));
+            nomalExportExcel.setRowAccessWindowSize(k == 1 ? 2 : 0);
+            List<String> filePathList = nomalExportExcel.append(exportDir.getPath(), "append");
+            appendedFileList.add(new ArrayList<>());
+            for (String filePath : filePathList) {
+                appendedFileList.get(k).add(new File(filePath).getName());
+            }
+            Assert.assertEquals(appendRowNums[k], nomalExportExcel.getExportMetrics().getRowCount());
+
+            /**
+             * 追加时使用已有的样式，不会重复创建
+             */
+            if (k == 1) {
+                try (XSSFWorkbook workbook = new XSSFWorkbook(new FileInputStream(new File(exportDir, "append.xlsx")))) {
+                    Assert.assertEquals(cellStyleCount, workbook.getNumCellStyles());
+                }
+            }
+            try (XSSFWorkbook workbook = new XSSFWorkbook(new FileInputStream(new File(exportDir, "append.xlsx")))) {
+                cellStyleCount = workbook.getNumCellStyles();
+            }
+        }
+        Assert.assertEquals(Arrays.asList(Collections.singletonList("append.xlsx"), Collections.singletonList("append.xlsx"),
+                Arrays.asList("append.xlsx", "append(2).xlsx")), appendedFileList);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new FileInputStream(new File(exportDir, "append.xlsx")))) {
+            Assert.assertEquals(2, workbook.getNumberOfSheets());
+            for (int i = 0; i < 10; i++) {
+                XSSFSheet sheet = workbook.getSheetAt(i / 5);
+                Assert.assertEquals(i, (int) sheet.getRow(2 + i % 5).getCell(0).getNumericCellValue());
+                Assert.assertEquals("名称" + i, sheet.getRow(2 + i % 5).getCell(1).getStringCellValue());
+            }
+            Assert.assertEquals(6, workbook.getSheetAt(0).getLastRowNum());
+        }
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new FileInputStream(new File(exportDir, "append(2).xlsx")))) {
+            Assert.assertEquals(1, workbook.getNumberOfSheets());
+            Assert.assertEquals("名称12", workbook.getSheetAt(0).getRow(4).getCell(1).getStringCellValue());
+            Assert.assertEquals(4, workbook.getSheetAt(0).getLastRowNum());
+        }
+
+        /**
+         * 表头不一致时不能追加
+         */
+        List<TableHeader> otherTableHeaderList = new TableHeaderBuilder<List<Object>>()
+                .column("编号", row -> row.get(0))
+                .build();
+        NomalExportExcel<List<Object>> otherExportExcel = new NomalExportExcel<>(otherTableHeaderList, Collections.singletonList(Arrays.asList(1)));
+        otherExportExcel.setPartitionPolicy(PartitionPolicy.byRowCount(5, 2));
+        try {
+            otherExportExcel.append(exportDir.getPath(), "append(2)");
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage().contains("表头"));
+        }
+
+        /**
+         * 模板中的说明页不计入数据行数和Sheet数：3行 -> 追加4行（第一个Sheet追加2行，新建第二个Sheet）
+         */
+        XSSFWorkbook baseWorkbook = new XSSFWorkbook();
+        XSSFSheet noteSheet = baseWorkbook.createSheet("说明");
+        for (int i = 0; i < 20; i++) {
+            noteSheet.createRow(i).createCell(0).setCellValue("说明" + i);
+        }
+        ByteArrayOutputStream baseOutputStream = new ByteArrayOutputStream();
+        baseWorkbook.write(baseOutputStream);
+        baseWorkbook.close();
+        ExcelTemplate excelTemplate = ExcelTemplate.of(tableHeaderList, new ByteArrayInputStream(baseOutputStream.toByteArray()), null);
+        rowIndex = 0;
+        for (int appendRowNum : new int[]{3, 4}) {
+            List<List<Object>> tableData = new ArrayList<>();
+            for (int i = 0; i < appendRowNum; i++, rowIndex++) {
+                tableData.add(Arrays.asList(rowIndex, "名称" + rowIndex));
+            }
+            NomalExportExcel<List<Object>> nomalExportExcel = new NomalExportExcel<>(tableHeaderList, tableData);
+            nomalExportExcel.setPartitionPolicy(PartitionPolicy.byRowCount(5, 2));
+            nomalExportExcel.setExcelTemplate(excelTemplate);
+            List<String> filePathList = nomalExportExcel.append(exportDir.getPath(), "template");
+            Assert.assertEquals(1, filePathList.size());
+            Assert.assertEquals("template.xlsx", new File(filePathList.get(0)).getName());
+        }
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new FileInputStream(new File(exportDir, "template.xlsx")))) {
+            Assert.assertEquals(Arrays.asList("说明", "template(1)", "template(2)"),
+                    Arrays.asList(workbook.getSheetName(0), workbook.getSheetName(1), workbook.getSheetName(2)));
+            Assert.assertEquals("名称4", workbook.getSheetAt(1).getRow(6).getCell(1).getStringCellValue());
+            Assert.assertEquals("名称6", workbook.getSheetAt(2).getRow(3).getCell(1).getStringCellValue());
+        }
+
+        for (File file : exportDir.listFiles()) {
+            file.delete();
+        }
+        exportDir.delete();
+    }
+
+    @Test
+    public void test23() throws IOException {
+        List<TableHeader> tableHeaderList = new TableHeaderBuilder<List<Object>>()
+                .column("编号", row -> row.get(0), "number", "")
+                .column("名称", row -> row.get(1))
+                .build();
+        List<List<Object>> tableData = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            tableData.add(Arrays.asList(i, "名称" + i));
+        }
+        File exportDir = new File(System.getProperty("java.io.tmpdir"), "resumable-" + System.nanoTime());
+        File workDir = new File(exportDir, "job-1.parts");
+
+        /**
+         * 第一次导出在第13行失败：前两个Excel已经写出并记录在清单中
+         */
+        Iterator<List<Object>> failingIterator = new Iterator<List<Object>>() {
+            private int i = 0;
+
+            @Override
+            public boolean hasNext() {
+                return this.i < tableData.size();
+            }
+
+            @Override
+            public List<Object> next() {
+                if (this.i == 12) {
+                    throw new IllegalStateException("磁盘已满");
+                }
+                return tableData.get(this.i++);
+            }
+        };
+        NomalExportExcel<List<Object>> failedExportExcel = new NomalExportExcel<>(tableHeaderList, failingIterator);
+        failedExportExcel.setPartitionPolicy(PartitionPolicy.byRowCount(5, 1));
+        try {
+            failedExportExcel.exportResumable(exportDir.getPath(), "resumable", "job-1");
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("磁盘已满", e.getMessage());
+        }
+        Assert.assertTrue(new File(workDir, "manifest.properties").exists());
+        Assert.assertTrue(new File(workDir, "resumable(2).xlsx").exists());
+        Assert.assertFalse(new File(workDir, "resumable(3).xlsx").exists());
+
+        /**
+         * 用相同的任务id重新导出，从第三个Excel继续，完成后合并为压缩包并删除工作目录
+         */
+        NomalExportExcel<List<Object>> nomalExportExcel = new NomalExportExcel<>(tableHeaderList, tableData);
+        nomalExportExcel.setPartitionPolicy(PartitionPolicy.byRowCount(5, 1));
+        String filePath = nomalExportExcel.exportResumable(exportDir.getPath(), "resumable", "job-1");
+        Assert.assertEquals("resumable.zip", new File(filePath).getName());
+        Assert.assertEquals(15, nomalExportExcel.getExportMetrics().getRowCount());
+        Assert.assertEquals(25, nomalExportExcel.getExportProgress().getRowCount());
+        Assert.assertFalse(workDir.exists());
+
+        List<String> fileNameInZipList = new ArrayList<>();
+        try (java.util.zip.ZipInputStream zipInputStream = new java.util.zip.ZipInputStream(new FileInputStream(filePath))) {
+            java.util.zip.ZipEntry zipEntry;
+            while ((zipEntry = zipInputStream.getNextEntry()) != null) {
+                fileNameInZipList.add(zipEntry.getName());
+                ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+                byte[] buffer = new byte[8192];
+                for (int n; (n = zipInputStream.read(buffer)) != -1; ) {
+                    outputStream.write(buffer, 0, n);
+                }
+                try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+                    int excelIndex = fileNameInZipList.size();
+                    Assert.assertEquals("名称" + (excelIndex - 1) * 5, workbook.getSheetAt(0).getRow(1).getCell(1).getStringCellValue());
+                }
+            }
+        }
+        Assert.assertEquals(Arrays.asList("resumable(1).xlsx", "resumable(2).xlsx", "resumable(3).xlsx", "resumable(4).xlsx", "resumable(5).xlsx"), fileNameInZipList);
+
+        new File(filePath).delete();
+        exportDir.delete();
+    }
+
+    @Test
+    public void test24() throws IOException {
+        List<TableHeader> tableHeaderList = new TableHeaderBuilder<List<String>>()
+                .column("名称", row -> row.get(0))
+                .build();
+        List<List<String>> tableData = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            tableData.add(Collections.singletonList("名称" + i));
+        }
+
+        /**
+         * 写出失败（例如磁盘已满）时同样删除流式导出的临时文件
+         */
+        File tempDir = new File(System.getProperty("java.io.tmpdir"), "dispose-" + System.nanoTime());
+        tempDir.mkdirs();
+        TempFile.setTempFileCreationStrategy(new DefaultTempFileCreationStrategy(tempDir));
+        try {
+            ExportExcel<List<String>> exportExcel = new ExportExcel<>(10);
+            exportExcel.createExcel("sheet");
+            exportExcel.drawTable(tableHeaderList, tableData);
+            Assert.assertTrue(countFiles(tempDir) > 0);
+            try {
+                exportExcel.write(new java.io.OutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        throw new IOException("磁盘已满");
+                    }
+                });
+                Assert.fail();
+            } catch (IOException e) {
+                Assert.assertNotNull(e.getMessage());
+            }
+            Assert.assertEquals(0, countFiles(tempDir));
+        } finally {
+            TempFile.setTempFileCreationStrategy(new DefaultTempFileCreationStrategy());
+            deleteRecursively(tempDir);
+        }
+
+        /**
+         * 导出至输出流的压缩包中途失败时不写出中央目录，调用方不会拿到一个看起来完整的压缩包
+         */
+        Iterator<List<String>> failedIterator = new Iterator<List<String>>() {
+            private int rowIndex = 0;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public List<String> next() {
+                if (rowIndex == 15) {
+                    throw new IllegalStateException("读取数据失败");
+                }
+                return tableData.get(rowIndex++);
+            }
+        };
+        NomalExportExcel<List<String>> nomalExportExcel = new NomalExportExcel<>(tableHeaderList, failedIterator);
+        nomalExportExcel.setPartitionPolicy(PartitionPolicy.byRowCount(5, 1));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try {
+            nomalExportExcel.export(outputStream, "失败");
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("读取数据失败", e.getMessage());
+        }
+        Assert.assertTrue(outputStream.size() > 0);
+        Assert.assertFalse(containsEndOfCentralDirectory(outputStream.toByteArray()));
+
+        NomalExportExcel<List<String>> completeExportExcel = new NomalExportExcel<>(tableHeaderList, tableData.subList(0, 15));
+        completeExportExcel.setPartitionPolicy(PartitionPolicy.byRowCount(5, 1));
+        ByteArrayOutputStream completeOutputStream = new ByteArrayOutputStream();
+        Assert.assertEquals("完整.zip", completeExportExcel.export(completeOutputStream, "完整"));
+        Assert.assertTrue(containsEndOfCentralDirectory(completeOutputStream.toByteArray()));
+    }
+
+    /**
+     * 是否包含压缩包的中央目录结束标记 PK\5\6
+     */
+    private static boolean containsEndOfCentralDirectory(byte[] bytes) {
+        for (int i = 0; i + 3 < bytes.length; i++) {
+            if (bytes[i] == 'P' && bytes[i + 1] == 'K' && bytes[i + 2] == 5 && bytes[i + 3] == 6) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int countFiles(File dir) {
+        int count = 0;
+        File[] files = dir.listFiles();
+        for (File file : files == null ? new File[0] : files) {
+            count += file.isDirectory() ? countFiles(file) : 1;
+        }
+        return count;
+    }
+
+    private static void deleteRecursively(File file) {
+        File[] files = file.listFiles();
+        if (files != null) {
+            for (File child : files) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+
     @Test
     public void test02() throws IOException {
         List<TableHeader> tableHeaderList = new ArrayList<>();
@@ -195,4 +1611,43 @@ class B{
     public void setData(List<Map<String, Map<String, String>>> data) {
         this.data = data;
     }
-}
\ No newline at end of file
+}
+
+class C{
+    private A a;
+    private B b;
+    private List<A> list;
+    private Integer count;
+
+    public A getA() {
+        return a;
+    }
+
+    public void setA(A a) {
+        this.a = a;
+    }
+
+    public B getB() {
+        return b;
+    }
+
+    public void setB(B b) {
+        this.b = b;
+    }
+
+    public List<A> getList() {
+        return list;
+    }
+
+    public void setList(List<A> list) {
+        this.list = list;
+    }
+
+    public Integer getCount() {
+        return count;
+    }
+
+    public void setCount(Integer count) {
+        this.count = count;
+    }
+}